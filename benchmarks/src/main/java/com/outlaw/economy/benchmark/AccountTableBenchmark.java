@@ -0,0 +1,127 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.core.AccountTable;
+import com.outlaw.economy.core.BalanceLeaderboard;
+import com.outlaw.economy.core.TransactionSource;
+import com.outlaw.economy.metrics.EconomyMetrics;
+import com.outlaw.economy.storage.TransactionJournal;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The striped account table on its own, with a single stripe against the default 64 to show what
+ * striping buys under contention, and with or without the listeners the economy attaches to it.
+ * The listeners include a real transaction journal in a temporary directory. Every 50 ms another
+ * thread drains the leaderboard queue and writes the journal, rolling to a new segment and
+ * deleting the previous ones as checkpoints would, so that neither grows unbounded.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccountTableBenchmark {
+
+    private static final long AMOUNT = 100L;
+
+    @Param({"1", "64"})
+    public int stripes;
+
+    @Param({"100000"})
+    public int accounts;
+
+    @Param({"false", "true"})
+    public boolean listeners;
+
+    private AccountTable table;
+    private ScheduledExecutorService drainer;
+    private TransactionJournal journal;
+    private File directory;
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() throws IOException {
+        ids = BenchmarkData.playerIds(accounts);
+        long[] balances = BenchmarkData.balances(accounts);
+        AccountTable.ChangeListener listener = AccountTable.NO_LISTENER;
+        if (listeners) {
+            BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+            directory = BenchmarkData.createTempDirectory("journal");
+            TransactionJournal openJournal = new TransactionJournal(directory, Logger.getLogger("benchmark"), 16L << 20);
+            openJournal.open();
+            journal = openJournal;
+            drainer = Executors.newSingleThreadScheduledExecutor();
+            drainer.scheduleAtFixedRate(() -> {
+                leaderboard.drain();
+                try {
+                    long generation = openJournal.mark();
+                    openJournal.seal(generation);
+                    openJournal.deleteBefore(generation);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, 50L, 50L, TimeUnit.MILLISECONDS);
+            EconomyMetrics metrics = new EconomyMetrics(null, () -> -1L);
+            listener = (playerId, delta, balance, source) -> {
+                openJournal.append(playerId, delta, balance, source);
+                leaderboard.offer(playerId, balance);
+                metrics.record(delta, source);
+            };
+        }
+        table = new AccountTable(stripes, listener);
+        for (int i = 0; i < accounts; i++) {
+            table.load(ids[i], balances[i] + BenchmarkData.RESERVE);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (drainer != null) {
+            drainer.shutdownNow();
+        }
+        if (journal != null) {
+            journal.close();
+            BenchmarkData.delete(directory);
+        }
+    }
+
+    @Benchmark
+    public long add() {
+        return table.add(randomId(), AMOUNT, 0L, TransactionSource.SHOP_SELL);
+    }
+
+    @Benchmark
+    public long withdraw() {
+        return table.withdraw(randomId(), AMOUNT, 0L, TransactionSource.SHOP_BUY);
+    }
+
+    @Benchmark
+    public long get() {
+        return table.get(randomId(), 0L);
+    }
+
+    private UUID randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
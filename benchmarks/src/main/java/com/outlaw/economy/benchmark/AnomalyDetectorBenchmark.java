@@ -0,0 +1,57 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.anomaly.AnomalyDetector;
+import com.outlaw.economy.core.TransactionSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Earnings tracking at the highest rate the anomaly rules can see: every call is a shop sale,
+ * spread over many accounts or all on the same one, with the rules of the bundled config.yml or
+ * with every rule in it enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnomalyDetectorBenchmark {
+
+    @Param({"default", "all"})
+    public String rules;
+
+    @Param({"1", "10000"})
+    public int players;
+
+    private AnomalyDetector detector;
+    private UUID[] ids;
+    private final LongAdder alerts = new LongAdder();
+
+    @Setup
+    public void setUp() {
+        detector = new AnomalyDetector(null, BenchmarkData.bundledRules(rules.equals("all")), Long::toString, (playerId, rule, detail) -> alerts.increment());
+        ids = BenchmarkData.playerIds(players);
+    }
+
+    @Benchmark
+    public void record() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        detector.record(ids[random.nextInt(ids.length)], 100L + random.nextInt(10_000),
+                TransactionSource.SHOP_SELL, System.currentTimeMillis());
+    }
+}
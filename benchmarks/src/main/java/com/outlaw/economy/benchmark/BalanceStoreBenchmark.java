@@ -0,0 +1,77 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.storage.BalanceStore;
+import com.outlaw.economy.storage.BalanceStores;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading every account back and saving every account at once, per storage backend, which is
+ * what startup (leaderboard build, migration) and a full checkpoint cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BalanceStoreBenchmark {
+
+    @Param({"yaml", "mmap", "sqlite", "h2"})
+    public String backend;
+
+    @Param({"10000", "100000", "1000000"})
+    public int accounts;
+
+    private File directory;
+    private BalanceStore store;
+    private Map<UUID, Long> balances;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = BenchmarkData.createTempDirectory("store");
+        store = BalanceStores.open(backend, directory);
+        UUID[] ids = BenchmarkData.playerIds(accounts);
+        long[] amounts = BenchmarkData.balances(accounts);
+        balances = new HashMap<>(accounts * 2);
+        for (int i = 0; i < accounts; i++) {
+            balances.put(ids[i], amounts[i]);
+        }
+        store.store(balances);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        store.close();
+        BenchmarkData.delete(directory);
+    }
+
+    @Benchmark
+    public long loadAll() throws IOException {
+        long[] total = {0L};
+        store.forEach((playerId, balance) -> total[0] += balance);
+        return total[0];
+    }
+
+    @Benchmark
+    public void saveAll() throws IOException {
+        store.store(balances);
+    }
+}
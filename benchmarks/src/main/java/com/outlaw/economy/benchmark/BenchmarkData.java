@@ -0,0 +1,99 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.anomaly.AnomalyRule;
+import com.outlaw.economy.anomaly.AnomalyRuleLoader;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Reproducible inputs shared by the benchmarks, so that two runs measure the same data.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Added to the generated balances of accounts that are withdrawn from, so that no withdrawal
+     * fails during a run.
+     */
+    public static final long RESERVE = 100_000_000_000L;
+    private static final long SEED = 0x5EED_0E60L;
+
+    private BenchmarkData() {
+    }
+
+    public static UUID[] playerIds(int count) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        UUID[] ids = new UUID[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = new UUID((random.nextLong() & ~0xF000L) | 0x4000L, (random.nextLong() & ~(3L << 62)) | (2L << 62));
+        }
+        return ids;
+    }
+
+    /**
+     * @return balances in minor units, mostly small with a long tail as on a live server
+     */
+    public static long[] balances(int count) {
+        SplittableRandom random = new SplittableRandom(SEED + 1);
+        long[] balances = new long[count];
+        for (int i = 0; i < count; i++) {
+            double major = Math.exp(random.nextDouble() * 14d);
+            balances[i] = (long) (major * 100d) + random.nextInt(100);
+        }
+        return balances;
+    }
+
+    /**
+     * @param enableAll whether to also enable the rules the bundled config.yml leaves off
+     * @return the anomaly rules of the bundled config.yml
+     */
+    public static List<AnomalyRule> bundledRules(boolean enableAll) {
+        YamlConfiguration config;
+        try (Reader reader = new InputStreamReader(
+                BenchmarkData.class.getResourceAsStream("/config.yml"), StandardCharsets.UTF_8)) {
+            config = YamlConfiguration.loadConfiguration(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        ConfigurationSection section = config.getConfigurationSection("anomaly.rules");
+        if (enableAll && section != null) {
+            for (String name : section.getKeys(false)) {
+                section.set(name + ".enabled", true);
+            }
+        }
+        return AnomalyRuleLoader.load(section, Logger.getLogger("benchmark"));
+    }
+
+    public static File createTempDirectory(String prefix) {
+        try {
+            return Files.createTempDirectory("outlaw-bench-" + prefix).toFile();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static void delete(File directory) {
+        if (directory == null || !directory.exists()) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory.toPath())) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.outlaw.economy.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs the benchmarks and writes every result to a single JMH JSON file. Benchmarks of code that
+ * is called from several threads at once run again at each thread count.
+ * <p>
+ * Usage: {@code java -jar benchmarks.jar [-o results.json] [-t 1,2,4,8,16] [regex]}
+ */
+public final class BenchmarkMain {
+
+    private static final String CONCURRENT =
+            "\\.(EconomyBenchmark|AccountTableBenchmark|AnomalyDetectorBenchmark|LatencyHistogramBenchmark)\\.";
+    private static final int[] DEFAULT_THREADS = {1, 2, 4, 8, 16};
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String output = null;
+        int[] threads = DEFAULT_THREADS;
+        String filter = ".*";
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-o" -> output = args[++i];
+                case "-t" -> threads = parseThreads(args[++i]);
+                default -> filter = args[i];
+            }
+        }
+        if (output == null) {
+            output = "results/jmh-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json";
+        }
+
+        List<RunResult> results = new ArrayList<>();
+        run(results, new OptionsBuilder().include(filter).exclude(CONCURRENT).threads(1));
+        for (int count : threads) {
+            run(results, new OptionsBuilder().include(filter).exclude("^(?!.*" + CONCURRENT + ")").threads(count));
+        }
+
+        File file = new File(output);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, file.getPath()).writeOut(results);
+        System.out.println("Results written to " + file.getAbsolutePath());
+    }
+
+    private static void run(List<RunResult> results, ChainedOptionsBuilder options) throws RunnerException {
+        try {
+            results.addAll(new Runner(options.shouldFailOnError(true).build()).run());
+        } catch (NoBenchmarksException ignored) {
+        }
+    }
+
+    private static int[] parseThreads(String value) {
+        String[] parts = value.split(",");
+        int[] counts = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            counts[i] = Math.max(1, Integer.parseInt(parts[i].trim()));
+        }
+        return counts;
+    }
+}
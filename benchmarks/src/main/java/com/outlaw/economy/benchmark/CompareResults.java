@@ -0,0 +1,85 @@
+package com.outlaw.economy.benchmark;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Prints every benchmark found in two JMH JSON result files with its score in each and the
+ * change, so that a run before a change can be read against the run after it.
+ * <p>
+ * Usage: {@code java -cp benchmarks.jar com.outlaw.economy.benchmark.CompareResults before.json after.json}
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: CompareResults <before.json> <after.json>");
+            System.exit(2);
+        }
+        Map<String, JsonObject> before = read(Path.of(args[0]));
+        Map<String, JsonObject> after = read(Path.of(args[1]));
+        Set<String> keys = new TreeSet<>(before.keySet());
+        keys.addAll(after.keySet());
+        for (String key : keys) {
+            JsonObject old = before.get(key);
+            JsonObject current = after.get(key);
+            StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "%-90s", key));
+            line.append(old == null ? String.format(Locale.ROOT, "%16s", "-") : score(old));
+            line.append(current == null ? String.format(Locale.ROOT, "%16s", "-") : score(current));
+            if (old != null && current != null) {
+                double from = old.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+                double to = current.getAsJsonObject("primaryMetric").get("score").getAsDouble();
+                if (from != 0d) {
+                    line.append(String.format(Locale.ROOT, "  %+7.1f%%", (to - from) / from * 100d));
+                }
+            }
+            System.out.println(line);
+        }
+    }
+
+    private static Map<String, JsonObject> read(Path file) throws IOException {
+        Map<String, JsonObject> results = new LinkedHashMap<>();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            for (JsonElement element : JsonParser.parseReader(reader).getAsJsonArray()) {
+                JsonObject result = element.getAsJsonObject();
+                results.put(keyOf(result), result);
+            }
+        }
+        return results;
+    }
+
+    private static String keyOf(JsonObject result) {
+        StringBuilder key = new StringBuilder(result.get("benchmark").getAsString()
+                .replace("com.outlaw.economy.", ""));
+        if (result.has("params")) {
+            Map<String, String> params = new TreeMap<>();
+            for (Map.Entry<String, JsonElement> param : result.getAsJsonObject("params").entrySet()) {
+                params.put(param.getKey(), param.getValue().getAsString());
+            }
+            params.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+        }
+        return key.append(" t=").append(result.get("threads").getAsInt()).toString();
+    }
+
+    private static String score(JsonObject result) {
+        JsonObject metric = result.getAsJsonObject("primaryMetric");
+        return String.format(Locale.ROOT, "%16s", String.format(Locale.ROOT, "%.3f %s",
+                metric.get("score").getAsDouble(), metric.get("scoreUnit").getAsString()));
+    }
+}
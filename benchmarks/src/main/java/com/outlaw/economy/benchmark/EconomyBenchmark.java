@@ -0,0 +1,93 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.core.EconomyEngine;
+import com.outlaw.economy.core.EconomySettings;
+import com.outlaw.economy.core.ExecutorTaskScheduler;
+import com.outlaw.economy.storage.PersistenceScheduler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Balance operations through a headless {@link EconomyEngine}, with the journal, ledger,
+ * leaderboard, metrics and anomaly rules of a default configuration behind them. Run at 1 to 16
+ * threads by {@link BenchmarkMain}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EconomyBenchmark {
+
+    private static final long AMOUNT = 100L;
+    private static final Logger LOGGER = Logger.getLogger("benchmark");
+
+    @Param({"1000", "100000"})
+    public int accounts;
+
+    private File directory;
+    private ExecutorTaskScheduler scheduler;
+    private PersistenceScheduler persistence;
+    private EconomyEngine economy;
+    private UUID[] ids;
+
+    @Setup
+    public void setUp() {
+        directory = BenchmarkData.createTempDirectory("economy");
+        scheduler = new ExecutorTaskScheduler("benchmark-main", LOGGER);
+        persistence = new PersistenceScheduler(scheduler, LOGGER);
+        economy = new EconomyEngine(EconomySettings.defaults(directory).withAnomalyRules(BenchmarkData.bundledRules(false)),
+                scheduler, persistence, LOGGER);
+        persistence.start(40L);
+        ids = BenchmarkData.playerIds(accounts);
+        long[] balances = BenchmarkData.balances(accounts);
+        for (int i = 0; i < accounts; i++) {
+            economy.setBalanceMinor(ids[i], balances[i] + BenchmarkData.RESERVE, "benchmark");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        economy.shutdown();
+        persistence.shutdown(30L);
+        economy.closeStorage();
+        scheduler.shutdown();
+        BenchmarkData.delete(directory);
+    }
+
+    @Benchmark
+    public boolean deposit() {
+        return economy.depositMinor(randomId(), AMOUNT, "benchmark");
+    }
+
+    @Benchmark
+    public boolean withdraw() {
+        return economy.withdrawMinor(randomId(), AMOUNT, "benchmark");
+    }
+
+    @Benchmark
+    public long getBalance() {
+        return economy.getBalanceMinor(randomId());
+    }
+
+    private UUID randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
@@ -0,0 +1,56 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.metrics.HotPath;
+import com.outlaw.economy.metrics.LatencyHistogram;
+import com.outlaw.economy.metrics.PerformanceMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What timing a hot path adds to it, with the monitor on and off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LatencyHistogramBenchmark {
+
+    @Param({"false", "true"})
+    public boolean enabled;
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Setup
+    public void setUp() {
+        new PerformanceMonitor(null, null).setEnabled(enabled);
+    }
+
+    @Benchmark
+    public void record() {
+        histogram.record(ThreadLocalRandom.current().nextLong(1_000_000L));
+    }
+
+    @Benchmark
+    public void probe() {
+        PerformanceMonitor.stop(HotPath.DEPOSIT, PerformanceMonitor.start());
+    }
+
+    @Benchmark
+    public long percentile() {
+        return histogram.snapshot().percentile(0.99);
+    }
+}
@@ -0,0 +1,74 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.api.LeaderboardEntry;
+import com.outlaw.economy.core.BalanceLeaderboard;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * /baltop and /balance rank on a full leaderboard, and the cost of moving one account in it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LeaderboardBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int accounts;
+
+    private BalanceLeaderboard leaderboard;
+    private UUID[] ids;
+    private long[] balances;
+
+    @Setup
+    public void setUp() {
+        ids = BenchmarkData.playerIds(accounts);
+        balances = BenchmarkData.balances(accounts);
+        leaderboard = new BalanceLeaderboard();
+        for (int i = 0; i < accounts; i++) {
+            leaderboard.offer(ids[i], balances[i]);
+        }
+        leaderboard.drain();
+    }
+
+    @Benchmark
+    public long update() {
+        int index = ThreadLocalRandom.current().nextInt(accounts);
+        balances[index] += ThreadLocalRandom.current().nextBoolean() ? 100L : -100L;
+        leaderboard.offer(ids[index], balances[index]);
+        leaderboard.drain();
+        return balances[index];
+    }
+
+    @Benchmark
+    public int rank() {
+        return leaderboard.rank(ids[ThreadLocalRandom.current().nextInt(accounts)]);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> topPage() {
+        return leaderboard.page(0, 10);
+    }
+
+    @Benchmark
+    public List<LeaderboardEntry> deepPage() {
+        return leaderboard.page(accounts / 2, 10);
+    }
+}
@@ -0,0 +1,117 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.api.LedgerEntry;
+import com.outlaw.economy.storage.TransactionLedger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Transaction history: appending a flush worth of entries, and reading a page of an account's
+ * history back from a segment that already holds many entries.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LedgerBenchmark {
+
+    private static final int BATCH = 1000;
+    private static final Logger LOGGER = Logger.getLogger("benchmark");
+
+    @State(Scope.Benchmark)
+    public static class Writer {
+        private final UUID[] ids = BenchmarkData.playerIds(10_000);
+        private File directory;
+        private TransactionLedger ledger;
+
+        @Setup(Level.Iteration)
+        public void open() throws IOException {
+            directory = BenchmarkData.createTempDirectory("ledger");
+            ledger = new TransactionLedger(directory, LOGGER, 90);
+            ledger.open();
+        }
+
+        @TearDown(Level.Iteration)
+        public void close() {
+            ledger.close();
+            BenchmarkData.delete(directory);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Reader {
+        @Param({"100000", "1000000"})
+        public int entries;
+
+        private UUID[] ids;
+        private File directory;
+        private TransactionLedger ledger;
+
+        @Setup
+        public void open() throws IOException {
+            ids = BenchmarkData.playerIds(1000);
+            directory = BenchmarkData.createTempDirectory("ledger");
+            ledger = new TransactionLedger(directory, LOGGER, 90);
+            ledger.open();
+            long now = System.currentTimeMillis();
+            for (int i = 0; i < entries; i++) {
+                ledger.append(new LedgerEntry(now, ids[i % ids.length], 100L, i, "Shop sell: 16x DIAMOND", null));
+                if (i % BATCH == BATCH - 1) {
+                    ledger.flush();
+                }
+            }
+            ledger.flush();
+        }
+
+        @TearDown
+        public void close() {
+            ledger.close();
+            BenchmarkData.delete(directory);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void appendAndFlush(Writer writer) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < BATCH; i++) {
+            UUID id = writer.ids[random.nextInt(writer.ids.length)];
+            writer.ledger.append(new LedgerEntry(now, id, 100L, 10_000L, "Shop sell: 16x DIAMOND", null));
+        }
+        writer.ledger.flush();
+    }
+
+    @Benchmark
+    public List<LedgerEntry> historyPage(Reader reader) throws IOException {
+        UUID id = reader.ids[ThreadLocalRandom.current().nextInt(reader.ids.length)];
+        return reader.ledger.history(id, 0, 10);
+    }
+
+    @Benchmark
+    public List<LedgerEntry> historyDeepPage(Reader reader) throws IOException {
+        UUID id = reader.ids[ThreadLocalRandom.current().nextInt(reader.ids.length)];
+        return reader.ledger.history(id, 90, 10);
+    }
+}
@@ -0,0 +1,65 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.api.MoneyFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.text.DecimalFormat;
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Amount formatting, against the {@link DecimalFormat} it replaced. {@code formatRepeated} hits
+ * the formatter's cache the way a sidebar refresh does, {@code formatDistinct} misses it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyFormatBenchmark {
+
+    private static final int AMOUNTS = 4096;
+
+    private final MoneyFormat format = new MoneyFormat(Locale.FRANCE);
+    private final ThreadLocal<DecimalFormat> decimalFormat = ThreadLocal.withInitial(() -> new DecimalFormat("#,##0.00"));
+    private final StringBuilder builder = new StringBuilder();
+    private long[] amounts;
+
+    @Setup
+    public void setUp() {
+        amounts = BenchmarkData.balances(AMOUNTS);
+    }
+
+    @Benchmark
+    public String formatRepeated() {
+        return format.format(amounts[ThreadLocalRandom.current().nextInt(16)]);
+    }
+
+    @Benchmark
+    public String formatDistinct() {
+        return format.format(amounts[ThreadLocalRandom.current().nextInt(AMOUNTS)] + ThreadLocalRandom.current().nextInt(1 << 20));
+    }
+
+    @Benchmark
+    public int formatTo() {
+        builder.setLength(0);
+        format.formatTo(amounts[ThreadLocalRandom.current().nextInt(AMOUNTS)], builder);
+        return builder.length();
+    }
+
+    @Benchmark
+    public String decimalFormat() {
+        return decimalFormat.get().format(amounts[ThreadLocalRandom.current().nextInt(AMOUNTS)] / 100d);
+    }
+}
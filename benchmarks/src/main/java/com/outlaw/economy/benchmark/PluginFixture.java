@@ -0,0 +1,66 @@
+package com.outlaw.economy.benchmark;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import be.seeseemelk.mockbukkit.ServerMock;
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.outlaw.economy.OutlawEconomyPlugin;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The plugin enabled on a MockBukkit server, for the benchmarks that need the whole plugin. A
+ * daemon thread ticks the server every 50 ms like a real one, so that the journal, the ledger and
+ * the other repeating tasks keep up with the load instead of queueing it for the whole run.
+ */
+public final class PluginFixture {
+
+    private static ServerMock server;
+    private static OutlawEconomyPlugin plugin;
+    private static ScheduledExecutorService ticker;
+
+    private PluginFixture() {
+    }
+
+    public static synchronized OutlawEconomyPlugin start() {
+        if (plugin == null) {
+            server = MockBukkit.mock();
+            plugin = MockBukkit.load(OutlawEconomyPlugin.class);
+            ticker = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "benchmark-server-tick");
+                thread.setDaemon(true);
+                return thread;
+            });
+            ticker.scheduleAtFixedRate(PluginFixture::tick, 50L, 50L, TimeUnit.MILLISECONDS);
+        }
+        return plugin;
+    }
+
+    public static synchronized PlayerMock addPlayer() {
+        start();
+        return server.addPlayer();
+    }
+
+    public static synchronized void stop() {
+        if (plugin == null) {
+            return;
+        }
+        ticker.shutdownNow();
+        try {
+            ticker.awaitTermination(5L, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        MockBukkit.unmock();
+        ticker = null;
+        plugin = null;
+        server = null;
+    }
+
+    private static synchronized void tick() {
+        if (server != null) {
+            server.getScheduler().performOneTick();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.outlaw.economy.benchmark;
+
+import com.outlaw.economy.storage.FlatBalanceReader;
+import com.outlaw.economy.storage.YamlBalanceStore;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One balance shard read by the flat reader against the YAML parser it bypasses. The larger size
+ * is above the reader's threshold for splitting the file over the common pool.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShardParseBenchmark {
+
+    @Param({"4000", "40000"})
+    public int lines;
+
+    private File directory;
+    private File shard;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = BenchmarkData.createTempDirectory("shard");
+        UUID[] ids = BenchmarkData.playerIds(lines);
+        long[] amounts = BenchmarkData.balances(lines);
+        Map<UUID, Long> balances = new HashMap<>(lines * 2);
+        for (int i = 0; i < lines; i++) {
+            UUID id = new UUID(ids[i].getMostSignificantBits() & 0x00FF_FFFF_FFFF_FFFFL, ids[i].getLeastSignificantBits());
+            balances.put(id, amounts[i]);
+        }
+        new YamlBalanceStore(directory).store(balances);
+        shard = new File(directory, "00.yml");
+    }
+
+    @TearDown
+    public void tearDown() {
+        BenchmarkData.delete(directory);
+    }
+
+    @Benchmark
+    public long flatReader() throws IOException {
+        long[] total = {0L};
+        FlatBalanceReader.read(shard, (playerId, balance) -> total[0] += balance);
+        return total[0];
+    }
+
+    @Benchmark
+    public double yamlParser() {
+        YamlConfiguration config = YamlConfiguration.loadConfiguration(shard);
+        double total = 0d;
+        for (String key : config.getKeys(false)) {
+            total += config.getDouble(key);
+        }
+        return total;
+    }
+}
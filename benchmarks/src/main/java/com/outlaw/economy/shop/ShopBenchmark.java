@@ -0,0 +1,132 @@
+package com.outlaw.economy.shop;
+
+import be.seeseemelk.mockbukkit.entity.PlayerMock;
+import com.outlaw.economy.benchmark.BenchmarkData;
+import com.outlaw.economy.benchmark.PluginFixture;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shop menus as a player opens them, on a MockBukkit server: the offers of the largest template of
+ * the bundled shop-templates.yml, a page of a general store holding many listings, and selling
+ * from a full inventory. Lives in the shop package to reach the menu methods directly.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ShopBenchmark {
+
+    private static final int INVENTORY_SLOTS = 36;
+
+    @Param({"10000", "100000"})
+    public int listings;
+
+    private ShopManager shops;
+    private PlayerMock player;
+    private ShopTemplate largestTemplate;
+    private ShopCategory largestCategory;
+    private ItemStack[] fullInventory;
+    private ItemStack sold;
+
+    @Setup
+    public void setUp() {
+        shops = PluginFixture.start().getShopManager();
+        player = PluginFixture.addPlayer();
+
+        largestTemplate = shops.getTemplates().stream()
+                .max(Comparator.comparingInt(ShopBenchmark::offerCount))
+                .orElseThrow();
+        largestCategory = largestTemplate.getCategories().stream()
+                .max(Comparator.comparingInt(category -> category.getOffers().size()))
+                .orElse(null);
+
+        UUID[] sellers = BenchmarkData.playerIds(1000);
+        long[] prices = BenchmarkData.balances(listings);
+        Material[] materials = {Material.DIAMOND, Material.COBBLESTONE, Material.GOLD_INGOT, Material.EMERALD};
+        for (int i = 0; i < listings; i++) {
+            ItemStack item = new ItemStack(materials[i % materials.length], 1 + i % 64);
+            shops.addGeneralListing(new GeneralShopListing(UUID.randomUUID(), sellers[i % sellers.length],
+                    "Vendeur" + (i % sellers.length), item, Math.max(1L, prices[i])));
+        }
+
+        fullInventory = new ItemStack[INVENTORY_SLOTS];
+        for (int i = 0; i < INVENTORY_SLOTS; i++) {
+            fullInventory[i] = new ItemStack(i % 2 == 0 ? Material.COBBLESTONE : Material.DIAMOND, 64);
+        }
+        sold = new ItemStack(Material.DIAMOND, 64 * (INVENTORY_SLOTS / 2));
+    }
+
+    @TearDown
+    public void tearDown() {
+        PluginFixture.stop();
+    }
+
+    @Benchmark
+    public void openLargestTemplate() {
+        shops.openOffersInventory(player, largestTemplate, largestCategory, largestCategory != null);
+    }
+
+    @Benchmark
+    public void openGeneralStoreFirstPage() {
+        shops.openGeneralStore(player, 0);
+    }
+
+    @Benchmark
+    public void openGeneralStoreLastPage() {
+        shops.openGeneralStore(player, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Refills the inventory then sells every diamond in it, the last stack matching being the
+     * last slot; {@link #refillInventory} measures the refill alone.
+     */
+    @Benchmark
+    public PlayerInventory removeItemsFromFullInventory() {
+        PlayerInventory inventory = player.getInventory();
+        inventory.setContents(copy(fullInventory));
+        shops.removeItems(inventory, sold);
+        return inventory;
+    }
+
+    @Benchmark
+    public PlayerInventory refillInventory() {
+        PlayerInventory inventory = player.getInventory();
+        inventory.setContents(copy(fullInventory));
+        return inventory;
+    }
+
+    private static ItemStack[] copy(ItemStack[] contents) {
+        ItemStack[] copy = new ItemStack[contents.length];
+        for (int i = 0; i < contents.length; i++) {
+            copy[i] = contents[i].clone();
+        }
+        return copy;
+    }
+
+    private static int offerCount(ShopTemplate template) {
+        if (!template.hasCategories()) {
+            return template.getOffers().size();
+        }
+        return template.getCategories().stream().mapToInt(category -> category.getOffers().size()).max().orElse(0);
+    }
+}
@@ -0,0 +1,145 @@
+package com.outlaw.economy.anomaly;
+
+import com.outlaw.economy.core.TaskScheduler;
+import com.outlaw.economy.core.TransactionSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates the configured {@link AnomalyRule}s on every balance change. State is kept per account
+ * and locked per account, so callers on different accounts never contend; accounts idle for longer
+ * than every rule's retention are evicted once a minute.
+ */
+public class AnomalyDetector {
+
+    private static final long EVICTION_INTERVAL_TICKS = 20L * 60L;
+
+    private final TaskScheduler scheduler;
+    private final AnomalyRule[] rules;
+    private final Formatter formatter;
+    private final AlertListener listener;
+    private final long retentionMillis;
+    private final Map<UUID, Account> accounts = new ConcurrentHashMap<>();
+    private TaskScheduler.Task evictionTask;
+
+    public AnomalyDetector(TaskScheduler scheduler, List<AnomalyRule> rules, Formatter formatter, AlertListener listener) {
+        this.scheduler = scheduler;
+        this.rules = rules.toArray(new AnomalyRule[0]);
+        this.formatter = formatter;
+        this.listener = listener;
+        long retention = 0L;
+        for (AnomalyRule rule : this.rules) {
+            retention = Math.max(retention, Math.max(rule.retentionMillis(), rule.getCooldownMillis()));
+        }
+        this.retentionMillis = retention;
+    }
+
+    public void start() {
+        evictionTask = scheduler.repeat(() -> evictIdle(System.currentTimeMillis()),
+                EVICTION_INTERVAL_TICKS, EVICTION_INTERVAL_TICKS);
+    }
+
+    public void shutdown() {
+        if (evictionTask != null) {
+            evictionTask.cancel();
+            evictionTask = null;
+        }
+        accounts.clear();
+    }
+
+    public int getRuleCount() {
+        return rules.length;
+    }
+
+    public void record(UUID playerId, long delta, TransactionSource source, long now) {
+        if (rules.length == 0 || delta == 0) {
+            return;
+        }
+        List<String> details = null;
+        List<AnomalyRule> fired = null;
+        while (true) {
+            Account account = accounts.computeIfAbsent(playerId, id -> new Account(rules.length));
+            synchronized (account) {
+                if (account.evicted) {
+                    continue;
+                }
+                account.lastActivity = now;
+                for (int i = 0; i < rules.length; i++) {
+                    AnomalyRule rule = rules[i];
+                    if (!rule.matches(source)) {
+                        continue;
+                    }
+                    AnomalyRule.State state = account.states[i];
+                    if (state == null) {
+                        state = rule.newState();
+                        account.states[i] = state;
+                    }
+                    String detail = rule.evaluate(state, delta, now, formatter);
+                    if (detail != null && now - state.lastAlert >= rule.getCooldownMillis()) {
+                        state.lastAlert = now;
+                        if (details == null) {
+                            details = new ArrayList<>(2);
+                            fired = new ArrayList<>(2);
+                        }
+                        details.add(detail);
+                        fired.add(rule);
+                    }
+                }
+            }
+            break;
+        }
+        if (details != null) {
+            for (int i = 0; i < details.size(); i++) {
+                listener.onAlert(playerId, fired.get(i), details.get(i));
+            }
+        }
+    }
+
+    void evictIdle(long now) {
+        for (Map.Entry<UUID, Account> entry : accounts.entrySet()) {
+            Account account = entry.getValue();
+            synchronized (account) {
+                if (now - account.lastActivity > retentionMillis) {
+                    account.evicted = true;
+                    accounts.remove(entry.getKey(), account);
+                }
+            }
+        }
+    }
+
+    public interface Formatter {
+        String money(long amount);
+
+        default String duration(long millis) {
+            long seconds = millis / 1000L;
+            if (seconds % 3600L == 0L) {
+                long hours = seconds / 3600L;
+                return hours + (hours > 1 ? " heures" : " heure");
+            }
+            if (seconds % 60L == 0L) {
+                long minutes = seconds / 60L;
+                return minutes + (minutes > 1 ? " minutes" : " minute");
+            }
+            return seconds + (seconds > 1 ? " secondes" : " seconde");
+        }
+    }
+
+    @FunctionalInterface
+    public interface AlertListener {
+        void onAlert(UUID playerId, AnomalyRule rule, String detail);
+    }
+
+    private static final class Account {
+        private final AnomalyRule.State[] states;
+        private long lastActivity;
+        private boolean evicted;
+
+        private Account(int ruleCount) {
+            this.states = new AnomalyRule.State[ruleCount];
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.outlaw.economy.anomaly;
+
+import com.outlaw.economy.core.TransactionSource;
+
+import java.util.Set;
+
+/**
+ * A streaming check over one account's transactions. Each rule keeps constant-size state per
+ * account and is evaluated inline for every matching balance change.
+ */
+public abstract class AnomalyRule {
+
+    private final String name;
+    private final Set<TransactionSource> sources;
+    private final long cooldownMillis;
+
+    protected AnomalyRule(String name, Set<TransactionSource> sources, long cooldownMillis) {
+        this.name = name;
+        this.sources = sources;
+        this.cooldownMillis = cooldownMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCooldownMillis() {
+        return cooldownMillis;
+    }
+
+    public boolean matches(TransactionSource source) {
+        return sources.isEmpty() || sources.contains(source);
+    }
+
+    /**
+     * How long an idle account's state must be kept before it can be dropped without losing signal.
+     */
+    public abstract long retentionMillis();
+
+    public abstract State newState();
+
+    /**
+     * @return a description of the anomaly to report, or {@code null} if the transaction is normal
+     */
+    public abstract String evaluate(State state, long delta, long now, AnomalyDetector.Formatter formatter);
+
+    public abstract static class State {
+        long lastAlert = Long.MIN_VALUE / 2;
+    }
+}
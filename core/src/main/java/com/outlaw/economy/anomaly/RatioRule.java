@@ -0,0 +1,65 @@
+package com.outlaw.economy.anomaly;
+
+import com.outlaw.economy.core.TransactionSource;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Fires when, over the window, an account receives at least {@code ratio} times what it spends,
+ * once the money received is above a minimum.
+ */
+public class RatioRule extends AnomalyRule {
+
+    private final long windowMillis;
+    private final int buckets;
+    private final double ratio;
+    private final long minimumIncome;
+
+    public RatioRule(String name, Set<TransactionSource> sources, long cooldownMillis,
+                     long windowMillis, int buckets, double ratio, long minimumIncome) {
+        super(name, sources, cooldownMillis);
+        this.windowMillis = windowMillis;
+        this.buckets = buckets;
+        this.ratio = ratio;
+        this.minimumIncome = minimumIncome;
+    }
+
+    @Override
+    public long retentionMillis() {
+        return windowMillis;
+    }
+
+    @Override
+    public State newState() {
+        return new FlowState(new RingWindow(windowMillis, buckets), new RingWindow(windowMillis, buckets));
+    }
+
+    @Override
+    public String evaluate(State state, long delta, long now, AnomalyDetector.Formatter formatter) {
+        FlowState flow = (FlowState) state;
+        if (delta > 0) {
+            flow.income.add(now, delta);
+        } else {
+            flow.spending.add(now, -delta);
+        }
+        long income = flow.income.sum(now);
+        long spending = flow.spending.sum(now);
+        if (delta <= 0 || income < minimumIncome || income < ratio * Math.max(1L, spending)) {
+            return null;
+        }
+        return "a reçu " + formatter.money(income) + " pour " + formatter.money(spending) + " dépensés (x"
+                + String.format(Locale.ROOT, "%.1f", income / (double) Math.max(1L, spending))
+                + ") en moins de " + formatter.duration(windowMillis);
+    }
+
+    private static final class FlowState extends State {
+        private final RingWindow income;
+        private final RingWindow spending;
+
+        private FlowState(RingWindow income, RingWindow spending) {
+            this.income = income;
+            this.spending = spending;
+        }
+    }
+}
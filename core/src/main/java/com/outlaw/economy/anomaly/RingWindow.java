@@ -0,0 +1,46 @@
+package com.outlaw.economy.anomaly;
+
+import java.util.Arrays;
+
+/**
+ * Sliding sum over a ring of fixed-width primitive buckets. Adding and reading are constant-time;
+ * the window is accurate to one bucket at its trailing edge.
+ */
+final class RingWindow {
+
+    private final long[] buckets;
+    private final long bucketMillis;
+    private long head = Long.MIN_VALUE;
+    private long sum;
+
+    RingWindow(long windowMillis, int bucketCount) {
+        this.buckets = new long[Math.max(1, bucketCount)];
+        this.bucketMillis = Math.max(1L, windowMillis / buckets.length);
+    }
+
+    void add(long now, long value) {
+        advance(now / bucketMillis);
+        buckets[(int) Math.floorMod(head, (long) buckets.length)] += value;
+        sum += value;
+    }
+
+    long sum(long now) {
+        advance(now / bucketMillis);
+        return sum;
+    }
+
+    private void advance(long epoch) {
+        if (head == Long.MIN_VALUE || epoch - head >= buckets.length) {
+            Arrays.fill(buckets, 0L);
+            sum = 0L;
+            head = epoch;
+            return;
+        }
+        while (head < epoch) {
+            head++;
+            int index = (int) Math.floorMod(head, (long) buckets.length);
+            sum -= buckets[index];
+            buckets[index] = 0L;
+        }
+    }
+}
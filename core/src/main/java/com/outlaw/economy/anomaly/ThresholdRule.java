@@ -0,0 +1,59 @@
+package com.outlaw.economy.anomaly;
+
+import com.outlaw.economy.core.TransactionSource;
+
+import java.util.Set;
+
+/**
+ * Fires when the money received (or spent) from the matching sources over the window reaches a
+ * fixed amount.
+ */
+public class ThresholdRule extends AnomalyRule {
+
+    private final long windowMillis;
+    private final int buckets;
+    private final long threshold;
+    private final boolean outgoing;
+
+    public ThresholdRule(String name, Set<TransactionSource> sources, long cooldownMillis,
+                         long windowMillis, int buckets, long threshold, boolean outgoing) {
+        super(name, sources, cooldownMillis);
+        this.windowMillis = windowMillis;
+        this.buckets = buckets;
+        this.threshold = threshold;
+        this.outgoing = outgoing;
+    }
+
+    @Override
+    public long retentionMillis() {
+        return windowMillis;
+    }
+
+    @Override
+    public State newState() {
+        return new WindowState(new RingWindow(windowMillis, buckets));
+    }
+
+    @Override
+    public String evaluate(State state, long delta, long now, AnomalyDetector.Formatter formatter) {
+        if (outgoing ? delta >= 0 : delta <= 0) {
+            return null;
+        }
+        RingWindow window = ((WindowState) state).window;
+        window.add(now, Math.abs(delta));
+        long total = window.sum(now);
+        if (total < threshold) {
+            return null;
+        }
+        return (outgoing ? "a dépensé " : "a gagné ") + formatter.money(total)
+                + " en moins de " + formatter.duration(windowMillis);
+    }
+
+    private static final class WindowState extends State {
+        private final RingWindow window;
+
+        private WindowState(RingWindow window) {
+            this.window = window;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.outlaw.economy.anomaly;
+
+import com.outlaw.economy.core.TransactionSource;
+
+import java.util.Set;
+
+/**
+ * Fires when the number of matching transactions over the window reaches a limit, whatever their
+ * amounts.
+ */
+public class VelocityRule extends AnomalyRule {
+
+    private final long windowMillis;
+    private final int buckets;
+    private final long maxCount;
+
+    public VelocityRule(String name, Set<TransactionSource> sources, long cooldownMillis,
+                        long windowMillis, int buckets, long maxCount) {
+        super(name, sources, cooldownMillis);
+        this.windowMillis = windowMillis;
+        this.buckets = buckets;
+        this.maxCount = maxCount;
+    }
+
+    @Override
+    public long retentionMillis() {
+        return windowMillis;
+    }
+
+    @Override
+    public State newState() {
+        return new CountState(new RingWindow(windowMillis, buckets));
+    }
+
+    @Override
+    public String evaluate(State state, long delta, long now, AnomalyDetector.Formatter formatter) {
+        RingWindow window = ((CountState) state).window;
+        window.add(now, 1L);
+        long count = window.sum(now);
+        if (count < maxCount) {
+            return null;
+        }
+        return "a effectué " + count + " transactions en moins de " + formatter.duration(windowMillis);
+    }
+
+    private static final class CountState extends State {
+        private final RingWindow window;
+
+        private CountState(RingWindow window) {
+            this.window = window;
+        }
+    }
+}
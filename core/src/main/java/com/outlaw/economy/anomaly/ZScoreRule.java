@@ -0,0 +1,73 @@
+package com.outlaw.economy.anomaly;
+
+import com.outlaw.economy.core.TransactionSource;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Fires when a single deposit is an outlier against the account's own history, measured as a
+ * z-score over an exponentially weighted mean and variance of its previous deposits.
+ */
+public class ZScoreRule extends AnomalyRule {
+
+    private final double alpha;
+    private final double threshold;
+    private final int minimumSamples;
+    private final long minimumAmount;
+    private final long retentionMillis;
+
+    public ZScoreRule(String name, Set<TransactionSource> sources, long cooldownMillis,
+                      double alpha, double threshold, int minimumSamples, long minimumAmount, long retentionMillis) {
+        super(name, sources, cooldownMillis);
+        this.alpha = alpha;
+        this.threshold = threshold;
+        this.minimumSamples = minimumSamples;
+        this.minimumAmount = minimumAmount;
+        this.retentionMillis = retentionMillis;
+    }
+
+    @Override
+    public long retentionMillis() {
+        return retentionMillis;
+    }
+
+    @Override
+    public State newState() {
+        return new MomentState();
+    }
+
+    @Override
+    public String evaluate(State state, long delta, long now, AnomalyDetector.Formatter formatter) {
+        if (delta <= 0) {
+            return null;
+        }
+        MomentState moments = (MomentState) state;
+        double value = delta;
+        String result = null;
+        if (moments.samples >= minimumSamples && delta >= minimumAmount) {
+            double deviation = Math.sqrt(moments.variance);
+            double score = deviation > 0 ? (value - moments.mean) / deviation : 0d;
+            if (score >= threshold) {
+                result = "a reçu " + formatter.money(delta) + ", soit " + String.format(Locale.ROOT, "%.1f", score)
+                        + " écarts-types au-dessus de sa moyenne de " + formatter.money(Math.round(moments.mean));
+            }
+        }
+        if (moments.samples == 0) {
+            moments.mean = value;
+        } else {
+            double difference = value - moments.mean;
+            double increment = alpha * difference;
+            moments.mean += increment;
+            moments.variance = (1 - alpha) * (moments.variance + difference * increment);
+        }
+        moments.samples++;
+        return result;
+    }
+
+    private static final class MomentState extends State {
+        private double mean;
+        private double variance;
+        private long samples;
+    }
+}
@@ -0,0 +1,46 @@
+package com.outlaw.economy.api;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Balance operations that return at once and complete on an economy worker thread, so that a
+ * plugin paying many players does not hold the main thread. Operations on the same account
+ * complete in the order they were submitted; {@code transfer} and {@code applyBatch} are ordered
+ * with the operations of their first account. Callbacks run on the worker thread: go back to the
+ * main thread before using the Bukkit API.
+ */
+public interface AsyncEconomyService {
+    CompletableFuture<Long> getBalanceMinor(UUID playerId);
+    CompletableFuture<Boolean> depositMinor(UUID playerId, long amount, String reason);
+    CompletableFuture<Boolean> withdrawMinor(UUID playerId, long amount, String reason);
+    CompletableFuture<Boolean> transfer(UUID from, UUID to, long amount, String reason);
+    CompletableFuture<Boolean> applyBatch(List<BalanceOperation> operations);
+
+    /**
+     * @see EconomyService#depositMinor(UUID, long, String, UUID)
+     */
+    CompletableFuture<Boolean> depositMinor(UUID playerId, long amount, String reason, UUID requestId);
+    CompletableFuture<Boolean> withdrawMinor(UUID playerId, long amount, String reason, UUID requestId);
+    CompletableFuture<Boolean> transfer(UUID from, UUID to, long amount, String reason, UUID requestId);
+    CompletableFuture<Boolean> applyBatch(List<BalanceOperation> operations, UUID requestId);
+
+    default CompletableFuture<Double> getBalance(UUID playerId) {
+        return getBalanceMinor(playerId).thenApply(Money::toMajor);
+    }
+
+    default CompletableFuture<Boolean> deposit(UUID playerId, double amount, String reason) {
+        if (amount <= 0) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return depositMinor(playerId, Money.ofMajor(amount), reason);
+    }
+
+    default CompletableFuture<Boolean> withdraw(UUID playerId, double amount, String reason) {
+        if (amount <= 0) {
+            return CompletableFuture.completedFuture(false);
+        }
+        return withdrawMinor(playerId, Money.ofMajor(amount), reason);
+    }
+}
@@ -0,0 +1,17 @@
+package com.outlaw.economy.api;
+
+import java.util.UUID;
+
+/**
+ * One balance change of a batch, in minor units: positive for a deposit, negative for a withdrawal.
+ */
+public record BalanceOperation(UUID playerId, long delta, String reason) {
+
+    public static BalanceOperation deposit(UUID playerId, long amount, String reason) {
+        return new BalanceOperation(playerId, amount, reason);
+    }
+
+    public static BalanceOperation withdraw(UUID playerId, long amount, String reason) {
+        return new BalanceOperation(playerId, -amount, reason);
+    }
+}
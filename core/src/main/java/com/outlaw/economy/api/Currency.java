@@ -0,0 +1,16 @@
+package com.outlaw.economy.api;
+
+/**
+ * A currency of the economy. {@code index} is its position in {@link EconomyService#currencies()}
+ * and is what the economy looks it up by, so resolve a currency once with
+ * {@link EconomyService#currency(String)} and keep it.
+ */
+public record Currency(int index, String name) {
+
+    public static final String DEFAULT_NAME = "default";
+    public static final Currency DEFAULT = new Currency(0, DEFAULT_NAME);
+
+    public boolean isDefault() {
+        return index == 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.outlaw.economy.api;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface EconomyService {
+    long getBalanceMinor(UUID playerId);
+    boolean depositMinor(UUID playerId, long amount, String reason);
+    boolean withdrawMinor(UUID playerId, long amount, String reason);
+    boolean transfer(UUID from, UUID to, long amount, String reason);
+    boolean applyBatch(List<BalanceOperation> operations);
+
+    /**
+     * Same as {@link #depositMinor(UUID, long, String)}, but a call repeating a recent
+     * {@code requestId} returns the result of the first one instead of depositing again, so that
+     * a deposit that timed out or threw can be retried safely. A {@code null} id is not recorded.
+     *
+     * @throws IdempotencyCapacityException if the id cannot be remembered; nothing is applied
+     */
+    boolean depositMinor(UUID playerId, long amount, String reason, UUID requestId);
+
+    /**
+     * @see #depositMinor(UUID, long, String, UUID)
+     */
+    boolean withdrawMinor(UUID playerId, long amount, String reason, UUID requestId);
+
+    /**
+     * @see #depositMinor(UUID, long, String, UUID)
+     */
+    boolean transfer(UUID from, UUID to, long amount, String reason, UUID requestId);
+
+    /**
+     * @see #depositMinor(UUID, long, String, UUID)
+     */
+    boolean applyBatch(List<BalanceOperation> operations, UUID requestId);
+    String formatMinor(long amount);
+    String currencyCode();
+
+    /**
+     * @return the 1-based rank of the account by balance, or {@code -1} if it is unknown
+     */
+    int getRank(UUID playerId);
+
+    /**
+     * @param offset number of accounts to skip from the richest one
+     */
+    List<LeaderboardEntry> getTopBalances(int offset, int limit);
+
+    /**
+     * Reads recent transactions of an account from disk, newest first. Avoid calling it from the
+     * main thread.
+     *
+     * @param offset number of recent transactions to skip
+     */
+    List<LedgerEntry> getHistory(UUID playerId, int offset, int limit);
+
+    /**
+     * @return the same operations, applied off the caller's thread
+     */
+    AsyncEconomyService async();
+
+    /**
+     * @return every currency, the default one first
+     */
+    List<Currency> currencies();
+
+    /**
+     * @return the currency with this name, ignoring case, or {@code null}
+     */
+    Currency currency(String name);
+
+    /**
+     * The economy of one currency: every method of the returned service, {@link #async()}
+     * included, works on the accounts of that currency.
+     *
+     * @throws IllegalArgumentException if the currency is not one of {@link #currencies()}
+     */
+    EconomyService forCurrency(Currency currency);
+
+    default double getBalance(UUID playerId) {
+        return Money.toMajor(getBalanceMinor(playerId));
+    }
+
+    default boolean deposit(UUID playerId, double amount, String reason) {
+        return amount > 0 && depositMinor(playerId, Money.ofMajor(amount), reason);
+    }
+
+    default boolean withdraw(UUID playerId, double amount, String reason) {
+        return amount > 0 && withdrawMinor(playerId, Money.ofMajor(amount), reason);
+    }
+
+    default boolean deposit(UUID playerId, double amount, String reason, UUID requestId) {
+        return amount > 0 && depositMinor(playerId, Money.ofMajor(amount), reason, requestId);
+    }
+
+    default boolean withdraw(UUID playerId, double amount, String reason, UUID requestId) {
+        return amount > 0 && withdrawMinor(playerId, Money.ofMajor(amount), reason, requestId);
+    }
+
+    default String format(double amount) {
+        return formatMinor(Money.ofMajor(amount));
+    }
+
+    default long getBalanceMinor(Currency currency, UUID playerId) {
+        return forCurrency(currency).getBalanceMinor(playerId);
+    }
+
+    default boolean depositMinor(Currency currency, UUID playerId, long amount, String reason) {
+        return forCurrency(currency).depositMinor(playerId, amount, reason);
+    }
+
+    default boolean withdrawMinor(Currency currency, UUID playerId, long amount, String reason) {
+        return forCurrency(currency).withdrawMinor(playerId, amount, reason);
+    }
+
+    default boolean transfer(Currency currency, UUID from, UUID to, long amount, String reason) {
+        return forCurrency(currency).transfer(from, to, amount, reason);
+    }
+
+    default boolean applyBatch(Currency currency, List<BalanceOperation> operations) {
+        return forCurrency(currency).applyBatch(operations);
+    }
+
+    default String formatMinor(Currency currency, long amount) {
+        return forCurrency(currency).formatMinor(amount);
+    }
+
+    default String currencyCode(Currency currency) {
+        return forCurrency(currency).currencyCode();
+    }
+}
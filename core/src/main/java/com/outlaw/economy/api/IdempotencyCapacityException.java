@@ -0,0 +1,15 @@
+package com.outlaw.economy.api;
+
+/**
+ * Thrown by a keyed operation when every place that could remember its request id already holds
+ * a result within the window. Nothing was applied, so the call can be retried later with the
+ * same id.
+ */
+public class IdempotencyCapacityException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public IdempotencyCapacityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.outlaw.economy.api;
+
+import java.util.UUID;
+
+/**
+ * One line of the balance leaderboard; ranks start at 1 for the richest account.
+ */
+public record LeaderboardEntry(int rank, UUID playerId, long balance) {
+}
@@ -0,0 +1,11 @@
+package com.outlaw.economy.api;
+
+import java.util.UUID;
+
+/**
+ * One transaction of an account's history, in minor units: {@code amount} is positive for money
+ * received and {@code balance} is the balance right after it. {@code counterparty} is the other
+ * account of a transfer or trade, or {@code null}.
+ */
+public record LedgerEntry(long timestamp, UUID playerId, long amount, long balance, String reason, UUID counterparty) {
+}
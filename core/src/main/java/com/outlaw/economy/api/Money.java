@@ -0,0 +1,70 @@
+package com.outlaw.economy.api;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money helpers. Amounts are {@code long} counts of minor units (cents); every
+ * operation is exact and throws {@link ArithmeticException} on overflow instead of wrapping.
+ */
+public final class Money {
+
+    public static final int FRACTION_DIGITS = 2;
+    public static final long SCALE = 100L;
+
+    private Money() {
+    }
+
+    public static long ofMajor(double amount) {
+        if (Double.isNaN(amount) || Double.isInfinite(amount)) {
+            throw new ArithmeticException("Montant invalide: " + amount);
+        }
+        return BigDecimal.valueOf(amount).setScale(FRACTION_DIGITS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static long ofWhole(long units) {
+        return Math.multiplyExact(units, SCALE);
+    }
+
+    public static double toMajor(long minor) {
+        return minor / (double) SCALE;
+    }
+
+    public static BigDecimal toDecimal(long minor) {
+        return BigDecimal.valueOf(minor, FRACTION_DIGITS);
+    }
+
+    public static long add(long left, long right) {
+        return Math.addExact(left, right);
+    }
+
+    public static long subtract(long left, long right) {
+        return Math.subtractExact(left, right);
+    }
+
+    public static long multiply(long minor, double factor) {
+        if (factor == 1d) {
+            return minor;
+        }
+        return toDecimal(minor).multiply(BigDecimal.valueOf(factor))
+                .setScale(FRACTION_DIGITS, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Parses a decimal amount typed by a player, accepting either {@code .} or {@code ,} as the
+     * decimal separator.
+     *
+     * @throws NumberFormatException if the text is not a number or has more than two decimals
+     */
+    public static long parse(String text) {
+        if (text == null) {
+            throw new NumberFormatException("null");
+        }
+        BigDecimal value = new BigDecimal(text.trim().replace(',', '.'));
+        try {
+            return value.setScale(FRACTION_DIGITS, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException(text);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.outlaw.economy.api;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+/**
+ * Thread-safe, lock-free formatter for minor-unit amounts, producing the same grouped two-decimal
+ * output as {@code new DecimalFormat("#,##0.00")} for the given locale. Digits are written into a
+ * per-thread buffer and recently formatted values are kept in a small direct-mapped cache.
+ */
+public final class MoneyFormat {
+
+    private static final int CACHE_SIZE = 512;
+    private static final int BUFFER_SIZE = 32;
+
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+    private final char minusSign;
+    private final Entry[] cache = new Entry[CACHE_SIZE];
+    private final ThreadLocal<char[]> buffers = ThreadLocal.withInitial(() -> new char[BUFFER_SIZE]);
+
+    public MoneyFormat() {
+        this(Locale.getDefault(Locale.Category.FORMAT));
+    }
+
+    public MoneyFormat(Locale locale) {
+        DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.minusSign = symbols.getMinusSign();
+    }
+
+    public String format(long amount) {
+        int slot = (int) (amount ^ (amount >>> 32)) & (CACHE_SIZE - 1);
+        Entry entry = cache[slot];
+        if (entry != null && entry.amount() == amount) {
+            return entry.text();
+        }
+        char[] buffer = buffers.get();
+        int start = render(amount, buffer);
+        String text = new String(buffer, start, BUFFER_SIZE - start);
+        cache[slot] = new Entry(amount, text);
+        return text;
+    }
+
+    public void formatTo(long amount, StringBuilder target) {
+        char[] buffer = buffers.get();
+        int start = render(amount, buffer);
+        target.append(buffer, start, BUFFER_SIZE - start);
+    }
+
+    public void formatTo(long amount, Appendable target) {
+        if (target instanceof StringBuilder builder) {
+            formatTo(amount, builder);
+            return;
+        }
+        try {
+            char[] buffer = buffers.get();
+            int start = render(amount, buffer);
+            for (int i = start; i < BUFFER_SIZE; i++) {
+                target.append(buffer[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private int render(long amount, char[] buffer) {
+        long magnitude = amount < 0 ? -amount : amount;
+        int cents = (int) Long.remainderUnsigned(magnitude, Money.SCALE);
+        long units = Long.divideUnsigned(magnitude, Money.SCALE);
+        int position = BUFFER_SIZE;
+        buffer[--position] = (char) ('0' + cents % 10);
+        buffer[--position] = (char) ('0' + cents / 10);
+        buffer[--position] = decimalSeparator;
+        int digits = 0;
+        do {
+            if (digits > 0 && digits % 3 == 0) {
+                buffer[--position] = groupingSeparator;
+            }
+            buffer[--position] = (char) ('0' + units % 10);
+            units /= 10;
+            digits++;
+        } while (units != 0);
+        if (amount < 0) {
+            buffer[--position] = minusSign;
+        }
+        return position;
+    }
+
+    private record Entry(long amount, String text) {
+    }
+}
@@ -0,0 +1,162 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.metrics.HotPath;
+import com.outlaw.economy.metrics.PerformanceMonitor;
+
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Runs balance operations on a fixed set of worker threads, each owning the accounts whose hash
+ * falls in its shard, so that the operations on one account run in the order they were submitted.
+ * A worker takes every request waiting in its queue at once, up to {@link #MAX_BATCH}, reads the
+ * accounts of the whole batch that are not in memory, then applies the requests one by one.
+ */
+final class AccountShardExecutor {
+
+    static final int MAX_BATCH = 256;
+
+    private static final Request<Void> STOP = new Request<>(playerId -> {
+    }, new UUID[0], () -> null, new CompletableFuture<>());
+
+    private final Worker[] workers;
+    private final Logger logger;
+    private volatile boolean accepting = true;
+
+    AccountShardExecutor(int threads, Logger logger) {
+        this.logger = logger;
+        this.workers = new Worker[Math.max(1, threads)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker("OutlawEconomy-Async-" + (i + 1));
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Queues an operation on the shard of the first account.
+     *
+     * @param warmer reads an account that is not in memory, may throw {@link UncheckedIOException}
+     * @param accounts the accounts the operation touches, read ahead with the rest of the batch
+     */
+    <T> CompletableFuture<T> submit(Consumer<UUID> warmer, UUID[] accounts, Supplier<T> operation) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!accepting) {
+            future.completeExceptionally(new RejectedExecutionException("L'économie est arrêtée."));
+            return future;
+        }
+        UUID first = accounts[0];
+        int hash = AccountTable.hash(first.getMostSignificantBits(), first.getLeastSignificantBits());
+        workers[Math.floorMod(hash, workers.length)].queue.add(new Request<>(warmer, accounts, operation, future));
+        return future;
+    }
+
+    /**
+     * Stops accepting operations and waits for the queued ones to be applied.
+     *
+     * @return {@code false} if some were still queued after the timeout
+     */
+    boolean shutdown(long timeoutSeconds) {
+        accepting = false;
+        for (Worker worker : workers) {
+            worker.queue.add(STOP);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        boolean completed = true;
+        for (Worker worker : workers) {
+            try {
+                worker.join(Math.max(1L, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime())));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (worker.isAlive()) {
+                completed = false;
+                worker.interrupt();
+            }
+            for (Request<?> request = worker.queue.poll(); request != null; request = worker.queue.poll()) {
+                request.future.completeExceptionally(new RejectedExecutionException("L'économie est arrêtée."));
+            }
+        }
+        if (!completed) {
+            logger.warning("Des opérations asynchrones n'ont pas été appliquées avant l'arrêt.");
+        }
+        return completed;
+    }
+
+    private void process(List<Request<?>> batch) {
+        long start = PerformanceMonitor.start();
+        try {
+            for (Request<?> request : batch) {
+                for (UUID playerId : request.accounts) {
+                    try {
+                        request.warmer.accept(playerId);
+                    } catch (UncheckedIOException ignored) {
+                        // reported by the operation itself when it reads the account again
+                    }
+                }
+            }
+            for (Request<?> request : batch) {
+                request.run();
+            }
+        } finally {
+            PerformanceMonitor.stop(HotPath.ASYNC_BATCH, start);
+        }
+    }
+
+    private record Request<T>(Consumer<UUID> warmer, UUID[] accounts, Supplier<T> operation,
+                              CompletableFuture<T> future) {
+
+        void run() {
+            try {
+                future.complete(operation.get());
+            } catch (RuntimeException | Error e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+
+    private final class Worker extends Thread {
+
+        private final BlockingQueue<Request<?>> queue = new LinkedBlockingQueue<>();
+
+        Worker(String name) {
+            super(name);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Request<?>> batch = new ArrayList<>(MAX_BATCH);
+            boolean stopping = false;
+            while (!stopping) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(batch, MAX_BATCH - 1);
+                for (int i = batch.size() - 1; i >= 0; i--) {
+                    if (batch.get(i) == STOP) {
+                        batch.remove(i);
+                        stopping = true;
+                    }
+                }
+                try {
+                    process(batch);
+                } catch (RuntimeException e) {
+                    logger.severe("Lot d'opérations asynchrones en échec: " + e.getMessage());
+                }
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,619 @@
+package com.outlaw.economy.core;
+
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash table mapping player UUIDs to balances in minor units without per-entry objects.
+ * UUIDs are stored as two {@code long} halves in parallel arrays and probed linearly. The nil
+ * UUID marks empty slots and is kept aside in dedicated fields.
+ * <p>
+ * The table is split into independently locked stripes selected by the high bits of the hash, so
+ * every read-modify-write on an account is atomic without a global lock. Mutations are reported
+ * to the {@link ChangeListener} while the stripe lock is still held, which keeps the journal in
+ * the same order as the balances for any given account.
+ * <p>
+ * When a {@link ColdLoader} is set, the table only holds the accounts in use: a mutation on an
+ * account that is not present first asks the loader for it, under the stripe lock, so an account
+ * evicted concurrently is never recreated with the initial balance.
+ */
+public class AccountTable {
+
+    public static final long MISSING = Long.MIN_VALUE;
+    public static final ChangeListener NO_LISTENER = (playerId, delta, balance, source) -> {
+    };
+    public static final ColdLoader NO_LOADER = playerId -> MISSING;
+
+    private static final int DEFAULT_STRIPES = 64;
+    private static final int MIN_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Stripe[] stripes;
+    private final int stripeShift;
+    private final ChangeListener listener;
+    private final ColdLoader loader;
+
+    public AccountTable(ChangeListener listener) {
+        this(DEFAULT_STRIPES, listener, NO_LOADER);
+    }
+
+    public AccountTable(ChangeListener listener, ColdLoader loader) {
+        this(DEFAULT_STRIPES, listener, loader);
+    }
+
+    public AccountTable(int stripeCount, ChangeListener listener) {
+        this(stripeCount, listener, NO_LOADER);
+    }
+
+    public AccountTable(int stripeCount, ChangeListener listener, ColdLoader loader) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(stripeCount, 1 << 16)));
+        this.stripes = new Stripe[count];
+        this.stripeShift = 32 - Integer.numberOfTrailingZeros(count);
+        this.listener = listener;
+        this.loader = loader;
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new Stripe(MIN_CAPACITY);
+        }
+    }
+
+    private AccountTable(AccountTable source) {
+        this.stripes = new Stripe[source.stripes.length];
+        this.stripeShift = source.stripeShift;
+        this.listener = NO_LISTENER;
+        this.loader = NO_LOADER;
+        for (int i = 0; i < stripes.length; i++) {
+            Stripe stripe = source.stripes[i];
+            long stamp = stripe.lock.readLock();
+            try {
+                stripes[i] = new Stripe(stripe);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                total += stripe.size();
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+        return total;
+    }
+
+    public boolean contains(UUID playerId) {
+        return get(playerId, MISSING) != MISSING;
+    }
+
+    /**
+     * Reads a balance without blocking writers: the stripe is probed under an optimistic stamp and
+     * only falls back to the read lock if a writer got in the way.
+     */
+    public long get(UUID playerId, long defaultValue) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0L) {
+            long value = stripe.getOptimistic(most, least, defaultValue);
+            if (stripe.lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return stripe.get(most, least, defaultValue);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Stores a balance read from disk without notifying the listener.
+     */
+    public void load(UUID playerId, long balance) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            stripe.put(most, least, balance);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Replaces the balance, reading the account from the cold tier first so that the change is
+     * reported against its real previous balance.
+     *
+     * @return the previous balance, or {@code initial} if the account did not exist
+     */
+    public long put(UUID playerId, long balance, long initial, TransactionSource source) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            long previous = orInitial(resolve(stripe, playerId, most, least), initial);
+            stripe.put(most, least, balance);
+            listener.onChange(playerId, balance - previous, balance, source);
+            return previous;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Creates the account unless it exists, in memory or in the cold tier.
+     *
+     * @return {@code true} if the account was created
+     */
+    public boolean putIfAbsent(UUID playerId, long balance, TransactionSource source) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            if (resolve(stripe, playerId, most, least) != MISSING) {
+                return false;
+            }
+            stripe.put(most, least, balance);
+            listener.onChange(playerId, balance, balance, source);
+            return true;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Adds {@code delta} to the balance, creating the account with {@code initial} first if needed.
+     *
+     * @return the balance after the addition
+     * @throws ArithmeticException if the balance would overflow, in which case nothing changes
+     */
+    public long add(UUID playerId, long delta, long initial, TransactionSource source) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            long updated = Math.addExact(orInitial(resolve(stripe, playerId, most, least), initial), delta);
+            stripe.put(most, least, updated);
+            listener.onChange(playerId, delta, updated, source);
+            return updated;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Subtracts {@code amount} if the balance covers it, creating the account with {@code initial}
+     * first if needed.
+     *
+     * @return the balance after the withdrawal, or {@link #MISSING} if funds were insufficient
+     */
+    public long withdraw(UUID playerId, long amount, long initial, TransactionSource source) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            long current = orInitial(resolve(stripe, playerId, most, least), initial);
+            if (current < amount) {
+                return MISSING;
+            }
+            long updated = current - amount;
+            stripe.put(most, least, updated);
+            listener.onChange(playerId, -amount, updated, source);
+            return updated;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Subtracts {@code amount}, or the whole balance if it is lower, creating the account with
+     * {@code initial} first if needed.
+     *
+     * @return the amount actually subtracted and the balance after it
+     */
+    public long[] withdrawUpTo(UUID playerId, long amount, long initial, TransactionSource source) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            long current = orInitial(resolve(stripe, playerId, most, least), initial);
+            long removed = Math.max(0L, Math.min(current, amount));
+            long updated = current - removed;
+            if (removed > 0) {
+                stripe.put(most, least, updated);
+                listener.onChange(playerId, -removed, updated, source);
+            }
+            return new long[]{removed, updated};
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Applies every delta or none of them. The stripes involved are write-locked once, in index
+     * order, and the listener only hears about the changes once all of them have succeeded.
+     *
+     * @return the balance after each delta, or {@code null} if a withdrawal was not covered or a
+     * balance would overflow
+     */
+    public long[] applyBatch(UUID[] playerIds, long[] deltas, TransactionSource[] sources, long initial) {
+        int count = playerIds.length;
+        int[] stripeIndexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            stripeIndexes[i] = stripeIndex(playerIds[i].getMostSignificantBits(), playerIds[i].getLeastSignificantBits());
+        }
+        int[] locked = Arrays.stream(stripeIndexes).sorted().distinct().toArray();
+        long[] stamps = new long[locked.length];
+        for (int i = 0; i < locked.length; i++) {
+            stamps[i] = stripes[locked[i]].lock.writeLock();
+        }
+        try {
+            for (int i = 0; i < count; i++) {
+                resolve(stripes[stripeIndexes[i]], playerIds[i],
+                        playerIds[i].getMostSignificantBits(), playerIds[i].getLeastSignificantBits());
+            }
+            long[] previous = new long[count];
+            long[] results = new long[count];
+            int applied = 0;
+            for (; applied < count; applied++) {
+                Stripe stripe = stripes[stripeIndexes[applied]];
+                long most = playerIds[applied].getMostSignificantBits();
+                long least = playerIds[applied].getLeastSignificantBits();
+                long before = stripe.get(most, least, MISSING);
+                long current = before == MISSING ? initial : before;
+                long delta = deltas[applied];
+                if (delta < 0 ? current < -delta : current > Long.MAX_VALUE - delta) {
+                    break;
+                }
+                previous[applied] = before;
+                results[applied] = current + delta;
+                stripe.put(most, least, results[applied]);
+            }
+            if (applied < count) {
+                for (int i = applied - 1; i >= 0; i--) {
+                    Stripe stripe = stripes[stripeIndexes[i]];
+                    long most = playerIds[i].getMostSignificantBits();
+                    long least = playerIds[i].getLeastSignificantBits();
+                    if (previous[i] == MISSING) {
+                        stripe.remove(most, least);
+                    } else {
+                        stripe.put(most, least, previous[i]);
+                    }
+                }
+                return null;
+            }
+            for (int i = 0; i < count; i++) {
+                listener.onChange(playerIds[i], deltas[i], results[i], sources[i]);
+            }
+            return results;
+        } finally {
+            for (int i = locked.length - 1; i >= 0; i--) {
+                stripes[locked[i]].lock.unlockWrite(stamps[i]);
+            }
+        }
+    }
+
+    /**
+     * Brings the account into memory from the cold tier if it is known there.
+     *
+     * @return {@code true} if the account is now in memory
+     */
+    public boolean promote(UUID playerId) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return resolve(stripe, playerId, most, least) != MISSING;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the account if {@code condition} holds while its stripe is write-locked, so that no
+     * mutation can slip in between the check and the removal.
+     *
+     * @return the removed balance, or {@link #MISSING} if nothing was removed
+     */
+    public long removeIf(UUID playerId, Predicate<UUID> condition) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            long balance = stripe.get(most, least, MISSING);
+            if (balance == MISSING || !condition.test(playerId)) {
+                return MISSING;
+            }
+            stripe.remove(most, least);
+            return balance;
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public boolean remove(UUID playerId) {
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        Stripe stripe = stripeFor(most, least);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return stripe.remove(most, least);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    public AccountTable copy() {
+        return new AccountTable(this);
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (Stripe stripe : stripes) {
+            long stamp = stripe.lock.readLock();
+            try {
+                stripe.forEach(consumer);
+            } finally {
+                stripe.lock.unlockRead(stamp);
+            }
+        }
+    }
+
+    private long resolve(Stripe stripe, UUID playerId, long most, long least) {
+        long balance = stripe.get(most, least, MISSING);
+        if (balance != MISSING) {
+            return balance;
+        }
+        balance = loader.load(playerId);
+        if (balance != MISSING) {
+            stripe.put(most, least, balance);
+        }
+        return balance;
+    }
+
+    private static long orInitial(long balance, long initial) {
+        return balance == MISSING ? initial : balance;
+    }
+
+    private Stripe stripeFor(long most, long least) {
+        return stripes[stripeIndex(most, least)];
+    }
+
+    private int stripeIndex(long most, long least) {
+        return stripeShift == 32 ? 0 : hash(most, least) >>> stripeShift;
+    }
+
+    static int hash(long most, long least) {
+        long h = most * 0x9E3779B97F4A7C15L ^ least;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer {
+        void accept(long mostBits, long leastBits, long balance);
+    }
+
+    @FunctionalInterface
+    public interface ChangeListener {
+        void onChange(UUID playerId, long delta, long balance, TransactionSource source);
+    }
+
+    /**
+     * Supplies accounts that are not in memory. Called with the stripe write-locked.
+     */
+    @FunctionalInterface
+    public interface ColdLoader {
+        /**
+         * @return the stored balance, or {@link #MISSING} if the account does not exist
+         * @throws java.io.UncheckedIOException if the account could not be read, in which case the
+         * mutation is abandoned
+         */
+        long load(UUID playerId);
+    }
+
+    private static final class Stripe {
+
+        private final StampedLock lock = new StampedLock();
+        private long[] mostBits;
+        private long[] leastBits;
+        private long[] balances;
+        private int mask;
+        private int size;
+        private int resizeThreshold;
+        private boolean hasNilKey;
+        private long nilBalance;
+
+        Stripe(int capacity) {
+            allocate(capacity);
+        }
+
+        Stripe(Stripe source) {
+            this.mostBits = source.mostBits.clone();
+            this.leastBits = source.leastBits.clone();
+            this.balances = source.balances.clone();
+            this.mask = source.mask;
+            this.size = source.size;
+            this.resizeThreshold = source.resizeThreshold;
+            this.hasNilKey = source.hasNilKey;
+            this.nilBalance = source.nilBalance;
+        }
+
+        int size() {
+            return hasNilKey ? size + 1 : size;
+        }
+
+        long get(long most, long least, long defaultValue) {
+            if (isNil(most, least)) {
+                return hasNilKey ? nilBalance : defaultValue;
+            }
+            int index = indexOf(most, least);
+            return index >= 0 ? balances[index] : defaultValue;
+        }
+
+        /**
+         * Same probe as {@link #get}, but tolerant of a concurrent resize: the arrays are read once,
+         * indexes stay within their bounds and probing stops after one full pass. The result is
+         * only meaningful if the caller's stamp validates afterwards.
+         */
+        long getOptimistic(long most, long least, long defaultValue) {
+            if (isNil(most, least)) {
+                return hasNilKey ? nilBalance : defaultValue;
+            }
+            long[] currentMost = mostBits;
+            long[] currentLeast = leastBits;
+            long[] currentBalances = balances;
+            int length = Math.min(currentMost.length, Math.min(currentLeast.length, currentBalances.length));
+            int localMask = Integer.highestOneBit(length) - 1;
+            int index = hash(most, least) & localMask;
+            for (int probes = 0; probes <= localMask; probes++) {
+                long storedMost = currentMost[index];
+                long storedLeast = currentLeast[index];
+                if (storedMost == most && storedLeast == least) {
+                    return currentBalances[index];
+                }
+                if (isNil(storedMost, storedLeast)) {
+                    return defaultValue;
+                }
+                index = (index + 1) & localMask;
+            }
+            return defaultValue;
+        }
+
+        long put(long most, long least, long balance) {
+            if (isNil(most, least)) {
+                long previous = hasNilKey ? nilBalance : MISSING;
+                nilBalance = balance;
+                hasNilKey = true;
+                return previous;
+            }
+            int index = indexOf(most, least);
+            if (index >= 0) {
+                long previous = balances[index];
+                balances[index] = balance;
+                return previous;
+            }
+            insert(-index - 1, most, least, balance);
+            return MISSING;
+        }
+
+        boolean remove(long most, long least) {
+            if (isNil(most, least)) {
+                boolean removed = hasNilKey;
+                hasNilKey = false;
+                nilBalance = 0L;
+                return removed;
+            }
+            int index = indexOf(most, least);
+            if (index < 0) {
+                return false;
+            }
+            shiftBack(index);
+            size--;
+            return true;
+        }
+
+        void forEach(EntryConsumer consumer) {
+            if (hasNilKey) {
+                consumer.accept(0L, 0L, nilBalance);
+            }
+            for (int i = 0; i < mostBits.length; i++) {
+                if (!isNil(mostBits[i], leastBits[i])) {
+                    consumer.accept(mostBits[i], leastBits[i], balances[i]);
+                }
+            }
+        }
+
+        private int indexOf(long most, long least) {
+            int index = hash(most, least) & mask;
+            while (true) {
+                long storedMost = mostBits[index];
+                long storedLeast = leastBits[index];
+                if (storedMost == most && storedLeast == least) {
+                    return index;
+                }
+                if (isNil(storedMost, storedLeast)) {
+                    return -index - 1;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private void insert(int index, long most, long least, long balance) {
+            mostBits[index] = most;
+            leastBits[index] = least;
+            balances[index] = balance;
+            if (++size > resizeThreshold) {
+                rehash(mostBits.length << 1);
+            }
+        }
+
+        private void shiftBack(int index) {
+            int hole = index;
+            int current = (index + 1) & mask;
+            while (!isNil(mostBits[current], leastBits[current])) {
+                int home = hash(mostBits[current], leastBits[current]) & mask;
+                if (((current - home) & mask) >= ((current - hole) & mask)) {
+                    mostBits[hole] = mostBits[current];
+                    leastBits[hole] = leastBits[current];
+                    balances[hole] = balances[current];
+                    hole = current;
+                }
+                current = (current + 1) & mask;
+            }
+            mostBits[hole] = 0L;
+            leastBits[hole] = 0L;
+            balances[hole] = 0L;
+        }
+
+        private void rehash(int capacity) {
+            long[] oldMost = mostBits;
+            long[] oldLeast = leastBits;
+            long[] oldBalances = balances;
+            allocate(capacity);
+            for (int i = 0; i < oldMost.length; i++) {
+                long most = oldMost[i];
+                long least = oldLeast[i];
+                if (isNil(most, least)) {
+                    continue;
+                }
+                int index = hash(most, least) & mask;
+                while (!isNil(mostBits[index], leastBits[index])) {
+                    index = (index + 1) & mask;
+                }
+                mostBits[index] = most;
+                leastBits[index] = least;
+                balances[index] = oldBalances[i];
+            }
+        }
+
+        private void allocate(int capacity) {
+            mostBits = new long[capacity];
+            leastBits = new long[capacity];
+            balances = new long[capacity];
+            mask = capacity - 1;
+            resizeThreshold = (int) (capacity * LOAD_FACTOR);
+        }
+
+        private static boolean isNil(long most, long least) {
+            return most == 0L && least == 0L;
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.api.LeaderboardEntry;
+import com.outlaw.economy.storage.BalanceStore;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Every account ordered by balance, highest first, in an indexed skip list: each link also
+ * counts the accounts it jumps over, so ranks and pages are found in O(log n).
+ * <p>
+ * Balance changes are only queued by {@link #offer}, which is called with a stripe of the
+ * account table locked; the queue is applied before every query and by a periodic
+ * {@link #drain}, so the stripes never wait for the list. Since an account's changes are queued
+ * in order and carry the resulting balance, the last one applied always wins.
+ */
+public class BalanceLeaderboard {
+
+    private static final int MAX_LEVEL = 32;
+
+    private final Queue<Update> pending = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<UUID, Node> nodes = new HashMap<>();
+    private final Node head = new Node(null, 0L, MAX_LEVEL);
+    private int level = 1;
+    private long total;
+    private volatile boolean ready;
+
+    public void offer(UUID playerId, long balance) {
+        pending.add(new Update(playerId, balance));
+    }
+
+    /**
+     * Adds every stored account that no change has been seen for yet. Meant to run once, off the
+     * main thread; until it returns, ranks only cover the accounts changed since startup.
+     */
+    public void build(BalanceStore store) throws IOException {
+        store.forEach((playerId, balance) -> {
+            lock.lock();
+            try {
+                if (!nodes.containsKey(playerId)) {
+                    insert(playerId, balance);
+                }
+            } finally {
+                lock.unlock();
+            }
+        });
+        ready = true;
+        drain();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void drain() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            applyPending();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            applyPending();
+            return nodes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the sum of every balance, that is the money supply
+     */
+    public long totalBalance() {
+        lock.lock();
+        try {
+            applyPending();
+            return total;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the 1-based rank of the account, or {@code -1} if it is unknown
+     */
+    public int rank(UUID playerId) {
+        lock.lock();
+        try {
+            applyPending();
+            Node target = nodes.get(playerId);
+            if (target == null) {
+                return -1;
+            }
+            int rank = 0;
+            Node node = head;
+            for (int i = level - 1; i >= 0; i--) {
+                while (node.next[i] != null && compare(node.next[i], target.balance, playerId) <= 0) {
+                    rank += node.span[i];
+                    node = node.next[i];
+                }
+                if (node == target) {
+                    return rank;
+                }
+            }
+            return -1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param offset number of accounts to skip from the top
+     */
+    public List<LeaderboardEntry> page(int offset, int limit) {
+        lock.lock();
+        try {
+            applyPending();
+            int start = Math.max(0, offset);
+            if (limit <= 0 || start >= nodes.size()) {
+                return List.of();
+            }
+            int traversed = 0;
+            Node node = head;
+            for (int i = level - 1; i >= 0; i--) {
+                while (node.next[i] != null && traversed + node.span[i] <= start + 1) {
+                    traversed += node.span[i];
+                    node = node.next[i];
+                }
+            }
+            List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, nodes.size() - start));
+            while (node != null && entries.size() < limit) {
+                entries.add(new LeaderboardEntry(traversed++, node.playerId, node.balance));
+                node = node.next[0];
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void applyPending() {
+        Update update;
+        while ((update = pending.poll()) != null) {
+            Node current = nodes.get(update.playerId());
+            if (current != null) {
+                if (current.balance == update.balance()) {
+                    continue;
+                }
+                remove(current);
+            }
+            insert(update.playerId(), update.balance());
+        }
+    }
+
+    private void insert(UUID playerId, long balance) {
+        Node[] update = new Node[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            rank[i] = i == level - 1 ? 0 : rank[i + 1];
+            while (node.next[i] != null && compare(node.next[i], balance, playerId) < 0) {
+                rank[i] += node.span[i];
+                node = node.next[i];
+            }
+            update[i] = node;
+        }
+        int height = randomLevel();
+        if (height > level) {
+            for (int i = level; i < height; i++) {
+                rank[i] = 0;
+                update[i] = head;
+                head.span[i] = nodes.size();
+            }
+            level = height;
+        }
+        Node created = new Node(playerId, balance, height);
+        for (int i = 0; i < height; i++) {
+            created.next[i] = update[i].next[i];
+            update[i].next[i] = created;
+            created.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+            update[i].span[i] = rank[0] - rank[i] + 1;
+        }
+        for (int i = height; i < level; i++) {
+            update[i].span[i]++;
+        }
+        nodes.put(playerId, created);
+        total += balance;
+    }
+
+    private void remove(Node target) {
+        Node node = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (node.next[i] != null && compare(node.next[i], target.balance, target.playerId) < 0) {
+                node = node.next[i];
+            }
+            if (node.next[i] == target) {
+                node.span[i] += target.span[i] - 1;
+                node.next[i] = target.next[i];
+            } else {
+                node.span[i]--;
+            }
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        nodes.remove(target.playerId);
+        total -= target.balance;
+    }
+
+    private static int compare(Node node, long balance, UUID playerId) {
+        int byBalance = Long.compare(balance, node.balance);
+        return byBalance != 0 ? byBalance : node.playerId.compareTo(playerId);
+    }
+
+    private static int randomLevel() {
+        int height = 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (height < MAX_LEVEL && (random.nextInt() & 3) == 0) {
+            height++;
+        }
+        return height;
+    }
+
+    private static final class Node {
+        private final UUID playerId;
+        private final long balance;
+        private final Node[] next;
+        private final int[] span;
+
+        private Node(UUID playerId, long balance, int height) {
+            this.playerId = playerId;
+            this.balance = balance;
+            this.next = new Node[height];
+            this.span = new int[height];
+        }
+    }
+
+    private record Update(UUID playerId, long balance) {
+    }
+}
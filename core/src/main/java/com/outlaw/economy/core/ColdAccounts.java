@@ -0,0 +1,82 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.storage.BalanceStore;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Offline side of the account tiers: the {@link BalanceStore} fronted by a small LRU of balances
+ * read for offline lookups or dropped from memory by eviction, including unknown accounts. An
+ * entry leaves the LRU as soon as its account is promoted, since the in-memory table is
+ * authoritative from then on.
+ */
+public class ColdAccounts implements AccountTable.ColdLoader {
+
+    private final BalanceStore store;
+    private final Map<UUID, Long> recent;
+
+    public ColdAccounts(BalanceStore store, int cacheSize) {
+        this.store = store;
+        int capacity = Math.max(1, cacheSize);
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public BalanceStore getStore() {
+        return store;
+    }
+
+    /**
+     * Reads an account without bringing it into memory.
+     *
+     * @return the stored balance, or {@link AccountTable#MISSING} if the account does not exist
+     */
+    public long lookup(UUID playerId) {
+        synchronized (recent) {
+            Long cached = recent.get(playerId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        long balance = read(playerId);
+        synchronized (recent) {
+            recent.putIfAbsent(playerId, balance);
+        }
+        return balance;
+    }
+
+    @Override
+    public long load(UUID playerId) {
+        synchronized (recent) {
+            Long cached = recent.remove(playerId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return read(playerId);
+    }
+
+    public void remember(UUID playerId, long balance) {
+        synchronized (recent) {
+            recent.put(playerId, balance);
+        }
+    }
+
+    private long read(UUID playerId) {
+        try {
+            OptionalLong stored = store.load(playerId);
+            return stored.isPresent() ? stored.getAsLong() : AccountTable.MISSING;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,1085 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.anomaly.AnomalyDetector;
+import com.outlaw.economy.anomaly.AnomalyRule;
+import com.outlaw.economy.api.AsyncEconomyService;
+import com.outlaw.economy.api.BalanceOperation;
+import com.outlaw.economy.api.Currency;
+import com.outlaw.economy.api.EconomyService;
+import com.outlaw.economy.api.LedgerEntry;
+import com.outlaw.economy.api.LeaderboardEntry;
+import com.outlaw.economy.api.Money;
+import com.outlaw.economy.api.MoneyFormat;
+import com.outlaw.economy.metrics.EconomyMetrics;
+import com.outlaw.economy.metrics.HotPath;
+import com.outlaw.economy.metrics.PerformanceMonitor;
+import com.outlaw.economy.storage.BalanceStore;
+import com.outlaw.economy.storage.BalanceStores;
+import com.outlaw.economy.storage.FlatBalanceReader;
+import com.outlaw.economy.storage.PersistenceScheduler;
+import com.outlaw.economy.storage.TransactionJournal;
+import com.outlaw.economy.storage.TransactionLedger;
+import com.outlaw.economy.storage.YamlMaps;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Accounts, journal, ledger, leaderboard, metrics and anomaly detection, with no server behind
+ * them: periodic work goes through a {@link TaskScheduler} and what depends on the players online
+ * goes through the protected hooks, which do nothing here. The plugin extends it with the events,
+ * the sidebar and the admin alerts; benchmarks and simulations use it as it is.
+ * <p>
+ * The instance built from the settings holds the default currency. Every other currency is a
+ * further instance with its own account table, format, journal, ledger and store in
+ * {@code currencies/<name>}, found by index in an array shared with the default one; they also
+ * share the name index, the asynchronous workers, the request ids and the hooks of the default one.
+ */
+public class EconomyEngine implements EconomyService {
+
+    private static final String BALANCES_KEY = "balances";
+    private static final String CURRENCY_KEY_PREFIX = "balances.";
+    private static final String NAMES_KEY = "names";
+    private static final long EVICTION_INTERVAL_TICKS = 20L * 60L;
+    private static final long ASYNC_SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    private final EconomyEngine root;
+    private final Currency currency;
+    private final EconomyEngine[] engines;
+    private final List<Currency> currencies;
+    private final String balancesKey;
+    private final AccountTable balances;
+    private final ColdAccounts coldAccounts;
+    private final String backend;
+    private final AtomicBoolean migrating = new AtomicBoolean();
+    private volatile BalanceStore mirror;
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Set<UUID> recentlyWritten = new HashSet<>();
+    private final Map<UUID, Integer> idlePasses = new HashMap<>();
+    private final AtomicInteger checkpointsInFlight = new AtomicInteger();
+    private final NavigableSet<Long> outstandingCheckpoints = new TreeSet<>();
+    private long latestWrittenCheckpoint;
+    private long uncoveredCheckpoint = Long.MAX_VALUE;
+    private long lastCheckpointFailure;
+    private final int idleMinutes;
+    private final int maxCached;
+    private final long startingBalance;
+    private final String currencyCode;
+    private final File dataFolder;
+    private final Logger logger;
+    private final TaskScheduler scheduler;
+    private final MoneyFormat moneyFormat = new MoneyFormat();
+    private final AnomalyDetector anomalyDetector;
+    private final BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+    private final PlayerNameIndex names;
+    private final EconomyMetrics metrics;
+    private final PersistenceScheduler persistence;
+    private final TransactionJournal journal;
+    private final TransactionLedger ledger;
+    private final AccountShardExecutor asyncExecutor;
+    private final AsyncEconomyService async = new AsyncOperations();
+    private final IdempotencyTable idempotency;
+    private final long checkpointThreshold;
+    private volatile boolean checkpointPending;
+    private TaskScheduler.Task journalTask;
+    private TaskScheduler.Task evictionTask;
+
+    /**
+     * Opens the storage and starts the periodic tasks.
+     *
+     * @throws IllegalStateException if the account storage cannot be opened
+     */
+    public EconomyEngine(EconomySettings settings, TaskScheduler scheduler, PersistenceScheduler persistence, Logger logger) {
+        this(settings, null, Currency.DEFAULT, scheduler, persistence, logger);
+    }
+
+    private EconomyEngine(EconomySettings settings, EconomyEngine root, Currency currency, TaskScheduler scheduler,
+                          PersistenceScheduler persistence, Logger logger) {
+        this.root = root == null ? this : root;
+        this.currency = currency;
+        this.engines = root == null ? new EconomyEngine[1 + settings.currencies().size()] : root.engines;
+        this.currencies = root == null ? listCurrencies(settings) : root.currencies;
+        this.balancesKey = root == null ? BALANCES_KEY : CURRENCY_KEY_PREFIX + currency.name();
+        this.names = root == null ? new PlayerNameIndex() : root.names;
+        this.scheduler = scheduler;
+        this.persistence = persistence;
+        this.logger = logger;
+        this.dataFolder = settings.dataFolder();
+        this.currencyCode = settings.currencyCode();
+        this.startingBalance = settings.startingBalance();
+        this.idleMinutes = settings.idleMinutes();
+        this.maxCached = settings.maxCached();
+        this.idempotency = root == null
+                ? new IdempotencyTable(settings.idempotencyCapacity(), settings.idempotencyWindowMillis())
+                : root.idempotency;
+        this.metrics = new EconomyMetrics(scheduler, () -> leaderboard.isReady() ? leaderboard.totalBalance() : -1L);
+        BalanceStore store;
+        if (!dataFolder.isDirectory() && !dataFolder.mkdirs()) {
+            logger.warning("Impossible de créer le dossier " + dataFolder);
+        }
+        try {
+            this.backend = BalanceStores.normalize(settings.backend());
+            store = BalanceStores.open(backend, dataFolder);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.severe("Impossible d'ouvrir le stockage des comptes: " + e.getMessage());
+            throw new IllegalStateException(e);
+        }
+        this.coldAccounts = new ColdAccounts(store, settings.offlineCacheSize());
+        this.balances = new AccountTable(this::recordChange, coldAccounts);
+        migrateLegacyBalances(new File(dataFolder, "balances.yml"));
+
+        this.checkpointThreshold = settings.checkpointBytes();
+        this.journal = new TransactionJournal(new File(dataFolder, "journal"), logger, settings.journalSegmentBytes());
+        persistence.registerCheckpoint(balancesKey, this::captureBalances);
+        if (root == null) {
+            loadNames(new File(dataFolder, "names.yml"));
+        }
+        openJournal();
+        this.ledger = new TransactionLedger(new File(dataFolder, "ledger"), logger, settings.ledgerRetentionDays());
+        try {
+            ledger.open();
+        } catch (IOException e) {
+            logger.severe("Impossible d'ouvrir l'historique des transactions: " + e.getMessage());
+        }
+        persistence.execute(this::buildLeaderboard);
+        this.journalTask = scheduler.repeat(this::flushJournal, 20L, 20L);
+        this.evictionTask = scheduler.repeat(this::evictIdle, EVICTION_INTERVAL_TICKS, EVICTION_INTERVAL_TICKS);
+        this.anomalyDetector = new AnomalyDetector(scheduler, settings.anomalyRules(), this::formatAlertAmount, this.root::onAnomaly);
+        anomalyDetector.start();
+        metrics.start();
+        this.asyncExecutor = root == null ? new AccountShardExecutor(settings.asyncThreads(), logger) : root.asyncExecutor;
+        engines[currency.index()] = this;
+        if (root == null) {
+            for (int i = 1; i < currencies.size(); i++) {
+                new EconomyEngine(settings.forCurrency(settings.currencies().get(i - 1)), this, currencies.get(i),
+                        scheduler, persistence, logger);
+            }
+        }
+    }
+
+    private static List<Currency> listCurrencies(EconomySettings settings) {
+        List<Currency> list = new ArrayList<>();
+        list.add(Currency.DEFAULT);
+        for (EconomySettings.CurrencyDefinition definition : settings.currencies()) {
+            list.add(new Currency(list.size(), definition.name()));
+        }
+        return List.copyOf(list);
+    }
+
+    private void openJournal() {
+        try {
+            journal.open();
+        } catch (IOException e) {
+            logger.severe("Impossible d'ouvrir le journal des transactions: " + e.getMessage());
+            return;
+        }
+        Map<UUID, Long> latest = new HashMap<>();
+        int replayed = journal.replay((playerId, delta, balance, source, timestamp) -> latest.put(playerId, balance));
+        if (replayed == 0) {
+            return;
+        }
+        try {
+            coldAccounts.getStore().store(latest);
+            long generation = journal.mark();
+            journal.seal(generation);
+            journal.deleteBefore(generation);
+        } catch (IOException e) {
+            logger.severe("Impossible d'appliquer le journal des transactions: " + e.getMessage());
+            return;
+        }
+        logger.info(replayed + " transaction(s) rejouée(s) depuis le journal.");
+    }
+
+    /**
+     * Has the I/O thread write the journal buffered since the last call and publishes the
+     * leaderboard changes. Scheduled every 20 ticks; exposed so that a simulation can drive it at its
+     * own pace.
+     */
+    public void flushJournal() {
+        persistence.execute(journal::flush);
+        leaderboard.drain();
+        if (ledger.hasPending()) {
+            persistence.execute(ledger::flush);
+        }
+        if (!checkpointPending && journal.liveBytes() >= checkpointThreshold) {
+            saveAll();
+        }
+    }
+
+    private void buildLeaderboard() {
+        try {
+            leaderboard.build(coldAccounts.getStore());
+        } catch (IOException e) {
+            logger.severe("Impossible de construire le classement des soldes: " + e.getMessage());
+            return;
+        }
+        logger.info("Classement des soldes prêt (" + leaderboard.size() + " comptes).");
+    }
+
+    private void loadNames(File file) {
+        persistence.register(NAMES_KEY, file, names::snapshot);
+        if (file.isFile()) {
+            try {
+                names.load(file);
+            } catch (IOException e) {
+                logger.severe("Impossible de lire names.yml: " + e.getMessage());
+            }
+            return;
+        }
+        if (importNames(names) > 0) {
+            persistence.markDirty(NAMES_KEY);
+            logger.info(names.size() + " nom(s) de joueur importé(s) depuis le serveur.");
+        }
+    }
+
+    private void migrateLegacyBalances(File legacyFile) {
+        if (!legacyFile.isFile()) {
+            return;
+        }
+        BalanceStore store = coldAccounts.getStore();
+        if (!store.isEmpty()) {
+            logger.warning("balances.yml ignoré, le stockage " + backend + " contient déjà des comptes.");
+            return;
+        }
+        Map<UUID, Long> migrated = new ConcurrentHashMap<>();
+        boolean flat;
+        try {
+            flat = FlatBalanceReader.read(legacyFile, migrated::put);
+        } catch (IOException e) {
+            logger.severe("Impossible de lire balances.yml: " + e.getMessage());
+            return;
+        }
+        if (!flat) {
+            migrated.clear();
+            Map<String, Object> legacy;
+            try {
+                legacy = YamlMaps.load(legacyFile);
+            } catch (IOException e) {
+                logger.severe("Impossible de lire balances.yml: " + e.getMessage());
+                return;
+            }
+            for (Map.Entry<String, Object> entry : legacy.entrySet()) {
+                try {
+                    migrated.put(UUID.fromString(entry.getKey()), Money.ofMajor(YamlMaps.toDouble(entry.getValue())));
+                } catch (IllegalArgumentException | ArithmeticException ignored) {
+                    logger.warning("Entrée invalide dans balances.yml: " + entry.getKey());
+                }
+            }
+        }
+        try {
+            store.store(migrated);
+        } catch (IOException e) {
+            logger.severe("Impossible de migrer balances.yml: " + e.getMessage());
+            return;
+        }
+        if (!legacyFile.renameTo(new File(legacyFile.getParentFile(), "balances.yml.migrated"))) {
+            logger.warning("Impossible de renommer balances.yml après migration.");
+        }
+        logger.info(migrated.size() + " compte(s) migré(s) depuis balances.yml.");
+    }
+
+    public void saveAll() {
+        checkpointPending = true;
+        persistence.markDirty(balancesKey);
+    }
+
+    /**
+     * Stops the periodic tasks and writes every currency; the asynchronous operations still queued
+     * are applied first.
+     */
+    public void shutdown() {
+        asyncExecutor.shutdown(ASYNC_SHUTDOWN_TIMEOUT_SECONDS);
+        for (int i = 1; i < engines.length; i++) {
+            engines[i].stop();
+        }
+        stop();
+    }
+
+    private void stop() {
+        if (journalTask != null) {
+            journalTask.cancel();
+            journalTask = null;
+        }
+        if (evictionTask != null) {
+            evictionTask.cancel();
+            evictionTask = null;
+        }
+        anomalyDetector.shutdown();
+        metrics.shutdown();
+        persistence.flush(balancesKey);
+        persistence.execute(ledger::close);
+        persistence.execute(journal::close);
+    }
+
+    private PersistenceScheduler.Checkpoint captureBalances() {
+        long start = PerformanceMonitor.start();
+        try {
+            return snapshotDirtyBalances();
+        } finally {
+            PerformanceMonitor.stop(HotPath.SAVE_ALL, start);
+        }
+    }
+
+    /**
+     * Runs on the main thread and only swaps the dirty accounts out; the journal is sealed on the
+     * I/O thread when the checkpoint is written.
+     */
+    private PersistenceScheduler.Checkpoint snapshotDirtyBalances() {
+        long generation = journal.mark();
+        Map<UUID, Long> changed = new HashMap<>(dirty.size() * 2);
+        Iterator<UUID> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            UUID playerId = iterator.next();
+            iterator.remove();
+            long balance = balances.get(playerId, AccountTable.MISSING);
+            if (balance != AccountTable.MISSING) {
+                changed.put(playerId, balance);
+            }
+            recentlyWritten.add(playerId);
+        }
+        checkpointsInFlight.incrementAndGet();
+        synchronized (outstandingCheckpoints) {
+            outstandingCheckpoints.add(generation);
+        }
+        BalanceStore store = coldAccounts.getStore();
+        return new PersistenceScheduler.Checkpoint() {
+            @Override
+            public void write() throws IOException {
+                long start = PerformanceMonitor.start();
+                try {
+                    journal.seal(generation);
+                    store.store(changed);
+                    BalanceStore copy = mirror;
+                    if (copy != null) {
+                        copy.store(changed);
+                    }
+                } finally {
+                    PerformanceMonitor.stop(HotPath.CHECKPOINT_WRITE, start);
+                }
+            }
+
+            @Override
+            public void onComplete(boolean written) {
+                if (!written) {
+                    dirty.addAll(changed.keySet());
+                }
+                long covered = completeCheckpoint(generation, written);
+                if (covered > 0) {
+                    journal.deleteBefore(covered);
+                }
+                checkpointsInFlight.decrementAndGet();
+                checkpointPending = false;
+            }
+        };
+    }
+
+    /**
+     * Works out how far the journal is covered once a checkpoint is over: up to the latest written
+     * checkpoint, but never past one still in flight, nor past a failed one until a checkpoint
+     * captured after its accounts were marked dirty again has been written.
+     *
+     * @return the generation below which the journal may be deleted, or {@code 0}
+     */
+    private long completeCheckpoint(long generation, boolean written) {
+        synchronized (outstandingCheckpoints) {
+            outstandingCheckpoints.remove(generation);
+            if (written) {
+                latestWrittenCheckpoint = Math.max(latestWrittenCheckpoint, generation);
+                if (generation > lastCheckpointFailure) {
+                    uncoveredCheckpoint = Long.MAX_VALUE;
+                }
+            } else {
+                uncoveredCheckpoint = Math.min(uncoveredCheckpoint, generation);
+                lastCheckpointFailure = journal.generation();
+            }
+            long covered = Math.min(latestWrittenCheckpoint, uncoveredCheckpoint);
+            if (!outstandingCheckpoints.isEmpty()) {
+                covered = Math.min(covered, outstandingCheckpoints.first());
+            }
+            return covered;
+        }
+    }
+
+    /**
+     * Drops accounts that are offline, saved and untouched for {@code storage.accounts.idle-minutes}
+     * from memory, or after a single idle pass once the table holds more than
+     * {@code storage.accounts.max-cached} accounts. Runs on the main thread; exposed so that a
+     * simulation can drive it at its own pace.
+     */
+    public void evictIdle() {
+        if (!dirty.isEmpty()) {
+            saveAll();
+        }
+        if (checkpointsInFlight.get() > 0) {
+            return;
+        }
+        List<UUID> loaded = new ArrayList<>(balances.size());
+        balances.forEach((mostBits, leastBits, balance) -> loaded.add(new UUID(mostBits, leastBits)));
+        int required = loaded.size() > maxCached ? 1 : idleMinutes;
+        for (UUID playerId : loaded) {
+            if (recentlyWritten.contains(playerId) || dirty.contains(playerId) || root.isOnline(playerId)) {
+                idlePasses.remove(playerId);
+                continue;
+            }
+            if (idlePasses.merge(playerId, 1, Integer::sum) < required) {
+                continue;
+            }
+            idlePasses.remove(playerId);
+            long balance = balances.removeIf(playerId, id -> !dirty.contains(id));
+            if (balance != AccountTable.MISSING) {
+                coldAccounts.remember(playerId, balance);
+            }
+        }
+        recentlyWritten.clear();
+    }
+
+    /**
+     * Copies every account from one backend to another on the I/O thread, after a checkpoint of
+     * the accounts in memory. When the source is the active backend, later checkpoints are also
+     * written to the target until the server stops, so that switching {@code storage.backend} and
+     * restarting loses nothing.
+     *
+     * @throws IllegalArgumentException if the backends are unknown or unsuitable
+     */
+    public void migrateStore(String from, String to, MigrationListener listener) {
+        String source = BalanceStores.normalize(from);
+        String target = BalanceStores.normalize(to);
+        if (source.equals(target)) {
+            throw new IllegalArgumentException("La source et la destination doivent être différentes.");
+        }
+        if (target.equals(backend)) {
+            throw new IllegalArgumentException("Impossible de migrer vers le stockage actif (" + backend + ").");
+        }
+        if (mirror != null || !migrating.compareAndSet(false, true)) {
+            throw new IllegalArgumentException("Une migration est déjà en cours ou attend un redémarrage.");
+        }
+        saveAll();
+        persistence.flush(balancesKey);
+        persistence.execute(() -> {
+            boolean fromActive = source.equals(backend);
+            BalanceStore sourceStore = null;
+            BalanceStore targetStore = null;
+            try {
+                sourceStore = fromActive ? coldAccounts.getStore() : BalanceStores.open(source, dataFolder);
+                targetStore = BalanceStores.open(target, dataFolder);
+                int copied = BalanceStores.migrate(sourceStore, targetStore, listener::onProgress);
+                if (fromActive) {
+                    mirror = targetStore;
+                    targetStore = null;
+                }
+                listener.onComplete(copied, fromActive);
+            } catch (IOException e) {
+                listener.onFailure(e.getMessage());
+            } finally {
+                closeQuietly(targetStore);
+                if (!fromActive) {
+                    closeQuietly(sourceStore);
+                }
+                migrating.set(false);
+            }
+        });
+    }
+
+    /**
+     * Closes the backends once every pending write has been performed.
+     */
+    public void closeStorage() {
+        for (int i = 1; i < engines.length; i++) {
+            engines[i].closeStores();
+        }
+        closeStores();
+    }
+
+    private void closeStores() {
+        closeQuietly(mirror);
+        closeQuietly(coldAccounts.getStore());
+    }
+
+    private void closeQuietly(BalanceStore store) {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.close();
+        } catch (IOException e) {
+            logger.warning("Impossible de fermer le stockage des comptes: " + e.getMessage());
+        }
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public void ensureAccount(UUID playerId) {
+        try {
+            warm(playerId);
+            if (balances.putIfAbsent(playerId, startingBalance, TransactionSource.ACCOUNT_CREATED)) {
+                metrics.record(startingBalance, TransactionSource.ACCOUNT_CREATED);
+                root.onAccountChanged(playerId);
+            }
+        } catch (UncheckedIOException e) {
+            reportUnreadable(playerId, e);
+        }
+    }
+
+    @Override
+    public long getBalanceMinor(UUID playerId) {
+        long balance = balances.get(playerId, AccountTable.MISSING);
+        if (balance != AccountTable.MISSING) {
+            return balance;
+        }
+        try {
+            balance = coldAccounts.lookup(playerId);
+        } catch (UncheckedIOException e) {
+            reportUnreadable(playerId, e);
+            return 0L;
+        }
+        return balance == AccountTable.MISSING ? startingBalance : balance;
+    }
+
+    public void setBalanceMinor(UUID playerId, long amount) {
+        setBalanceMinor(playerId, amount, "");
+    }
+
+    public void setBalanceMinor(UUID playerId, long amount, String reason) {
+        long updated = Math.max(0L, amount);
+        long previous;
+        try {
+            warm(playerId);
+            previous = balances.put(playerId, updated, startingBalance, TransactionSource.ADMIN);
+        } catch (UncheckedIOException e) {
+            reportUnreadable(playerId, e);
+            return;
+        }
+        long delta = updated - previous;
+        metrics.record(delta, TransactionSource.ADMIN);
+        root.onAccountChanged(playerId);
+        if (delta != 0) {
+            recordHistory(playerId, delta, updated, reason, null);
+        }
+    }
+
+    @Override
+    public boolean depositMinor(UUID playerId, long amount, String reason) {
+        long start = PerformanceMonitor.start();
+        try {
+            return applyDeposit(playerId, amount, reason);
+        } finally {
+            PerformanceMonitor.stop(HotPath.DEPOSIT, start);
+        }
+    }
+
+    private boolean applyDeposit(UUID playerId, long amount, String reason) {
+        if (amount <= 0) {
+            return false;
+        }
+        TransactionSource source = TransactionSource.fromReason(reason);
+        long updated;
+        try {
+            warm(playerId);
+            updated = balances.add(playerId, amount, startingBalance, source);
+        } catch (ArithmeticException e) {
+            logger.warning("Dépôt refusé, solde maximal atteint pour " + playerId);
+            return false;
+        } catch (UncheckedIOException e) {
+            reportUnreadable(playerId, e);
+            return false;
+        }
+        metrics.record(amount, source);
+        root.onAccountChanged(playerId);
+        recordHistory(playerId, amount, updated, reason, null);
+        anomalyDetector.record(playerId, amount, source, System.currentTimeMillis());
+        return true;
+    }
+
+    @Override
+    public boolean withdrawMinor(UUID playerId, long amount, String reason) {
+        long start = PerformanceMonitor.start();
+        try {
+            return applyWithdrawal(playerId, amount, reason);
+        } finally {
+            PerformanceMonitor.stop(HotPath.WITHDRAW, start);
+        }
+    }
+
+    private boolean applyWithdrawal(UUID playerId, long amount, String reason) {
+        if (amount <= 0) {
+            return false;
+        }
+        TransactionSource source = TransactionSource.fromReason(reason);
+        long updated;
+        try {
+            warm(playerId);
+            updated = balances.withdraw(playerId, amount, startingBalance, source);
+        } catch (UncheckedIOException e) {
+            reportUnreadable(playerId, e);
+            return false;
+        }
+        if (updated == AccountTable.MISSING) {
+            return false;
+        }
+        metrics.record(-amount, source);
+        root.onAccountChanged(playerId);
+        recordHistory(playerId, -amount, updated, reason, null);
+        anomalyDetector.record(playerId, -amount, source, System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Withdraws {@code amount}, or the whole balance if it is lower, in a single step.
+     *
+     * @return the amount withdrawn
+     */
+    public long withdrawUpToMinor(UUID playerId, long amount, String reason) {
+        if (amount <= 0) {
+            return 0L;
+        }
+        TransactionSource source = TransactionSource.fromReason(reason);
+        long[] result;
+        try {
+            warm(playerId);
+            result = balances.withdrawUpTo(playerId, amount, startingBalance, source);
+        } catch (UncheckedIOException e) {
+            reportUnreadable(playerId, e);
+            return 0L;
+        }
+        long removed = result[0];
+        if (removed == 0) {
+            return 0L;
+        }
+        metrics.record(-removed, source);
+        root.onAccountChanged(playerId);
+        recordHistory(playerId, -removed, result[1], reason, null);
+        anomalyDetector.record(playerId, -removed, source, System.currentTimeMillis());
+        return removed;
+    }
+
+    @Override
+    public boolean transfer(UUID from, UUID to, long amount, String reason) {
+        if (amount <= 0 || from.equals(to)) {
+            return false;
+        }
+        return applyBatch(List.of(BalanceOperation.withdraw(from, amount, reason), BalanceOperation.deposit(to, amount, reason)));
+    }
+
+    @Override
+    public boolean applyBatch(List<BalanceOperation> operations) {
+        int count = 0;
+        for (BalanceOperation operation : operations) {
+            if (operation.delta() == Long.MIN_VALUE) {
+                return false;
+            }
+            if (operation.delta() != 0) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return true;
+        }
+        UUID[] playerIds = new UUID[count];
+        long[] deltas = new long[count];
+        TransactionSource[] sources = new TransactionSource[count];
+        int index = 0;
+        for (BalanceOperation operation : operations) {
+            if (operation.delta() != 0) {
+                playerIds[index] = operation.playerId();
+                deltas[index] = operation.delta();
+                sources[index] = TransactionSource.fromReason(operation.reason());
+                index++;
+            }
+        }
+        long[] results;
+        try {
+            for (UUID playerId : playerIds) {
+                warm(playerId);
+            }
+            results = balances.applyBatch(playerIds, deltas, sources, startingBalance);
+            if (results == null) {
+                return false;
+            }
+        } catch (UncheckedIOException e) {
+            logger.severe("Opération groupée refusée, compte illisible: " + e.getCause().getMessage());
+            return false;
+        }
+        metrics.recordBatch(deltas, sources);
+        long now = System.currentTimeMillis();
+        Set<UUID> touched = new HashSet<>();
+        for (UUID playerId : playerIds) {
+            touched.add(playerId);
+        }
+        index = 0;
+        for (BalanceOperation operation : operations) {
+            long delta = operation.delta();
+            if (delta == 0) {
+                continue;
+            }
+            UUID playerId = operation.playerId();
+            UUID counterparty = null;
+            if (touched.size() == 2) {
+                for (UUID other : touched) {
+                    if (!other.equals(playerId)) {
+                        counterparty = other;
+                    }
+                }
+            }
+            ledger.append(new LedgerEntry(now, playerId, delta, results[index], operation.reason(), counterparty));
+            anomalyDetector.record(playerId, delta, sources[index++], now);
+        }
+        for (UUID playerId : touched) {
+            root.onAccountChanged(playerId);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean depositMinor(UUID playerId, long amount, String reason, UUID requestId) {
+        return idempotency.execute(requestId, () -> depositMinor(playerId, amount, reason));
+    }
+
+    @Override
+    public boolean withdrawMinor(UUID playerId, long amount, String reason, UUID requestId) {
+        return idempotency.execute(requestId, () -> withdrawMinor(playerId, amount, reason));
+    }
+
+    @Override
+    public boolean transfer(UUID from, UUID to, long amount, String reason, UUID requestId) {
+        return idempotency.execute(requestId, () -> transfer(from, to, amount, reason));
+    }
+
+    @Override
+    public boolean applyBatch(List<BalanceOperation> operations, UUID requestId) {
+        return idempotency.execute(requestId, () -> applyBatch(operations));
+    }
+
+    public boolean hasMinor(UUID playerId, long amount) {
+        return getBalanceMinor(playerId) >= amount;
+    }
+
+    public boolean accountExists(UUID playerId) {
+        if (balances.contains(playerId)) {
+            return true;
+        }
+        try {
+            return coldAccounts.lookup(playerId) != AccountTable.MISSING;
+        } catch (UncheckedIOException e) {
+            reportUnreadable(playerId, e);
+            return false;
+        }
+    }
+
+    public MoneyFormat getMoneyFormat() {
+        return moneyFormat;
+    }
+
+    /**
+     * Reads every account, including those only stored on disk. Meant for admin commands, not for
+     * frequent calls.
+     */
+    public Map<UUID, Long> getAllBalances() {
+        Map<UUID, Long> copy = new HashMap<>();
+        try {
+            coldAccounts.getStore().forEach(copy::put);
+        } catch (IOException e) {
+            logger.severe("Impossible de lire les comptes enregistrés: " + e.getMessage());
+        }
+        balances.forEach((mostBits, leastBits, balance) -> copy.put(new UUID(mostBits, leastBits), balance));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    @Override
+    public int getRank(UUID playerId) {
+        return leaderboard.rank(playerId);
+    }
+
+    @Override
+    public List<LeaderboardEntry> getTopBalances(int offset, int limit) {
+        return leaderboard.page(offset, limit);
+    }
+
+    public int getRankedAccounts() {
+        return leaderboard.size();
+    }
+
+    public EconomyMetrics getMetrics() {
+        return metrics;
+    }
+
+    public boolean isLeaderboardReady() {
+        return leaderboard.isReady();
+    }
+
+    /**
+     * Finds an account by player name, ignoring case, from the name index only, so it never blocks
+     * on a profile lookup.
+     *
+     * @return the account id, or {@code null} if no known player has this name
+     */
+    public UUID resolvePlayerId(String name) {
+        return names.resolve(name);
+    }
+
+    /**
+     * @return the last known name of the player, or {@code null}
+     */
+    public String getPlayerName(UUID playerId) {
+        return names.nameOf(playerId);
+    }
+
+    /**
+     * Records the current name of a player.
+     */
+    public void updatePlayerName(UUID playerId, String name) {
+        if (names.update(playerId, name)) {
+            persistence.markDirty(NAMES_KEY);
+        }
+    }
+
+    public List<String> completePlayerNames(String prefix, int limit) {
+        return names.complete(prefix, limit);
+    }
+
+    /**
+     * Reads the history from disk; prefer {@link #loadHistory} on the main thread.
+     */
+    @Override
+    public List<LedgerEntry> getHistory(UUID playerId, int offset, int limit) {
+        try {
+            return ledger.history(playerId, offset, limit);
+        } catch (IOException e) {
+            logger.severe("Impossible de lire l'historique de " + playerId + ": " + e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Reads the history on the I/O thread and hands it to {@code callback} on the main thread.
+     */
+    public void loadHistory(UUID playerId, int offset, int limit, Consumer<List<LedgerEntry>> callback) {
+        persistence.execute(() -> {
+            List<LedgerEntry> entries = getHistory(playerId, offset, limit);
+            scheduler.runSync(() -> callback.accept(entries));
+        });
+    }
+
+    /**
+     * Runs the same methods as this class on the economy worker threads, so a synchronous call and
+     * an asynchronous one go through the same code and only differ by the thread they run on.
+     */
+    @Override
+    public AsyncEconomyService async() {
+        return async;
+    }
+
+    @Override
+    public List<Currency> currencies() {
+        return currencies;
+    }
+
+    @Override
+    public Currency currency(String name) {
+        for (Currency candidate : currencies) {
+            if (candidate.name().equalsIgnoreCase(name)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the currency of this instance
+     */
+    public Currency getCurrency() {
+        return currency;
+    }
+
+    @Override
+    public EconomyService forCurrency(Currency currency) {
+        int index = currency.index();
+        if (index < 0 || index >= engines.length || !engines[index].currency.equals(currency)) {
+            throw new IllegalArgumentException("Devise inconnue: " + currency.name());
+        }
+        return engines[index];
+    }
+
+    @Override
+    public String formatMinor(long amount) {
+        return moneyFormat.format(amount);
+    }
+
+    @Override
+    public String currencyCode() {
+        return currencyCode;
+    }
+
+    /**
+     * Loads an account in every currency before its player joins, off the main thread, so that
+     * joining does not wait on the storage.
+     */
+    public void prepareAccount(UUID playerId) {
+        for (EconomyEngine engine : engines) {
+            engine.prepareOwnAccount(playerId);
+        }
+    }
+
+    private void prepareOwnAccount(UUID playerId) {
+        try {
+            warm(playerId);
+            balances.promote(playerId);
+        } catch (UncheckedIOException e) {
+            reportUnreadable(playerId, e);
+        }
+    }
+
+    private void recordChange(UUID playerId, long delta, long balance, TransactionSource source) {
+        // marked dirty first, so that a checkpoint whose mark comes after the record captures it
+        dirty.add(playerId);
+        journal.append(playerId, delta, balance, source);
+        leaderboard.offer(playerId, balance);
+    }
+
+    /**
+     * Reads an account that is not in memory into the offline cache, so that the table loads it
+     * from there instead of doing disk I/O with a stripe locked.
+     */
+    private void warm(UUID playerId) {
+        if (!balances.contains(playerId)) {
+            coldAccounts.lookup(playerId);
+        }
+    }
+
+    private void reportUnreadable(UUID playerId, UncheckedIOException e) {
+        logger.severe("Impossible de lire le compte " + playerId + ": " + e.getCause().getMessage());
+    }
+
+    private void recordHistory(UUID playerId, long delta, long balance, String reason, UUID counterparty) {
+        ledger.append(new LedgerEntry(System.currentTimeMillis(), playerId, delta, balance, reason, counterparty));
+    }
+
+    protected String formatAlertAmount(long amount) {
+        return formatMinor(amount) + " " + currencyCode();
+    }
+
+    /**
+     * Called from any thread when a rule fires; logs the alert by default.
+     */
+    protected void onAnomaly(UUID playerId, AnomalyRule rule, String detail) {
+        String playerName = getPlayerName(playerId);
+        logger.warning("Le joueur " + (playerName == null ? playerId : playerName) + " " + detail
+                + " [" + rule.getName() + "]");
+    }
+
+    /**
+     * Whether the player is connected, in which case the account is never evicted.
+     */
+    protected boolean isOnline(UUID playerId) {
+        return false;
+    }
+
+    /**
+     * Called on the thread that changed the balance.
+     */
+    protected void onAccountChanged(UUID playerId) {
+    }
+
+    /**
+     * Fills an empty name index on first start.
+     *
+     * @return the number of names added
+     */
+    protected int importNames(PlayerNameIndex index) {
+        return 0;
+    }
+
+    protected Logger getLogger() {
+        return logger;
+    }
+
+    protected TaskScheduler getScheduler() {
+        return scheduler;
+    }
+
+    private final class AsyncOperations implements AsyncEconomyService {
+
+        @Override
+        public CompletableFuture<Long> getBalanceMinor(UUID playerId) {
+            return asyncExecutor.submit(EconomyEngine.this::warm, new UUID[]{playerId}, () -> EconomyEngine.this.getBalanceMinor(playerId));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> depositMinor(UUID playerId, long amount, String reason) {
+            return asyncExecutor.submit(EconomyEngine.this::warm, new UUID[]{playerId}, () -> EconomyEngine.this.depositMinor(playerId, amount, reason));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> withdrawMinor(UUID playerId, long amount, String reason) {
+            return asyncExecutor.submit(EconomyEngine.this::warm, new UUID[]{playerId}, () -> EconomyEngine.this.withdrawMinor(playerId, amount, reason));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> transfer(UUID from, UUID to, long amount, String reason) {
+            return asyncExecutor.submit(EconomyEngine.this::warm, new UUID[]{from, to}, () -> EconomyEngine.this.transfer(from, to, amount, reason));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> applyBatch(List<BalanceOperation> operations) {
+            return applyBatch(operations, null);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> depositMinor(UUID playerId, long amount, String reason, UUID requestId) {
+            return asyncExecutor.submit(EconomyEngine.this::warm, new UUID[]{playerId},
+                    () -> EconomyEngine.this.depositMinor(playerId, amount, reason, requestId));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> withdrawMinor(UUID playerId, long amount, String reason, UUID requestId) {
+            return asyncExecutor.submit(EconomyEngine.this::warm, new UUID[]{playerId},
+                    () -> EconomyEngine.this.withdrawMinor(playerId, amount, reason, requestId));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> transfer(UUID from, UUID to, long amount, String reason, UUID requestId) {
+            return asyncExecutor.submit(EconomyEngine.this::warm, new UUID[]{from, to},
+                    () -> EconomyEngine.this.transfer(from, to, amount, reason, requestId));
+        }
+
+        @Override
+        public CompletableFuture<Boolean> applyBatch(List<BalanceOperation> operations, UUID requestId) {
+            List<BalanceOperation> copy = List.copyOf(operations);
+            if (copy.isEmpty()) {
+                return CompletableFuture.completedFuture(true);
+            }
+            UUID[] accounts = new UUID[copy.size()];
+            for (int i = 0; i < accounts.length; i++) {
+                accounts[i] = copy.get(i).playerId();
+            }
+            return asyncExecutor.submit(EconomyEngine.this::warm, accounts, () -> EconomyEngine.this.applyBatch(copy, requestId));
+        }
+    }
+
+    public interface MigrationListener {
+        void onProgress(int copied);
+
+        void onComplete(int copied, boolean mirrored);
+
+        void onFailure(String error);
+    }
+}
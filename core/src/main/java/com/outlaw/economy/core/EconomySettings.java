@@ -0,0 +1,83 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.anomaly.AnomalyRule;
+
+import java.io.File;
+import java.util.List;
+
+/**
+ * Everything the {@link EconomyEngine} reads from config.yml, so that it can be built without a
+ * server. Sizes are in bytes and balances in minor units.
+ */
+public record EconomySettings(
+        File dataFolder,
+        long startingBalance,
+        String currencyCode,
+        String backend,
+        int idleMinutes,
+        int maxCached,
+        int offlineCacheSize,
+        long journalSegmentBytes,
+        long checkpointBytes,
+        int ledgerRetentionDays,
+        int asyncThreads,
+        int idempotencyCapacity,
+        long idempotencyWindowMillis,
+        List<AnomalyRule> anomalyRules,
+        List<CurrencyDefinition> currencies) {
+
+    public static final long MEGABYTE = 1024L * 1024L;
+
+    public EconomySettings {
+        idleMinutes = Math.max(1, idleMinutes);
+        maxCached = Math.max(1, maxCached);
+        asyncThreads = Math.max(1, asyncThreads);
+        anomalyRules = List.copyOf(anomalyRules);
+        currencies = List.copyOf(currencies);
+    }
+
+    /**
+     * @return the defaults of the bundled config.yml, with no anomaly rule and no other currency
+     */
+    public static EconomySettings defaults(File dataFolder) {
+        return new EconomySettings(dataFolder, 0L, "$", "yaml", 5, 10_000, 1024,
+                16L * MEGABYTE, 64L * MEGABYTE, 90, 2, 65_536, 600_000L, List.of(), List.of());
+    }
+
+    public EconomySettings withBackend(String value) {
+        return new EconomySettings(dataFolder, startingBalance, currencyCode, value, idleMinutes, maxCached,
+                offlineCacheSize, journalSegmentBytes, checkpointBytes, ledgerRetentionDays, asyncThreads,
+                idempotencyCapacity, idempotencyWindowMillis, anomalyRules, currencies);
+    }
+
+    public EconomySettings withAnomalyRules(List<AnomalyRule> rules) {
+        return new EconomySettings(dataFolder, startingBalance, currencyCode, backend, idleMinutes, maxCached,
+                offlineCacheSize, journalSegmentBytes, checkpointBytes, ledgerRetentionDays, asyncThreads,
+                idempotencyCapacity, idempotencyWindowMillis, rules, currencies);
+    }
+
+    public EconomySettings withCurrencies(List<CurrencyDefinition> definitions) {
+        return new EconomySettings(dataFolder, startingBalance, currencyCode, backend, idleMinutes, maxCached,
+                offlineCacheSize, journalSegmentBytes, checkpointBytes, ledgerRetentionDays, asyncThreads,
+                idempotencyCapacity, idempotencyWindowMillis, anomalyRules, definitions);
+    }
+
+    /**
+     * The settings of another currency: the storage settings of this one, in its own folder, with no
+     * anomaly rule since the thresholds are amounts of the default currency.
+     */
+    EconomySettings forCurrency(CurrencyDefinition definition) {
+        return new EconomySettings(new File(new File(dataFolder, "currencies"), definition.name()),
+                definition.startingBalance(), definition.code(), backend, idleMinutes, maxCached,
+                offlineCacheSize, journalSegmentBytes, checkpointBytes, ledgerRetentionDays, asyncThreads,
+                idempotencyCapacity, idempotencyWindowMillis, List.of(), List.of());
+    }
+
+    /**
+     * A currency other than the default one, from the {@code currencies} section of config.yml.
+     *
+     * @param name lower case, also the name of its data folder
+     */
+    public record CurrencyDefinition(String name, String code, long startingBalance) {
+    }
+}
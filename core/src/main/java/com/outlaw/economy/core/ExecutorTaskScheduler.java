@@ -0,0 +1,52 @@
+package com.outlaw.economy.core;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link TaskScheduler} backed by a single daemon thread, which plays the part of the main thread
+ * when the engine runs without a server. A task that throws is logged and keeps running, as it
+ * would on a server.
+ */
+public class ExecutorTaskScheduler implements TaskScheduler {
+
+    private final ScheduledExecutorService executor;
+    private final Logger logger;
+
+    public ExecutorTaskScheduler(String threadName, Logger logger) {
+        this.logger = logger;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public Task repeat(Runnable task, long delayTicks, long periodTicks) {
+        ScheduledFuture<?> future = executor.scheduleAtFixedRate(() -> runLogged(task),
+                delayTicks * TICK_MILLIS, periodTicks * TICK_MILLIS, TimeUnit.MILLISECONDS);
+        return () -> future.cancel(false);
+    }
+
+    @Override
+    public void runSync(Runnable task) {
+        executor.execute(() -> runLogged(task));
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void runLogged(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Tâche planifiée en échec", e);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.api.IdempotencyCapacityException;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Remembers the result of recent operations by request id, so that an operation retried with the
+ * same id returns its first result instead of being applied twice. Ids are stored as two
+ * {@code long} halves in sets of {@link #WAYS} slots selected by the hash of the id, and a slot is
+ * only reused once its result is older than the window. When every slot of a set still holds a
+ * result within the window, the id goes to a victim area of {@link #VICTIMS} slots shared by the
+ * sets of its lock; when that is full too, the operation is refused with an
+ * {@link IdempotencyCapacityException} rather than forgetting a result early. Every slot is
+ * allocated by the constructor.
+ * <p>
+ * While an operation runs, its slot is marked pending: a retry arriving meanwhile waits for the
+ * result rather than running the operation a second time.
+ */
+public final class IdempotencyTable {
+
+    public static final int WAYS = 8;
+    public static final int VICTIMS = 64;
+
+    private static final byte EMPTY = 0;
+    private static final byte PENDING = 1;
+    private static final byte FAILED = 2;
+    private static final byte SUCCEEDED = 3;
+    private static final int LOCKS = 64;
+
+    private final long[] mostBits;
+    private final long[] leastBits;
+    private final long[] recordedAt;
+    private final byte[] states;
+    private final Object[] locks = new Object[LOCKS];
+    private final LongAdder overflowed = new LongAdder();
+    private final int setMask;
+    private final int victimBase;
+    private final long windowMillis;
+
+    /**
+     * @param capacity number of results kept, rounded down to a power of two of at least {@link #WAYS}
+     */
+    public IdempotencyTable(int capacity, long windowMillis) {
+        int sets = Integer.highestOneBit(Math.max(1, Math.min(capacity, 1 << 24) / WAYS));
+        int slots = sets * WAYS + LOCKS * VICTIMS;
+        this.setMask = sets - 1;
+        this.victimBase = sets * WAYS;
+        this.windowMillis = windowMillis;
+        this.mostBits = new long[slots];
+        this.leastBits = new long[slots];
+        this.recordedAt = new long[slots];
+        this.states = new byte[slots];
+        for (int i = 0; i < LOCKS; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    public int capacity() {
+        return victimBase;
+    }
+
+    /**
+     * @return how many operations were refused since the start because their id could not be
+     * remembered
+     */
+    public long overflowed() {
+        return overflowed.sum();
+    }
+
+    /**
+     * Runs {@code operation} unless a result is already recorded for {@code requestId}, in which
+     * case that result is returned. A {@code null} id runs the operation without recording it, and
+     * an operation that throws records nothing.
+     *
+     * @return {@code false} without running the operation if the thread is interrupted while
+     * waiting for a retry in progress
+     * @throws IdempotencyCapacityException without running the operation if neither the set of the
+     * id nor the victim area of its lock has a slot to spare
+     */
+    public boolean execute(UUID requestId, BooleanSupplier operation) {
+        if (requestId == null) {
+            return operation.getAsBoolean();
+        }
+        long most = requestId.getMostSignificantBits();
+        long least = requestId.getLeastSignificantBits();
+        int set = AccountTable.hash(most, least) & setMask;
+        int lockIndex = set & (LOCKS - 1);
+        int victims = victimBase + lockIndex * VICTIMS;
+        Object lock = locks[lockIndex];
+        int slot;
+        synchronized (lock) {
+            while (true) {
+                long now = System.currentTimeMillis();
+                slot = find(set * WAYS, WAYS, most, least, now);
+                if (slot < 0) {
+                    slot = find(victims, VICTIMS, most, least, now);
+                }
+                if (slot < 0) {
+                    slot = claim(set * WAYS, WAYS, most, least, now);
+                    if (slot < 0) {
+                        slot = claim(victims, VICTIMS, most, least, now);
+                    }
+                    if (slot < 0) {
+                        overflowed.increment();
+                        throw new IdempotencyCapacityException("Trop d'opérations récentes pour mémoriser " + requestId);
+                    }
+                    break;
+                }
+                if (states[slot] != PENDING) {
+                    return states[slot] == SUCCEEDED;
+                }
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        boolean result;
+        try {
+            result = operation.getAsBoolean();
+        } catch (RuntimeException | Error e) {
+            complete(lock, slot, EMPTY);
+            throw e;
+        }
+        complete(lock, slot, result ? SUCCEEDED : FAILED);
+        return result;
+    }
+
+    private int find(int base, int length, long most, long least, long now) {
+        for (int slot = base; slot < base + length; slot++) {
+            if (states[slot] != EMPTY && mostBits[slot] == most && leastBits[slot] == least
+                    && (states[slot] == PENDING || now - recordedAt[slot] <= windowMillis)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Takes a free slot of the range, or one whose result is older than the window.
+     *
+     * @return the slot, or {@code -1} if every slot of the range is pending or within the window
+     */
+    private int claim(int base, int length, long most, long least, long now) {
+        for (int slot = base; slot < base + length; slot++) {
+            if (states[slot] == EMPTY || states[slot] != PENDING && now - recordedAt[slot] > windowMillis) {
+                mostBits[slot] = most;
+                leastBits[slot] = least;
+                recordedAt[slot] = now;
+                states[slot] = PENDING;
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void complete(Object lock, int slot, byte state) {
+        synchronized (lock) {
+            states[slot] = state;
+            recordedAt[slot] = System.currentTimeMillis();
+            lock.notifyAll();
+        }
+    }
+}
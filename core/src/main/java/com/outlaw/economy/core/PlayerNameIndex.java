@@ -0,0 +1,201 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.storage.PersistenceScheduler;
+import com.outlaw.economy.storage.YamlMaps;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Last known name of every account, kept by the plugin so that commands and Vault resolve names
+ * without asking the server for a profile. Names are matched case-insensitively through a trie,
+ * which also serves prefix completion; a name taken over by another player moves to that player.
+ */
+public class PlayerNameIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<UUID, String> names = new HashMap<>();
+    private final Node root = new Node();
+
+    public void load(File file) throws IOException {
+        Map<String, Object> entries = YamlMaps.load(file);
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                if (entry.getValue() == null || entry.getValue().toString().isBlank()) {
+                    continue;
+                }
+                try {
+                    put(UUID.fromString(entry.getKey()), entry.getValue().toString());
+                } catch (IllegalArgumentException ignored) {
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} if the index changed
+     */
+    public boolean update(UUID playerId, String name) {
+        if (name == null || name.isBlank()) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (name.equals(names.get(playerId))) {
+                return false;
+            }
+            put(playerId, name);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the account with this name, ignoring case, or {@code null}
+     */
+    public UUID resolve(String name) {
+        lock.readLock().lock();
+        try {
+            Node node = find(name.toLowerCase(Locale.ROOT));
+            return node == null ? null : node.playerId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String nameOf(UUID playerId) {
+        lock.readLock().lock();
+        try {
+            return names.get(playerId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return up to {@code limit} names starting with {@code prefix}, ignoring case, in
+     * alphabetical order
+     */
+    public List<String> complete(String prefix, int limit) {
+        lock.readLock().lock();
+        try {
+            List<String> matches = new ArrayList<>();
+            Node start = find(prefix.toLowerCase(Locale.ROOT));
+            if (start == null || limit <= 0) {
+                return matches;
+            }
+            Deque<Node> stack = new ArrayDeque<>();
+            stack.push(start);
+            while (!stack.isEmpty() && matches.size() < limit) {
+                Node node = stack.pop();
+                if (node.playerId != null) {
+                    matches.add(names.get(node.playerId));
+                }
+                for (int i = node.size - 1; i >= 0; i--) {
+                    stack.push(node.children[i]);
+                }
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return names.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public PersistenceScheduler.Snapshot snapshot() {
+        Map<UUID, String> copy;
+        lock.readLock().lock();
+        try {
+            copy = new HashMap<>(names);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return () -> {
+            StringBuilder builder = new StringBuilder(copy.size() * 58);
+            for (Map.Entry<UUID, String> entry : copy.entrySet()) {
+                builder.append(entry.getKey()).append(": '")
+                        .append(entry.getValue().replace("'", "''")).append("'\n");
+            }
+            return builder.toString();
+        };
+    }
+
+    private void put(UUID playerId, String name) {
+        String previous = names.put(playerId, name);
+        if (previous != null) {
+            Node node = find(previous.toLowerCase(Locale.ROOT));
+            if (node != null && playerId.equals(node.playerId)) {
+                node.playerId = null;
+            }
+        }
+        Node node = root;
+        String key = name.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < key.length(); i++) {
+            node = node.child(key.charAt(i), true);
+        }
+        if (node.playerId != null && !node.playerId.equals(playerId)) {
+            names.remove(node.playerId);
+        }
+        node.playerId = playerId;
+    }
+
+    private Node find(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i), false);
+        }
+        return node;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int size;
+        private UUID playerId;
+
+        private Node child(char key, boolean create) {
+            int index = Arrays.binarySearch(keys, 0, size, key);
+            if (index >= 0) {
+                return children[index];
+            }
+            if (!create) {
+                return null;
+            }
+            int insertion = -index - 1;
+            if (size == keys.length) {
+                int capacity = Math.max(2, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            System.arraycopy(keys, insertion, keys, insertion + 1, size - insertion);
+            System.arraycopy(children, insertion, children, insertion + 1, size - insertion);
+            Node created = new Node();
+            keys[insertion] = key;
+            children[insertion] = created;
+            size++;
+            return created;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.outlaw.economy.core;
+
+/**
+ * Runs the engine's periodic tasks on whatever thread owns the game state: the main thread on a
+ * server, a single scheduler thread when the engine runs headless. Delays are in ticks of 50 ms.
+ */
+public interface TaskScheduler {
+
+    long TICK_MILLIS = 50L;
+
+    Task repeat(Runnable task, long delayTicks, long periodTicks);
+
+    /**
+     * Runs a task on the owning thread as soon as possible.
+     */
+    void runSync(Runnable task);
+
+    @FunctionalInterface
+    interface Task {
+        void cancel();
+    }
+}
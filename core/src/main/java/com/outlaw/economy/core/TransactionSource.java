@@ -0,0 +1,69 @@
+package com.outlaw.economy.core;
+
+import java.util.Locale;
+
+public enum TransactionSource {
+    UNKNOWN((byte) 0),
+    ACCOUNT_CREATED((byte) 1),
+    ADMIN((byte) 2),
+    PAYMENT((byte) 3),
+    TRADE((byte) 4),
+    SHOP_BUY((byte) 5),
+    SHOP_SELL((byte) 6),
+    GENERAL_STORE((byte) 7),
+    VAULT((byte) 8);
+
+    private static final TransactionSource[] BY_CODE = new TransactionSource[values().length];
+
+    static {
+        for (TransactionSource source : values()) {
+            BY_CODE[source.code] = source;
+        }
+    }
+
+    private final byte code;
+
+    TransactionSource(byte code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    public static TransactionSource fromCode(byte code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            return UNKNOWN;
+        }
+        return BY_CODE[code];
+    }
+
+    public static TransactionSource fromReason(String reason) {
+        if (reason == null || reason.isBlank()) {
+            return UNKNOWN;
+        }
+        String lower = reason.toLowerCase(Locale.ROOT);
+        if (lower.startsWith("shop purchase")) {
+            return SHOP_BUY;
+        }
+        if (lower.startsWith("shop sell")) {
+            return SHOP_SELL;
+        }
+        if (lower.startsWith("player shop")) {
+            return GENERAL_STORE;
+        }
+        if (lower.startsWith("trade")) {
+            return TRADE;
+        }
+        if (lower.startsWith("pay")) {
+            return PAYMENT;
+        }
+        if (lower.startsWith("vault")) {
+            return VAULT;
+        }
+        if (lower.startsWith("admin")) {
+            return ADMIN;
+        }
+        return UNKNOWN;
+    }
+}
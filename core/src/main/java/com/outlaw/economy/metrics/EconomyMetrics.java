@@ -0,0 +1,232 @@
+package com.outlaw.economy.metrics;
+
+import com.outlaw.economy.core.TaskScheduler;
+import com.outlaw.economy.core.TransactionSource;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Money created and destroyed, transaction count and volume by source, kept incrementally from
+ * every balance operation; a transfer counts once. {@link #record} only adds to striped counters;
+ * once a minute is over, a scheduled task moves it into a ring of the last 60 minutes and folds it
+ * into the current hour, which ends up the same way in a ring of 24 hours and then of 30 days.
+ * Periods follow the server's time zone.
+ */
+public class EconomyMetrics {
+
+    private static final int SOURCES = TransactionSource.values().length;
+
+    private final TaskScheduler scheduler;
+    private final LongSupplier supply;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder destroyed = new LongAdder();
+    private final LongAdder[] counts = new LongAdder[SOURCES];
+    private final LongAdder[] volumes = new LongAdder[SOURCES];
+    private final Ring[] rings = new Ring[Resolution.values().length];
+    private final MetricsBucket[] open = new MetricsBucket[Resolution.values().length];
+    private TaskScheduler.Task tickTask;
+
+    /**
+     * @param supply current money supply, or {@code -1} while it is unknown
+     */
+    public EconomyMetrics(TaskScheduler scheduler, LongSupplier supply) {
+        this.scheduler = scheduler;
+        this.supply = supply;
+        for (int i = 0; i < SOURCES; i++) {
+            counts[i] = new LongAdder();
+            volumes[i] = new LongAdder();
+        }
+        long now = System.currentTimeMillis();
+        for (Resolution resolution : Resolution.values()) {
+            rings[resolution.ordinal()] = new Ring(resolution.capacity);
+            open[resolution.ordinal()] = new MetricsBucket(periodStart(now, resolution));
+        }
+    }
+
+    public void start() {
+        tickTask = scheduler.repeat(() -> tick(System.currentTimeMillis()), 20L, 20L);
+    }
+
+    public void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+    }
+
+    public void record(long delta, TransactionSource source) {
+        int index = source.ordinal();
+        counts[index].increment();
+        volumes[index].add(Math.abs(delta));
+        if (isTransfer(source)) {
+            return;
+        }
+        if (delta > 0) {
+            created.add(delta);
+        } else {
+            destroyed.add(-delta);
+        }
+    }
+
+    /**
+     * Records a batch that only moves money between accounts as a single transaction, under the
+     * source of its first withdrawal and with the amount withdrawn as volume. Any other batch is
+     * recorded leg by leg.
+     */
+    public void recordBatch(long[] deltas, TransactionSource[] sources) {
+        long net = 0;
+        long moved = 0;
+        TransactionSource source = null;
+        for (int i = 0; i < deltas.length; i++) {
+            net += deltas[i];
+            if (deltas[i] < 0) {
+                moved -= deltas[i];
+                if (source == null) {
+                    source = sources[i];
+                }
+            }
+        }
+        if (net != 0 || source == null) {
+            for (int i = 0; i < deltas.length; i++) {
+                record(deltas[i], sources[i]);
+            }
+            return;
+        }
+        counts[source.ordinal()].increment();
+        volumes[source.ordinal()].add(moved);
+    }
+
+    /**
+     * @return the period in progress, including the finer periods not folded into it yet
+     */
+    public synchronized MetricsBucket current(Resolution resolution) {
+        MetricsBucket current = new MetricsBucket(open[Resolution.MINUTE.ordinal()].getStart());
+        long[] countSnapshot = new long[SOURCES];
+        long[] volumeSnapshot = new long[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            countSnapshot[i] = counts[i].sum();
+            volumeSnapshot[i] = volumes[i].sum();
+        }
+        current.add(created.sum(), destroyed.sum(), countSnapshot, volumeSnapshot);
+        current.setSupply(supply.getAsLong());
+        for (int i = Resolution.MINUTE.ordinal() + 1; i <= resolution.ordinal(); i++) {
+            MetricsBucket coarser = open[i].copy();
+            coarser.add(current);
+            current = coarser;
+        }
+        return current;
+    }
+
+    /**
+     * @return the period in progress followed by up to {@code count - 1} completed ones, newest
+     * first
+     */
+    public synchronized List<MetricsBucket> series(Resolution resolution, int count) {
+        List<MetricsBucket> series = new ArrayList<>(count);
+        if (count <= 0) {
+            return series;
+        }
+        series.add(current(resolution));
+        rings[resolution.ordinal()].newest(count - 1, series);
+        return series;
+    }
+
+    /**
+     * @return the totals over every period kept at this resolution plus the one in progress
+     */
+    public synchronized MetricsBucket window(Resolution resolution) {
+        List<MetricsBucket> series = series(resolution, resolution.capacity + 1);
+        MetricsBucket total = new MetricsBucket(series.get(series.size() - 1).getStart());
+        for (int i = series.size() - 1; i >= 0; i--) {
+            total.add(series.get(i));
+        }
+        return total;
+    }
+
+    synchronized void tick(long now) {
+        MetricsBucket minute = open[Resolution.MINUTE.ordinal()];
+        if (periodStart(now, Resolution.MINUTE) == minute.getStart()) {
+            return;
+        }
+        long[] countSnapshot = new long[SOURCES];
+        long[] volumeSnapshot = new long[SOURCES];
+        for (int i = 0; i < SOURCES; i++) {
+            countSnapshot[i] = counts[i].sumThenReset();
+            volumeSnapshot[i] = volumes[i].sumThenReset();
+        }
+        minute.add(created.sumThenReset(), destroyed.sumThenReset(), countSnapshot, volumeSnapshot);
+        minute.setSupply(supply.getAsLong());
+        close(Resolution.MINUTE, now);
+    }
+
+    private void close(Resolution resolution, long now) {
+        int index = resolution.ordinal();
+        MetricsBucket closed = open[index];
+        rings[index].add(closed);
+        open[index] = new MetricsBucket(periodStart(now, resolution));
+        if (index + 1 >= open.length) {
+            return;
+        }
+        Resolution coarser = Resolution.values()[index + 1];
+        open[index + 1].add(closed);
+        if (periodStart(now, coarser) != open[index + 1].getStart()) {
+            close(coarser, now);
+        }
+    }
+
+    private long periodStart(long now, Resolution resolution) {
+        long offset = zone.getRules().getOffset(Instant.ofEpochMilli(now)).getTotalSeconds() * 1000L;
+        return Math.floorDiv(now + offset, resolution.millis) * resolution.millis - offset;
+    }
+
+    private static boolean isTransfer(TransactionSource source) {
+        return source == TransactionSource.PAYMENT || source == TransactionSource.TRADE
+                || source == TransactionSource.GENERAL_STORE;
+    }
+
+    public enum Resolution {
+        MINUTE(60_000L, 60),
+        HOUR(3_600_000L, 24),
+        DAY(86_400_000L, 30);
+
+        private final long millis;
+        private final int capacity;
+
+        Resolution(long millis, int capacity) {
+            this.millis = millis;
+            this.capacity = capacity;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+    }
+
+    private static final class Ring {
+        private final MetricsBucket[] slots;
+        private int next;
+        private int size;
+
+        private Ring(int capacity) {
+            this.slots = new MetricsBucket[capacity];
+        }
+
+        private void add(MetricsBucket bucket) {
+            slots[next] = bucket;
+            next = (next + 1) % slots.length;
+            size = Math.min(size + 1, slots.length);
+        }
+
+        private void newest(int count, List<MetricsBucket> target) {
+            for (int i = 1; i <= Math.min(count, size); i++) {
+                target.add(slots[(next - i + slots.length) % slots.length].copy());
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.outlaw.economy.metrics;
+
+/**
+ * Code paths timed by {@link PerformanceMonitor}, each with its own histogram.
+ */
+public enum HotPath {
+    DEPOSIT("deposit"),
+    WITHDRAW("withdraw"),
+    SAVE_ALL("saveAll"),
+    CHECKPOINT_WRITE("checkpointWrite"),
+    SHOP_CLICK("shopInventoryClick"),
+    OPEN_OFFERS("openOffersInventory"),
+    OPEN_GENERAL_STORE("openGeneralStore"),
+    UPDATE_SHOP_NAMES("updateShopNameVisibility"),
+    FINALIZE_TRADE("finalizeTrade"),
+    ASYNC_BATCH("asyncBatch");
+
+    private final String displayName;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    HotPath(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+
+    public LatencyHistogram getHistogram() {
+        return histogram;
+    }
+}
@@ -0,0 +1,19 @@
+package com.outlaw.economy.metrics;
+
+/**
+ * JMX view of one {@link HotPath}, registered as
+ * {@code com.outlaw.economy:type=Performance,path=<name>}.
+ */
+public interface HotPathMXBean {
+    long getCount();
+
+    double getRatePerSecond();
+
+    double getMeanMicros();
+
+    double getP50Micros();
+
+    double getP99Micros();
+
+    double getMaxMicros();
+}
@@ -0,0 +1,93 @@
+package com.outlaw.economy.metrics;
+
+import com.outlaw.economy.core.TransactionSource;
+
+/**
+ * Aggregated balance changes over one period, in minor units. Money moved between players
+ * counts in the volume but is neither created nor destroyed.
+ */
+public final class MetricsBucket {
+
+    private static final int SOURCES = TransactionSource.values().length;
+
+    private final long start;
+    private long supply = -1L;
+    private long created;
+    private long destroyed;
+    private final long[] counts = new long[SOURCES];
+    private final long[] volumes = new long[SOURCES];
+
+    MetricsBucket(long start) {
+        this.start = start;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    /**
+     * @return the money supply at the end of the period, or {@code -1} if it was not known yet
+     */
+    public long getSupply() {
+        return supply;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getDestroyed() {
+        return destroyed;
+    }
+
+    public long getCount(TransactionSource source) {
+        return counts[source.ordinal()];
+    }
+
+    public long getVolume(TransactionSource source) {
+        return volumes[source.ordinal()];
+    }
+
+    public long getTransactions() {
+        long total = 0L;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    public long getTotalVolume() {
+        long total = 0L;
+        for (long volume : volumes) {
+            total += volume;
+        }
+        return total;
+    }
+
+    void setSupply(long supply) {
+        this.supply = supply;
+    }
+
+    void add(long created, long destroyed, long[] counts, long[] volumes) {
+        this.created += created;
+        this.destroyed += destroyed;
+        for (int i = 0; i < SOURCES; i++) {
+            this.counts[i] += counts[i];
+            this.volumes[i] += volumes[i];
+        }
+    }
+
+    void add(MetricsBucket other) {
+        add(other.created, other.destroyed, other.counts, other.volumes);
+        if (other.supply >= 0) {
+            supply = other.supply;
+        }
+    }
+
+    MetricsBucket copy() {
+        MetricsBucket copy = new MetricsBucket(start);
+        copy.add(this);
+        copy.supply = supply;
+        return copy;
+    }
+}
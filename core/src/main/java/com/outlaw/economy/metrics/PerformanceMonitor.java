@@ -0,0 +1,166 @@
+package com.outlaw.economy.metrics;
+
+import com.outlaw.economy.core.TaskScheduler;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Times the {@link HotPath}s. Callers wrap the code with {@link #start()} and
+ * {@link #stop(HotPath, long)}; while the monitor is off, {@code start} is a single volatile read
+ * and {@code stop} does nothing. Rates are taken over the last minute from a count sampled every
+ * second, and everything is also published over JMX.
+ */
+public class PerformanceMonitor implements PerformanceMonitorMXBean {
+
+    private static final String DOMAIN = "com.outlaw.economy";
+    private static final int RATE_WINDOW_SECONDS = 60;
+    private static volatile boolean enabled;
+
+    private final TaskScheduler scheduler;
+    private final Logger logger;
+    private final long[][] samples = new long[HotPath.values().length][RATE_WINDOW_SECONDS + 1];
+    private final List<ObjectName> registered = new ArrayList<>();
+    private int cursor;
+    private int filled;
+    private TaskScheduler.Task sampleTask;
+
+    public PerformanceMonitor(TaskScheduler scheduler, Logger logger) {
+        this.scheduler = scheduler;
+        this.logger = logger;
+    }
+
+    public static long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public static void stop(HotPath path, long start) {
+        if (start != 0L) {
+            path.getHistogram().record(System.nanoTime() - start);
+        }
+    }
+
+    public void start(boolean initiallyEnabled) {
+        enabled = initiallyEnabled;
+        sampleTask = scheduler.repeat(this::sample, 20L, 20L);
+        registerMBeans();
+    }
+
+    public void shutdown() {
+        enabled = false;
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (ObjectName name : registered) {
+            try {
+                server.unregisterMBean(name);
+            } catch (JMException ignored) {
+            }
+        }
+        registered.clear();
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean value) {
+        enabled = value;
+    }
+
+    @Override
+    public synchronized void reset() {
+        for (HotPath path : HotPath.values()) {
+            path.getHistogram().reset();
+        }
+        filled = 0;
+    }
+
+    /**
+     * @return calls per second over the last minute, or since the last reset if more recent
+     */
+    public synchronized double rate(HotPath path) {
+        if (filled < 2) {
+            return 0d;
+        }
+        long[] counts = samples[path.ordinal()];
+        int newest = (cursor - 1 + counts.length) % counts.length;
+        int oldest = (cursor - filled + counts.length) % counts.length;
+        return (double) (counts[newest] - counts[oldest]) / (filled - 1);
+    }
+
+    private synchronized void sample() {
+        for (HotPath path : HotPath.values()) {
+            samples[path.ordinal()][cursor] = path.getHistogram().count();
+        }
+        cursor = (cursor + 1) % (RATE_WINDOW_SECONDS + 1);
+        filled = Math.min(filled + 1, RATE_WINDOW_SECONDS + 1);
+    }
+
+    private void registerMBeans() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            register(server, new ObjectName(DOMAIN + ":type=Performance"), this);
+            for (HotPath path : HotPath.values()) {
+                register(server, new ObjectName(DOMAIN + ":type=Performance,path=" + path.getDisplayName()), new PathView(path));
+            }
+        } catch (JMException e) {
+            logger.warning("Impossible d'exposer les mesures de performance via JMX: " + e.getMessage());
+        }
+    }
+
+    private void register(MBeanServer server, ObjectName name, Object bean) throws JMException {
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+        server.registerMBean(bean, name);
+        registered.add(name);
+    }
+
+    private final class PathView implements HotPathMXBean {
+        private final HotPath path;
+
+        private PathView(HotPath path) {
+            this.path = path;
+        }
+
+        @Override
+        public long getCount() {
+            return path.getHistogram().count();
+        }
+
+        @Override
+        public double getRatePerSecond() {
+            return rate(path);
+        }
+
+        @Override
+        public double getMeanMicros() {
+            return path.getHistogram().snapshot().mean() / 1000d;
+        }
+
+        @Override
+        public double getP50Micros() {
+            return path.getHistogram().snapshot().percentile(0.5) / 1000d;
+        }
+
+        @Override
+        public double getP99Micros() {
+            return path.getHistogram().snapshot().percentile(0.99) / 1000d;
+        }
+
+        @Override
+        public double getMaxMicros() {
+            return path.getHistogram().snapshot().max() / 1000d;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.outlaw.economy.metrics;
+
+/**
+ * JMX switch of the instrumentation, registered as {@code com.outlaw.economy:type=Performance}.
+ */
+public interface PerformanceMonitorMXBean {
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    void reset();
+}
@@ -0,0 +1,192 @@
+package com.outlaw.economy.shop;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+
+/**
+ * General store listings in the order they were put up, with the page of any position found in
+ * logarithmic time. Listings sit in an array where a removal leaves a hole, and a Fenwick tree
+ * over the occupied slots finds the slot of the n-th listing; the array is compacted once holes
+ * outnumber listings. Not thread-safe: the store is only used on the main thread.
+ */
+public class GeneralStoreIndex<T> implements Iterable<T> {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MIN_HOLES_BEFORE_COMPACT = 64;
+
+    private final Map<UUID, Integer> slots = new HashMap<>();
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int[] tree = new int[INITIAL_CAPACITY + 1];
+    private int length;
+
+    public int size() {
+        return slots.size();
+    }
+
+    public boolean isEmpty() {
+        return slots.isEmpty();
+    }
+
+    public T get(UUID id) {
+        Integer slot = slots.get(id);
+        return slot == null ? null : valueAt(slot);
+    }
+
+    /**
+     * Adds a listing at the end, or replaces it where it stands if the id is already listed.
+     */
+    public void put(UUID id, T value) {
+        Integer slot = slots.get(id);
+        if (slot != null) {
+            values[slot] = value;
+            return;
+        }
+        if (length == values.length) {
+            resize(values.length * 2);
+        }
+        ids[length] = id;
+        values[length] = value;
+        slots.put(id, length);
+        add(length + 1, 1);
+        length++;
+    }
+
+    public T remove(UUID id) {
+        Integer slot = slots.remove(id);
+        if (slot == null) {
+            return null;
+        }
+        T removed = valueAt(slot);
+        ids[slot] = null;
+        values[slot] = null;
+        add(slot + 1, -1);
+        int holes = length - slots.size();
+        if (holes > MIN_HOLES_BEFORE_COMPACT && holes > slots.size()) {
+            resize(values.length);
+        }
+        return removed;
+    }
+
+    public void clear() {
+        slots.clear();
+        ids = new UUID[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        tree = new int[INITIAL_CAPACITY + 1];
+        length = 0;
+    }
+
+    /**
+     * @return up to {@code limit} listings starting at the {@code offset}-th, in listing order
+     */
+    public List<T> page(int offset, int limit) {
+        if (offset < 0 || offset >= slots.size() || limit <= 0) {
+            return List.of();
+        }
+        List<T> page = new ArrayList<>(Math.min(limit, slots.size() - offset));
+        for (int slot = slotOf(offset); slot < length && page.size() < limit; slot++) {
+            if (ids[slot] != null) {
+                page.add(valueAt(slot));
+            }
+        }
+        return page;
+    }
+
+    public int pageCount(int pageSize) {
+        return Math.max(1, (slots.size() + pageSize - 1) / pageSize);
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<>() {
+            private int slot = skipHoles(0);
+
+            @Override
+            public boolean hasNext() {
+                return slot < length;
+            }
+
+            @Override
+            public T next() {
+                if (slot >= length) {
+                    throw new NoSuchElementException();
+                }
+                T value = valueAt(slot);
+                slot = skipHoles(slot + 1);
+                return value;
+            }
+        };
+    }
+
+    private int skipHoles(int slot) {
+        while (slot < length && ids[slot] == null) {
+            slot++;
+        }
+        return slot;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T valueAt(int slot) {
+        return (T) values[slot];
+    }
+
+    /**
+     * @return the slot holding the listing at {@code index}, found by descending the tree
+     */
+    private int slotOf(int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(values.length); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next <= values.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+
+    private void add(int position, int delta) {
+        for (int i = position; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Moves the listings to the front of arrays of the given capacity, or of twice the number of
+     * listings if that is larger, and rebuilds the tree in linear time.
+     */
+    private void resize(int capacity) {
+        int newCapacity = Math.max(INITIAL_CAPACITY, Math.max(capacity, slots.size() * 2));
+        UUID[] newIds = new UUID[newCapacity];
+        Object[] newValues = new Object[newCapacity];
+        int count = 0;
+        for (int slot = 0; slot < length; slot++) {
+            if (ids[slot] != null) {
+                newIds[count] = ids[slot];
+                newValues[count] = values[slot];
+                slots.put(ids[slot], count);
+                count++;
+            }
+        }
+        int[] newTree = new int[newCapacity + 1];
+        for (int i = 1; i <= newCapacity; i++) {
+            if (i <= count) {
+                newTree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= newCapacity) {
+                newTree[parent] += newTree[i];
+            }
+        }
+        ids = newIds;
+        values = newValues;
+        tree = newTree;
+        length = count;
+    }
+}
@@ -0,0 +1,146 @@
+package com.outlaw.economy.shop;
+
+import com.outlaw.economy.api.Money;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Buy and sell multipliers of the shop templates, keyed by template key ignoring case, applied to
+ * the base prices of their offers. A template without an entry sells at its base prices.
+ */
+public class ShopPricing {
+
+    private final Map<String, Multiplier> multipliers = new HashMap<>();
+
+    /**
+     * Reads a price from a YAML value in major units.
+     *
+     * @return the price in minor units, or {@code 0} if the value is missing or not a number
+     */
+    public static long parsePrice(Object value) {
+        try {
+            if (value instanceof Number number) {
+                return Money.ofMajor(number.doubleValue());
+            }
+            return value != null ? Money.ofMajor(Double.parseDouble(value.toString())) : 0L;
+        } catch (NumberFormatException | ArithmeticException ex) {
+            return 0L;
+        }
+    }
+
+    public Multiplier get(String templateKey) {
+        if (templateKey == null) {
+            return Multiplier.DEFAULT;
+        }
+        return multipliers.getOrDefault(normalize(templateKey), Multiplier.DEFAULT);
+    }
+
+    public long buyPrice(String templateKey, long basePrice) {
+        return apply(basePrice, get(templateKey).buy());
+    }
+
+    public long sellPrice(String templateKey, long basePrice) {
+        return apply(basePrice, get(templateKey).sell());
+    }
+
+    public void set(String templateKey, double buy, double sell) {
+        put(normalize(templateKey), new Multiplier(buy, sell));
+    }
+
+    public void setBuy(String templateKey, double buy) {
+        String normalized = normalize(templateKey);
+        put(normalized, multipliers.getOrDefault(normalized, Multiplier.DEFAULT).withBuy(buy));
+    }
+
+    public void setSell(String templateKey, double sell) {
+        String normalized = normalize(templateKey);
+        put(normalized, multipliers.getOrDefault(normalized, Multiplier.DEFAULT).withSell(sell));
+    }
+
+    /**
+     * @return {@code true} if the template had a multiplier
+     */
+    public boolean reset(String templateKey) {
+        return multipliers.remove(normalize(templateKey)) != null;
+    }
+
+    /**
+     * @return {@code true} if a reset multiplier was not already the default
+     */
+    public boolean reset(String templateKey, boolean resetBuy, boolean resetSell) {
+        if (!resetBuy && !resetSell) {
+            return false;
+        }
+        String normalized = normalize(templateKey);
+        Multiplier current = multipliers.get(normalized);
+        if (current == null) {
+            return false;
+        }
+        double buy = current.buy();
+        double sell = current.sell();
+        boolean changed = false;
+        if (resetBuy && Math.abs(buy - 1.0) > Multiplier.EPSILON) {
+            buy = 1.0;
+            changed = true;
+        }
+        if (resetSell && Math.abs(sell - 1.0) > Multiplier.EPSILON) {
+            sell = 1.0;
+            changed = true;
+        }
+        if (!changed) {
+            return false;
+        }
+        put(normalized, new Multiplier(buy, sell));
+        return true;
+    }
+
+    public void clear() {
+        multipliers.clear();
+    }
+
+    /**
+     * @return the multipliers that differ from the default, by normalized template key
+     */
+    public Map<String, Multiplier> getMultipliers() {
+        return Collections.unmodifiableMap(multipliers);
+    }
+
+    private void put(String normalized, Multiplier multiplier) {
+        if (multiplier.isDefault()) {
+            multipliers.remove(normalized);
+        } else {
+            multipliers.put(normalized, multiplier);
+        }
+    }
+
+    private static long apply(long basePrice, double multiplier) {
+        if (basePrice == 0) {
+            return 0;
+        }
+        return Money.multiply(basePrice, multiplier);
+    }
+
+    private static String normalize(String templateKey) {
+        return templateKey.toLowerCase(Locale.ROOT);
+    }
+
+    public record Multiplier(double buy, double sell) {
+        public static final Multiplier DEFAULT = new Multiplier(1.0, 1.0);
+        static final double EPSILON = 1.0E-6;
+
+        public boolean isDefault() {
+            return Math.abs(buy - 1.0) < EPSILON && Math.abs(sell - 1.0) < EPSILON;
+        }
+
+        Multiplier withBuy(double newBuy) {
+            return new Multiplier(newBuy, sell);
+        }
+
+        Multiplier withSell(double newSell) {
+            return new Multiplier(buy, newSell);
+        }
+    }
+}
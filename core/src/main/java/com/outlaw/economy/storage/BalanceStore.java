@@ -0,0 +1,32 @@
+package com.outlaw.economy.storage;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Durable home of every account balance, in minor units. Only accounts in use are kept in memory;
+ * everything else is read from here on demand, from the I/O thread as well as from callers
+ * resolving offline accounts, so implementations must be thread-safe.
+ */
+public interface BalanceStore extends Closeable {
+
+    OptionalLong load(UUID playerId) throws IOException;
+
+    void store(Map<UUID, Long> balances) throws IOException;
+
+    void forEach(BalanceConsumer consumer) throws IOException;
+
+    boolean isEmpty();
+
+    @Override
+    default void close() throws IOException {
+    }
+
+    @FunctionalInterface
+    interface BalanceConsumer {
+        void accept(UUID playerId, long balance);
+    }
+}
@@ -0,0 +1,74 @@
+package com.outlaw.economy.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+public final class BalanceStores {
+
+    public static final List<String> TYPES = List.of("yaml", "sqlite", "h2", "mmap");
+    private static final int MIGRATION_CHUNK = 1000;
+
+    private BalanceStores() {
+    }
+
+    public static String normalize(String type) {
+        String normalized = type.toLowerCase(Locale.ROOT);
+        if (!TYPES.contains(normalized)) {
+            throw new IllegalArgumentException("Stockage inconnu: " + type);
+        }
+        return normalized;
+    }
+
+    public static BalanceStore open(String type, File dataFolder) throws IOException {
+        return switch (normalize(type)) {
+            case "sqlite" -> new SqliteBalanceStore(new File(dataFolder, "balances.db"));
+            case "h2" -> new H2BalanceStore(new File(dataFolder, "balances-h2"));
+            case "mmap" -> new MappedBalanceStore(new File(dataFolder, "balances.dat"));
+            default -> new YamlBalanceStore(new File(dataFolder, "accounts"));
+        };
+    }
+
+    /**
+     * Copies every account of {@code source} into {@code target}, in chunks, reporting the running
+     * count after each chunk.
+     *
+     * @return the number of accounts copied
+     */
+    public static int migrate(BalanceStore source, BalanceStore target, IntConsumer progress) throws IOException {
+        Map<UUID, Long> chunk = new HashMap<>(MIGRATION_CHUNK * 2);
+        int[] copied = {0};
+        IOException[] failure = {null};
+        source.forEach((playerId, balance) -> {
+            if (failure[0] != null) {
+                return;
+            }
+            chunk.put(playerId, balance);
+            if (chunk.size() == MIGRATION_CHUNK) {
+                try {
+                    target.store(chunk);
+                } catch (IOException e) {
+                    failure[0] = e;
+                    return;
+                }
+                copied[0] += chunk.size();
+                chunk.clear();
+                progress.accept(copied[0]);
+            }
+        });
+        if (failure[0] != null) {
+            throw failure[0];
+        }
+        if (!chunk.isEmpty()) {
+            target.store(chunk);
+            copied[0] += chunk.size();
+            progress.accept(copied[0]);
+        }
+        return copied[0];
+    }
+}
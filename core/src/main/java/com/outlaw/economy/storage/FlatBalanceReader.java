@@ -0,0 +1,235 @@
+package com.outlaw.economy.storage;
+
+import com.outlaw.economy.api.Money;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the flat {@code uuid: balance} YAML used for balances without building a YAML node tree.
+ * Large files are mapped and split into newline-aligned byte ranges parsed in parallel on the
+ * common fork-join pool, so the consumer must then be thread-safe. Anything other than a
+ * top-level mapping of UUIDs to numbers makes the read fail, and the caller falls back to a full
+ * YAML parse; entries already delivered must then be discarded.
+ */
+public final class FlatBalanceReader {
+
+    private static final int SPLIT_THRESHOLD = 1 << 20;
+    private static final int MAX_FAST_DIGITS = 15;
+
+    private FlatBalanceReader() {
+    }
+
+    /**
+     * @return {@code false} if the file is not in the flat format
+     */
+    public static boolean read(File file, BalanceStore.BalanceConsumer consumer) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long length = channel.size();
+            if (length > Integer.MAX_VALUE) {
+                return false;
+            }
+            ByteBuffer data;
+            if (length < SPLIT_THRESHOLD) {
+                data = ByteBuffer.allocate((int) length);
+                while (data.hasRemaining() && channel.read(data) >= 0) {
+                }
+                data.flip();
+            } else {
+                data = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+            RangeTask task = new RangeTask(data, 0, data.limit(), consumer, new AtomicBoolean());
+            return data.limit() < SPLIT_THRESHOLD ? task.compute() : ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    private static final class RangeTask extends RecursiveTask<Boolean> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ByteBuffer data;
+        private final int start;
+        private final int end;
+        private final BalanceStore.BalanceConsumer consumer;
+        private final AtomicBoolean failed;
+
+        RangeTask(ByteBuffer data, int start, int end, BalanceStore.BalanceConsumer consumer, AtomicBoolean failed) {
+            this.data = data;
+            this.start = start;
+            this.end = end;
+            this.consumer = consumer;
+            this.failed = failed;
+        }
+
+        @Override
+        protected Boolean compute() {
+            if (end - start > SPLIT_THRESHOLD) {
+                int middle = indexOf(data, (byte) '\n', start + (end - start) / 2, end);
+                if (middle >= 0 && middle + 1 < end) {
+                    RangeTask left = new RangeTask(data, start, middle + 1, consumer, failed);
+                    RangeTask right = new RangeTask(data, middle + 1, end, consumer, failed);
+                    left.fork();
+                    boolean rightResult = right.compute();
+                    return left.join() && rightResult;
+                }
+            }
+            int position = start;
+            while (position < end) {
+                if (failed.get()) {
+                    return false;
+                }
+                int lineEnd = indexOf(data, (byte) '\n', position, end);
+                if (lineEnd < 0) {
+                    lineEnd = end;
+                }
+                if (!parseLine(data, position, lineEnd, consumer)) {
+                    failed.set(true);
+                    return false;
+                }
+                position = lineEnd + 1;
+            }
+            return true;
+        }
+    }
+
+    private static boolean parseLine(ByteBuffer data, int start, int end, BalanceStore.BalanceConsumer consumer) {
+        while (end > start && isBlank(data.get(end - 1))) {
+            end--;
+        }
+        if (end == start || data.get(start) == '#') {
+            return true;
+        }
+        if (end - start == 2 && data.get(start) == '{' && data.get(start + 1) == '}') {
+            return true;
+        }
+        int position = start;
+        byte quote = data.get(position);
+        if (quote == '\'' || quote == '"') {
+            position++;
+        } else {
+            quote = 0;
+        }
+        if (end - position < 36) {
+            return false;
+        }
+        long most = 0L;
+        long least = 0L;
+        for (int i = 0; i < 36; i++) {
+            byte b = data.get(position + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (b != '-') {
+                    return false;
+                }
+                continue;
+            }
+            int digit = Character.digit(b, 16);
+            if (digit < 0) {
+                return false;
+            }
+            if (i < 18) {
+                most = most << 4 | digit;
+            } else {
+                least = least << 4 | digit;
+            }
+        }
+        position += 36;
+        if (quote != 0) {
+            if (position >= end || data.get(position) != quote) {
+                return false;
+            }
+            position++;
+        }
+        if (position + 1 >= end || data.get(position) != ':' || !isBlank(data.get(position + 1))) {
+            return false;
+        }
+        position += 2;
+        while (position < end && isBlank(data.get(position))) {
+            position++;
+        }
+        long balance = parseAmount(data, position, end);
+        if (balance == Long.MIN_VALUE) {
+            return false;
+        }
+        consumer.accept(new UUID(most, least), balance);
+        return true;
+    }
+
+    /**
+     * Plain decimals with at most two fraction digits are converted exactly; anything else goes
+     * through {@link Money#ofMajor(double)} like a value read by the YAML parser.
+     *
+     * @return the amount in minor units, or {@link Long#MIN_VALUE} if the value is not a number
+     */
+    private static long parseAmount(ByteBuffer data, int start, int end) {
+        if (start >= end) {
+            return Long.MIN_VALUE;
+        }
+        int position = start;
+        boolean negative = data.get(position) == '-';
+        if (negative) {
+            position++;
+        }
+        long units = 0L;
+        int digits = 0;
+        while (position < end && isDigit(data.get(position))) {
+            units = units * 10 + (data.get(position) - '0');
+            digits++;
+            position++;
+        }
+        long fraction = 0L;
+        int fractionDigits = 0;
+        if (position < end && data.get(position) == '.') {
+            position++;
+            while (position < end && isDigit(data.get(position))) {
+                fraction = fraction * 10 + (data.get(position) - '0');
+                fractionDigits++;
+                position++;
+            }
+        }
+        if (position == end && digits > 0 && fractionDigits <= Money.FRACTION_DIGITS
+                && digits + fractionDigits <= MAX_FAST_DIGITS) {
+            for (int i = fractionDigits; i < Money.FRACTION_DIGITS; i++) {
+                fraction *= 10;
+            }
+            long minor = units * Money.SCALE + fraction;
+            return negative ? -minor : minor;
+        }
+        byte[] text = new byte[end - start];
+        data.get(start, text);
+        for (byte b : text) {
+            if (!isDigit(b) && b != '.' && b != '-' && b != '+' && b != 'e' && b != 'E') {
+                return Long.MIN_VALUE;
+            }
+        }
+        try {
+            return Money.ofMajor(Double.parseDouble(new String(text, StandardCharsets.US_ASCII)));
+        } catch (NumberFormatException | ArithmeticException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static int indexOf(ByteBuffer data, byte value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (data.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean isDigit(byte b) {
+        return b >= '0' && b <= '9';
+    }
+}
@@ -0,0 +1,20 @@
+package com.outlaw.economy.storage;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Embedded H2 backend. The driver is downloaded by the server through the {@code libraries}
+ * section of plugin.yml.
+ */
+public class H2BalanceStore extends JdbcBalanceStore {
+
+    public H2BalanceStore(File file) throws IOException {
+        super("org.h2.Driver", "jdbc:h2:file:" + file.getAbsolutePath());
+    }
+
+    @Override
+    protected String upsertSql() {
+        return "MERGE INTO " + TABLE + " (uuid_most, uuid_least, balance) KEY (uuid_most, uuid_least) VALUES (?, ?, ?)";
+    }
+}
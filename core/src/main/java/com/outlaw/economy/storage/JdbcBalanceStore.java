@@ -0,0 +1,177 @@
+package com.outlaw.economy.storage;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Balances in an embedded SQL database, keyed by the two halves of the UUID. Saves are written as
+ * batched upserts in a single transaction, and iteration walks the primary key in pages so that
+ * lookups can interleave with a long scan. Statements share one connection, hence the
+ * synchronized methods.
+ */
+public abstract class JdbcBalanceStore implements BalanceStore {
+
+    protected static final String TABLE = "outlaw_balances";
+    private static final int BATCH_SIZE = 500;
+    private static final int PAGE_SIZE = 1000;
+
+    private final Connection connection;
+    private final PreparedStatement select;
+    private final PreparedStatement upsert;
+    private final PreparedStatement firstPage;
+    private final PreparedStatement nextPage;
+
+    protected JdbcBalanceStore(String driver, String url) throws IOException {
+        try {
+            Class.forName(driver);
+        } catch (ClassNotFoundException e) {
+            throw new IOException("Pilote JDBC introuvable: " + driver, e);
+        }
+        try {
+            this.connection = DriverManager.getConnection(url);
+            try (Statement statement = connection.createStatement()) {
+                configure(statement);
+                statement.executeUpdate("CREATE TABLE IF NOT EXISTS " + TABLE + " ("
+                        + "uuid_most BIGINT NOT NULL, "
+                        + "uuid_least BIGINT NOT NULL, "
+                        + "balance BIGINT NOT NULL, "
+                        + "PRIMARY KEY (uuid_most, uuid_least))");
+            }
+            this.select = connection.prepareStatement(
+                    "SELECT balance FROM " + TABLE + " WHERE uuid_most = ? AND uuid_least = ?");
+            this.upsert = connection.prepareStatement(upsertSql());
+            String columns = "SELECT uuid_most, uuid_least, balance FROM " + TABLE;
+            String order = " ORDER BY uuid_most, uuid_least LIMIT " + PAGE_SIZE;
+            this.firstPage = connection.prepareStatement(columns + order);
+            this.nextPage = connection.prepareStatement(columns
+                    + " WHERE uuid_most > ? OR (uuid_most = ? AND uuid_least > ?)" + order);
+        } catch (SQLException e) {
+            throw new IOException("Impossible d'ouvrir la base " + url + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return an upsert taking the UUID halves and the balance, in that order
+     */
+    protected abstract String upsertSql();
+
+    protected void configure(Statement statement) throws SQLException {
+    }
+
+    @Override
+    public synchronized OptionalLong load(UUID playerId) throws IOException {
+        try {
+            select.setLong(1, playerId.getMostSignificantBits());
+            select.setLong(2, playerId.getLeastSignificantBits());
+            try (ResultSet result = select.executeQuery()) {
+                return result.next() ? OptionalLong.of(result.getLong(1)) : OptionalLong.empty();
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public synchronized void store(Map<UUID, Long> balances) throws IOException {
+        if (balances.isEmpty()) {
+            return;
+        }
+        try {
+            connection.setAutoCommit(false);
+            try {
+                int pending = 0;
+                for (Map.Entry<UUID, Long> entry : balances.entrySet()) {
+                    upsert.setLong(1, entry.getKey().getMostSignificantBits());
+                    upsert.setLong(2, entry.getKey().getLeastSignificantBits());
+                    upsert.setLong(3, entry.getValue());
+                    upsert.addBatch();
+                    if (++pending == BATCH_SIZE) {
+                        upsert.executeBatch();
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    upsert.executeBatch();
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                upsert.clearBatch();
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void forEach(BalanceConsumer consumer) throws IOException {
+        long[] mostBits = new long[PAGE_SIZE];
+        long[] leastBits = new long[PAGE_SIZE];
+        long[] values = new long[PAGE_SIZE];
+        long lastMost = 0L;
+        long lastLeast = 0L;
+        boolean first = true;
+        while (true) {
+            int count = 0;
+            synchronized (this) {
+                try {
+                    PreparedStatement page = first ? firstPage : nextPage;
+                    if (!first) {
+                        page.setLong(1, lastMost);
+                        page.setLong(2, lastMost);
+                        page.setLong(3, lastLeast);
+                    }
+                    try (ResultSet result = page.executeQuery()) {
+                        while (result.next()) {
+                            mostBits[count] = result.getLong(1);
+                            leastBits[count] = result.getLong(2);
+                            values[count] = result.getLong(3);
+                            count++;
+                        }
+                    }
+                } catch (SQLException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                consumer.accept(new UUID(mostBits[i], leastBits[i]), values[i]);
+            }
+            if (count < PAGE_SIZE) {
+                return;
+            }
+            first = false;
+            lastMost = mostBits[count - 1];
+            lastLeast = leastBits[count - 1];
+        }
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT 1 FROM " + TABLE + " LIMIT 1")) {
+            return !result.next();
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+}
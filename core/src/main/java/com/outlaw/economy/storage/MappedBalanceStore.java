@@ -0,0 +1,309 @@
+package com.outlaw.economy.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * Balances in a memory-mapped file of fixed 32-byte records laid out as an open-addressing hash
+ * table: UUID halves, balance, a per-record version and a CRC32C of the rest. Opening the store
+ * only maps the file, lookups probe it in place and saves overwrite the records of the changed
+ * accounts, then force the dirty pages out. The table is rebuilt into a file twice as large when
+ * it gets too full.
+ * <p>
+ * A record torn by a crash always belongs to a checkpoint whose journal segments are still on
+ * disk, so the replay at the next start rewrites it.
+ */
+public class MappedBalanceStore implements BalanceStore {
+
+    private static final int MAGIC = 0x4F42414C;
+    private static final int FORMAT = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 32;
+    private static final int BALANCE_OFFSET = 16;
+    private static final int VERSION_OFFSET = 24;
+    private static final int CHECKSUM_OFFSET = 28;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_CAPACITY = 1 << 25;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private final File file;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ThreadLocal<byte[]> scratch = ThreadLocal.withInitial(() -> new byte[CHECKSUM_OFFSET]);
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int size;
+
+    public MappedBalanceStore(File file) throws IOException {
+        this.file = file;
+        if (!file.exists() || file.length() == 0) {
+            File parent = file.getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            create(file, INITIAL_CAPACITY);
+        }
+        map();
+    }
+
+    @Override
+    public OptionalLong load(UUID playerId) throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            int offset = offsetOf(find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits()));
+            if (buffer.getInt(offset + VERSION_OFFSET) == 0) {
+                return OptionalLong.empty();
+            }
+            verify(offset);
+            return OptionalLong.of(buffer.getLong(offset + BALANCE_OFFSET));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void store(Map<UUID, Long> balances) throws IOException {
+        if (balances.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            int added = 0;
+            for (UUID playerId : balances.keySet()) {
+                int offset = offsetOf(find(playerId.getMostSignificantBits(), playerId.getLeastSignificantBits()));
+                if (buffer.getInt(offset + VERSION_OFFSET) == 0) {
+                    added++;
+                }
+            }
+            if (size + added > capacity * LOAD_FACTOR) {
+                resize(size + added);
+            }
+            for (Map.Entry<UUID, Long> entry : balances.entrySet()) {
+                long most = entry.getKey().getMostSignificantBits();
+                long least = entry.getKey().getLeastSignificantBits();
+                int offset = offsetOf(find(most, least));
+                int version = buffer.getInt(offset + VERSION_OFFSET);
+                if (version == 0) {
+                    size++;
+                }
+                writeRecord(buffer, offset, most, least, entry.getValue(), version == Integer.MAX_VALUE ? 1 : version + 1);
+            }
+            buffer.putInt(12, size);
+            buffer.force();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void forEach(BalanceConsumer consumer) throws IOException {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            for (int slot = 0; slot < capacity; slot++) {
+                int offset = offsetOf(slot);
+                if (buffer.getInt(offset + VERSION_OFFSET) == 0) {
+                    continue;
+                }
+                verify(offset);
+                consumer.accept(new UUID(buffer.getLong(offset), buffer.getLong(offset + 8)),
+                        buffer.getLong(offset + BALANCE_OFFSET));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return size == 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (channel == null) {
+                return;
+            }
+            buffer.force();
+            buffer = null;
+            channel.close();
+            channel = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void map() throws IOException {
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long length = channel.size();
+        if (length < HEADER_SIZE) {
+            channel.close();
+            throw new IOException("Fichier de comptes tronqué: " + file.getName());
+        }
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        int storedCapacity = buffer.getInt(8);
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT
+                || Integer.bitCount(storedCapacity) != 1
+                || length != HEADER_SIZE + (long) storedCapacity * RECORD_SIZE) {
+            buffer = null;
+            channel.close();
+            throw new IOException("En-tête invalide dans " + file.getName());
+        }
+        capacity = storedCapacity;
+        size = buffer.getInt(12);
+    }
+
+    /**
+     * Rebuilds the table into a temporary file and moves it over the store. The current mapping
+     * stays in use until the move has succeeded, so a failure leaves the store as it was.
+     */
+    private void resize(int required) throws IOException {
+        int newCapacity = capacity;
+        while (required > newCapacity * LOAD_FACTOR) {
+            if (newCapacity >= MAX_CAPACITY) {
+                throw new IOException("Fichier de comptes plein (" + size + " comptes)");
+            }
+            newCapacity <<= 1;
+        }
+        File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+        FileChannel target = null;
+        MappedByteBuffer rebuilt;
+        int count = 0;
+        try {
+            create(temp, newCapacity);
+            target = FileChannel.open(temp.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            rebuilt = target.map(FileChannel.MapMode.READ_WRITE, 0, target.size());
+            int mask = newCapacity - 1;
+            for (int slot = 0; slot < capacity; slot++) {
+                int offset = offsetOf(slot);
+                int version = buffer.getInt(offset + VERSION_OFFSET);
+                if (version == 0) {
+                    continue;
+                }
+                long most = buffer.getLong(offset);
+                long least = buffer.getLong(offset + 8);
+                int index = hash(most, least) & mask;
+                while (rebuilt.getInt(HEADER_SIZE + index * RECORD_SIZE + VERSION_OFFSET) != 0) {
+                    index = (index + 1) & mask;
+                }
+                writeRecord(rebuilt, HEADER_SIZE + index * RECORD_SIZE, most, least,
+                        buffer.getLong(offset + BALANCE_OFFSET), version);
+                count++;
+            }
+            rebuilt.putInt(12, count);
+            rebuilt.force();
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            if (target != null) {
+                try {
+                    target.close();
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            try {
+                Files.deleteIfExists(temp.toPath());
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        FileChannel previous = channel;
+        channel = target;
+        buffer = rebuilt;
+        capacity = newCapacity;
+        size = count;
+        previous.close();
+    }
+
+    private int find(long most, long least) {
+        int mask = capacity - 1;
+        int slot = hash(most, least) & mask;
+        while (true) {
+            int offset = offsetOf(slot);
+            if (buffer.getInt(offset + VERSION_OFFSET) == 0
+                    || (buffer.getLong(offset) == most && buffer.getLong(offset + 8) == least)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private void verify(int offset) throws IOException {
+        byte[] bytes = scratch.get();
+        buffer.get(offset, bytes);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, CHECKSUM_OFFSET);
+        if ((int) crc.getValue() != buffer.getInt(offset + CHECKSUM_OFFSET)) {
+            throw new IOException("Enregistrement corrompu dans " + file.getName() + " à l'octet " + offset);
+        }
+    }
+
+    private void writeRecord(MappedByteBuffer target, int offset, long most, long least, long balance, int version) {
+        target.putLong(offset, most);
+        target.putLong(offset + 8, least);
+        target.putLong(offset + BALANCE_OFFSET, balance);
+        target.putInt(offset + VERSION_OFFSET, version);
+        byte[] bytes = scratch.get();
+        target.get(offset, bytes);
+        CRC32C crc = new CRC32C();
+        crc.update(bytes, 0, CHECKSUM_OFFSET);
+        target.putInt(offset + CHECKSUM_OFFSET, (int) crc.getValue());
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Fichier de comptes fermé: " + file.getName());
+        }
+    }
+
+    private static int offsetOf(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    private static void create(File target, int capacity) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(target, "rw")) {
+            raf.setLength(0);
+            raf.setLength(HEADER_SIZE + (long) capacity * RECORD_SIZE);
+            raf.seek(0);
+            raf.writeInt(MAGIC);
+            raf.writeInt(FORMAT);
+            raf.writeInt(capacity);
+            raf.writeInt(0);
+            raf.getFD().sync();
+        }
+    }
+
+    private static int hash(long most, long least) {
+        long h = most * 0x9E3779B97F4A7C15L ^ least;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
@@ -0,0 +1,193 @@
+package com.outlaw.economy.storage;
+
+import com.outlaw.economy.core.TaskScheduler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Coalesces dirty marks into at most one write per file and per interval. Snapshots are captured
+ * on the main thread, then rendered and written on a dedicated I/O thread through a temporary
+ * file and an atomic rename.
+ */
+public class PersistenceScheduler {
+
+    private final TaskScheduler scheduler;
+    private final Logger logger;
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private final ExecutorService ioExecutor;
+    private TaskScheduler.Task flushTask;
+
+    public PersistenceScheduler(TaskScheduler scheduler, Logger logger) {
+        this.scheduler = scheduler;
+        this.logger = logger;
+        this.ioExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "OutlawEconomy-IO");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start(long intervalTicks) {
+        long interval = Math.max(1L, intervalTicks);
+        flushTask = scheduler.repeat(this::flushDirty, interval, interval);
+    }
+
+    public void register(String key, File target, Supplier<Snapshot> capture) {
+        registrations.put(key, new Registration(target.getName(), () -> {
+            Snapshot snapshot = capture.get();
+            return snapshot == null ? null : new Checkpoint() {
+                @Override
+                public void write() throws IOException {
+                    writeAtomically(target, snapshot.render().getBytes(StandardCharsets.UTF_8));
+                }
+
+                @Override
+                public void onComplete(boolean written) {
+                    snapshot.onComplete(written);
+                }
+            };
+        }));
+    }
+
+    /**
+     * Registers a store that persists itself rather than rendering a single file.
+     */
+    public void registerCheckpoint(String key, Supplier<Checkpoint> capture) {
+        registrations.put(key, new Registration(key, capture));
+    }
+
+    public void markDirty(String key) {
+        dirty.add(key);
+    }
+
+    public void flush(String key) {
+        dirty.remove(key);
+        Registration registration = registrations.get(key);
+        if (registration == null) {
+            return;
+        }
+        Checkpoint checkpoint = registration.capture().get();
+        if (checkpoint == null) {
+            return;
+        }
+        ioExecutor.execute(() -> write(registration.name(), checkpoint));
+    }
+
+    /**
+     * Runs a task on the I/O thread, after every write already queued.
+     */
+    public void execute(Runnable task) {
+        ioExecutor.execute(task);
+    }
+
+    public void flushDirty() {
+        for (String key : registrations.keySet()) {
+            if (dirty.contains(key)) {
+                flush(key);
+            }
+        }
+    }
+
+    public void shutdown(long timeoutSeconds) {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        flushDirty();
+        ioExecutor.shutdown();
+        long timeout = Math.max(1L, timeoutSeconds);
+        try {
+            if (!ioExecutor.awaitTermination(timeout, TimeUnit.SECONDS)) {
+                logger.severe("Écritures encore en attente après " + timeout + " s, arrêt forcé.");
+                ioExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            ioExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void write(String name, Checkpoint checkpoint) {
+        boolean written = false;
+        try {
+            checkpoint.write();
+            written = true;
+        } catch (IOException | RuntimeException e) {
+            logger.severe("Impossible d'enregistrer " + name + ": " + e.getMessage());
+        }
+        checkpoint.onComplete(written);
+    }
+
+    /**
+     * Writes and forces a temporary file, renames it over the target, then forces the directory
+     * so that a crash leaves either the old or the new content, never an empty file.
+     */
+    public static void writeAtomically(File target, byte[] data) throws IOException {
+        File parent = target.getAbsoluteFile().getParentFile();
+        if (!parent.exists()) {
+            parent.mkdirs();
+        }
+        Path temp = new File(parent, target.getName() + ".tmp").toPath();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(parent.toPath());
+    }
+
+    private static void forceDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // a directory cannot be opened on Windows, the rename is then left to the file system
+        }
+    }
+
+    /**
+     * Data captured on the main thread. {@link #render} runs on the I/O thread and must not touch
+     * live server objects.
+     */
+    public interface Snapshot {
+        String render();
+
+        default void onComplete(boolean written) {
+        }
+    }
+
+    public interface Checkpoint {
+        void write() throws IOException;
+
+        default void onComplete(boolean written) {
+        }
+    }
+
+    private record Registration(String name, Supplier<Checkpoint> capture) {
+    }
+}
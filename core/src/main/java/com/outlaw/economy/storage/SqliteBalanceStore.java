@@ -0,0 +1,29 @@
+package com.outlaw.economy.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * SQLite backend, using the driver bundled with the server. Runs in WAL mode so that readers do
+ * not wait for a checkpoint being written.
+ */
+public class SqliteBalanceStore extends JdbcBalanceStore {
+
+    public SqliteBalanceStore(File file) throws IOException {
+        super("org.sqlite.JDBC", "jdbc:sqlite:" + file.getAbsolutePath());
+    }
+
+    @Override
+    protected void configure(Statement statement) throws SQLException {
+        statement.execute("PRAGMA journal_mode=WAL");
+        statement.execute("PRAGMA synchronous=NORMAL");
+    }
+
+    @Override
+    protected String upsertSql() {
+        return "INSERT INTO " + TABLE + " (uuid_most, uuid_least, balance) VALUES (?, ?, ?) "
+                + "ON CONFLICT (uuid_most, uuid_least) DO UPDATE SET balance = excluded.balance";
+    }
+}
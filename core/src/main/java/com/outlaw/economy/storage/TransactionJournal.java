@@ -0,0 +1,438 @@
+package com.outlaw.economy.storage;
+
+import com.outlaw.economy.api.Money;
+import com.outlaw.economy.core.TransactionSource;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of balance mutations. Each record stores the absolute balance after the
+ * mutation, so replaying every live segment in order on top of the last checkpoint is
+ * idempotent and restores the exact state at the time of the crash.
+ * <p>
+ * {@link #append} never touches the disk: records go into small buffers, one set per shard of
+ * accounts, each behind its own monitor, so that the callers appending under the account table's
+ * stripe locks neither wait on I/O nor on each other. The records of an account always land in
+ * the same shard and keep their order. {@link #flush}, {@link #seal} and {@link #close} drain
+ * the buffers, write, roll and force the segments, and are meant for the I/O thread.
+ * <p>
+ * A checkpoint calls {@link #mark} when it captures the balances, which only starts a new
+ * generation of records, and {@link #seal} once on the I/O thread. A segment never holds records
+ * of a later generation than the one it was started for, so {@link #deleteBefore} can drop the
+ * segments of earlier generations once every checkpoint up to that mark has been written.
+ */
+public class TransactionJournal {
+
+    private static final int MAGIC = 0x4F4A524E;
+    private static final byte VERSION = 2;
+    private static final byte VERSION_DOUBLE = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + 1;
+    private static final int PAYLOAD_SIZE = Long.BYTES * 4 + 1 + Long.BYTES;
+    static final int RECORD_SIZE = PAYLOAD_SIZE + Integer.BYTES;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int SHARDS = 64;
+    private static final int CHUNK_SIZE = RECORD_SIZE * 64;
+
+    private final File directory;
+    private final Logger logger;
+    private final long segmentSize;
+    private final Shard[] shards = new Shard[SHARDS];
+    private final BlockingQueue<Chunk> spareChunks = new ArrayBlockingQueue<>(SHARDS * 2);
+    private final LongAdder pendingBytes = new LongAdder();
+    private final List<Chunk> draining = new ArrayList<>();
+    private final AtomicLong generation = new AtomicLong();
+    private final NavigableMap<Long, Long> generationStarts = new TreeMap<>();
+    private final Object io = new Object();
+    private volatile boolean accepting;
+    private FileChannel channel;
+    private long currentSegment;
+    private long segmentGeneration;
+    private long currentSegmentBytes;
+    private volatile long liveBytes;
+
+    public TransactionJournal(File directory, Logger logger, long segmentSize) {
+        this.directory = directory;
+        this.logger = logger;
+        this.segmentSize = Math.max(RECORD_SIZE * 16L, segmentSize);
+        for (int i = 0; i < SHARDS; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    public void open() throws IOException {
+        synchronized (io) {
+            if (!directory.exists() && !directory.mkdirs()) {
+                throw new IOException("Impossible de créer le dossier " + directory);
+            }
+            long highest = 0;
+            long bytes = 0;
+            for (long id : listSegments()) {
+                highest = Math.max(highest, id);
+                bytes += segmentFile(id).length();
+            }
+            liveBytes = bytes;
+            openSegment(highest + 1);
+            generationStarts.put(segmentGeneration, currentSegment);
+            accepting = true;
+        }
+    }
+
+    public int replay(RecordConsumer consumer) {
+        int count = 0;
+        byte[] record = new byte[RECORD_SIZE];
+        ByteBuffer view = ByteBuffer.wrap(record);
+        CRC32C checksum = new CRC32C();
+        for (long id : listSegments()) {
+            if (channel != null && id >= currentSegment) {
+                continue;
+            }
+            File file = segmentFile(id);
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+                int version = readHeader(in);
+                if (version != VERSION && version != VERSION_DOUBLE) {
+                    logger.warning("En-tête de journal invalide, segment ignoré: " + file.getName());
+                    continue;
+                }
+                while (true) {
+                    if (!readFully(in, record)) {
+                        break;
+                    }
+                    checksum.reset();
+                    checksum.update(record, 0, PAYLOAD_SIZE);
+                    view.clear();
+                    if ((int) checksum.getValue() != view.getInt(PAYLOAD_SIZE)) {
+                        logger.warning("Enregistrement corrompu dans " + file.getName() + ", fin de lecture du segment.");
+                        break;
+                    }
+                    UUID playerId = new UUID(view.getLong(), view.getLong());
+                    long delta;
+                    long balance;
+                    if (version == VERSION_DOUBLE) {
+                        delta = Money.ofMajor(view.getDouble());
+                        balance = Money.ofMajor(view.getDouble());
+                    } else {
+                        delta = view.getLong();
+                        balance = view.getLong();
+                    }
+                    TransactionSource source = TransactionSource.fromCode(view.get());
+                    long timestamp = view.getLong();
+                    consumer.accept(playerId, delta, balance, source, timestamp);
+                    count++;
+                }
+            } catch (IOException e) {
+                logger.severe("Impossible de relire " + file.getName() + ": " + e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Buffers a record without doing any I/O; it reaches the disk at the next {@link #flush}.
+     */
+    public void append(UUID playerId, long delta, long balance, TransactionSource source) {
+        if (!accepting) {
+            return;
+        }
+        long most = playerId.getMostSignificantBits();
+        long least = playerId.getLeastSignificantBits();
+        long timestamp = System.currentTimeMillis();
+        Shard shard = shards[shardOf(most, least)];
+        synchronized (shard) {
+            long current = generation.get();
+            Chunk chunk = shard.active;
+            if (chunk == null || chunk.generation < current || chunk.buffer.remaining() < RECORD_SIZE) {
+                if (chunk != null) {
+                    shard.full.add(chunk);
+                }
+                chunk = spareChunks.poll();
+                if (chunk == null) {
+                    chunk = new Chunk();
+                }
+                chunk.generation = current;
+                shard.active = chunk;
+            }
+            ByteBuffer buffer = chunk.buffer;
+            int start = buffer.position();
+            buffer.putLong(most);
+            buffer.putLong(least);
+            buffer.putLong(delta);
+            buffer.putLong(balance);
+            buffer.put(source.code());
+            buffer.putLong(timestamp);
+            shard.crc.reset();
+            shard.crc.update(buffer.array(), start, PAYLOAD_SIZE);
+            buffer.putInt((int) shard.crc.getValue());
+        }
+        pendingBytes.add(RECORD_SIZE);
+    }
+
+    /**
+     * Writes and forces every record appended so far.
+     */
+    public void flush() {
+        synchronized (io) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                if (drain()) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                logger.severe("Impossible d'écrire dans le journal des transactions: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Starts a new generation of records without doing any I/O.
+     *
+     * @return the new generation; every record appended before this call belongs to an earlier one
+     */
+    public long mark() {
+        return generation.incrementAndGet();
+    }
+
+    /**
+     * @return the generation of the records appended now
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Writes and forces every record appended so far, and starts a new segment if the current one
+     * may hold records older than {@code generation}.
+     */
+    public void seal(long generation) throws IOException {
+        synchronized (io) {
+            if (channel == null) {
+                return;
+            }
+            drain();
+            if (segmentGeneration < generation) {
+                openSegment(currentSegment + 1);
+                startGeneration(generation);
+            } else {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Deletes the sealed segments that only hold records older than {@code generation}.
+     */
+    public void deleteBefore(long generation) {
+        synchronized (io) {
+            Map.Entry<Long, Long> start = generationStarts.ceilingEntry(generation);
+            if (start != null) {
+                deleteSegmentsBefore(start.getValue());
+            }
+        }
+    }
+
+    private void deleteSegmentsBefore(long segmentId) {
+        synchronized (io) {
+            for (long id : listSegments()) {
+                if (id >= segmentId) {
+                    continue;
+                }
+                File file = segmentFile(id);
+                long length = file.length();
+                if (file.delete()) {
+                    liveBytes -= length;
+                } else {
+                    logger.warning("Impossible de supprimer le segment " + file.getName());
+                }
+            }
+            generationStarts.values().removeIf(id -> id < segmentId);
+        }
+    }
+
+    public long liveBytes() {
+        return liveBytes + pendingBytes.sum();
+    }
+
+    public void close() {
+        accepting = false;
+        synchronized (io) {
+            if (channel == null) {
+                return;
+            }
+            try {
+                drain();
+                channel.force(false);
+                channel.close();
+            } catch (IOException e) {
+                logger.severe("Impossible de fermer le journal des transactions: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private void openSegment(long id) throws IOException {
+        if (channel != null) {
+            channel.force(false);
+            channel.close();
+        }
+        currentSegment = id;
+        channel = FileChannel.open(segmentFile(id).toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).put(VERSION).flip();
+        while (header.hasRemaining()) {
+            channel.write(header);
+        }
+        currentSegmentBytes = HEADER_SIZE;
+        liveBytes += HEADER_SIZE;
+    }
+
+    /**
+     * Takes the buffers of every shard in turn and writes them, starting a new segment whenever
+     * the current one is full.
+     *
+     * @return whether anything was written
+     */
+    private boolean drain() throws IOException {
+        boolean written = false;
+        for (Shard shard : shards) {
+            synchronized (shard) {
+                draining.addAll(shard.full);
+                shard.full.clear();
+                if (shard.active != null && shard.active.buffer.position() > 0) {
+                    draining.add(shard.active);
+                    shard.active = null;
+                }
+            }
+            if (draining.isEmpty()) {
+                continue;
+            }
+            try {
+                for (Chunk chunk : draining) {
+                    if (chunk.generation > segmentGeneration) {
+                        openSegment(currentSegment + 1);
+                        startGeneration(chunk.generation);
+                    }
+                    writeChunk(chunk.buffer);
+                    chunk.buffer.clear();
+                    spareChunks.offer(chunk);
+                }
+            } finally {
+                draining.clear();
+            }
+            written = true;
+        }
+        return written;
+    }
+
+    private void writeChunk(ByteBuffer chunk) throws IOException {
+        chunk.flip();
+        while (chunk.hasRemaining()) {
+            long room = (segmentSize - currentSegmentBytes) / RECORD_SIZE * RECORD_SIZE;
+            if (room == 0) {
+                openSegment(currentSegment + 1);
+                continue;
+            }
+            int end = chunk.limit();
+            int length = (int) Math.min(chunk.remaining(), room);
+            chunk.limit(chunk.position() + length);
+            while (chunk.hasRemaining()) {
+                channel.write(chunk);
+            }
+            chunk.limit(end);
+            currentSegmentBytes += length;
+            liveBytes += length;
+            pendingBytes.add(-length);
+        }
+    }
+
+    private void startGeneration(long started) {
+        segmentGeneration = started;
+        generationStarts.put(started, currentSegment);
+    }
+
+    private static int shardOf(long most, long least) {
+        return (Long.hashCode(most ^ least) * 0x9E3779B9) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(SHARDS));
+    }
+
+    private int readHeader(DataInputStream in) throws IOException {
+        try {
+            return in.readInt() == MAGIC ? in.readByte() : -1;
+        } catch (EOFException e) {
+            return -1;
+        }
+    }
+
+    private boolean readFully(InputStream in, byte[] target) throws IOException {
+        int read = 0;
+        while (read < target.length) {
+            int n = in.read(target, read, target.length - read);
+            if (n < 0) {
+                return false;
+            }
+            read += n;
+        }
+        return true;
+    }
+
+    private List<Long> listSegments() {
+        File[] files = directory.listFiles((dir, name) -> name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX));
+        List<Long> ids = new ArrayList<>();
+        if (files == null) {
+            return ids;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                ids.add(Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())));
+            } catch (NumberFormatException ignored) {
+                logger.warning("Fichier inattendu dans le journal: " + name);
+            }
+        }
+        ids.sort(null);
+        return ids;
+    }
+
+    private File segmentFile(long id) {
+        return new File(directory, String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+    }
+
+    private static final class Shard {
+        private final CRC32C crc = new CRC32C();
+        private final ArrayDeque<Chunk> full = new ArrayDeque<>();
+        private Chunk active;
+    }
+
+    private static final class Chunk {
+        private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+        private long generation;
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(UUID playerId, long delta, long balance, TransactionSource source, long timestamp);
+    }
+}
@@ -0,0 +1,407 @@
+package com.outlaw.economy.storage;
+
+import com.outlaw.economy.api.LedgerEntry;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Logger;
+import java.util.zip.CRC32C;
+
+/**
+ * Permanent transaction history, one segment file per day. Every record points back to the
+ * previous record of the same account in its segment, and a sealed segment gets a sorted index of
+ * the last record of each account, so the history of an account is read by following these
+ * chains from the newest segment without scanning any of them.
+ * <p>
+ * {@link #append} only queues the entry; {@link #flush} writes the queue and is meant for the I/O
+ * thread. Reads and writes are serialized on the ledger.
+ */
+public class TransactionLedger {
+
+    private static final int MAGIC = 0x4F4C4447;
+    private static final byte VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + 1;
+    private static final int FIXED_SIZE = Long.BYTES * 8 + 1 + Short.BYTES;
+    private static final int MAX_REASON_BYTES = 512;
+    private static final int INDEX_RECORD_SIZE = Long.BYTES * 3;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final File directory;
+    private final Logger logger;
+    private final int retentionDays;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final Queue<LedgerEntry> pending = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, Long> heads = new HashMap<>();
+    private final ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+    private final CRC32C crc = new CRC32C();
+    private volatile boolean accepting;
+    private FileChannel channel;
+    private LocalDate currentDay;
+    private long position;
+
+    public TransactionLedger(File directory, Logger logger, int retentionDays) {
+        this.directory = directory;
+        this.logger = logger;
+        this.retentionDays = Math.max(1, retentionDays);
+    }
+
+    public synchronized void open() throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Impossible de créer le dossier " + directory);
+        }
+        LocalDate today = LocalDate.now(zone);
+        for (LocalDate day : listDays()) {
+            if (day.equals(today) || indexFile(day).exists()) {
+                continue;
+            }
+            Map<UUID, Long> lastRecords = new HashMap<>();
+            try {
+                scan(segmentFile(day), lastRecords);
+            } catch (IOException e) {
+                logger.warning("Historique du " + day + " ignoré: " + e.getMessage());
+                continue;
+            }
+            writeIndex(day, lastRecords);
+        }
+        openSegment(today);
+        deleteExpired(today);
+        accepting = true;
+    }
+
+    public void append(LedgerEntry entry) {
+        if (accepting) {
+            pending.add(entry);
+        }
+    }
+
+    public boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    public synchronized void flush() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now(zone);
+            if (!today.equals(currentDay)) {
+                seal();
+                openSegment(today);
+                deleteExpired(today);
+            }
+            LedgerEntry entry;
+            while ((entry = pending.poll()) != null) {
+                write(entry);
+            }
+            writeBuffer();
+        } catch (IOException e) {
+            logger.severe("Impossible d'écrire l'historique des transactions: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the history of an account from disk, newest first.
+     *
+     * @param skip number of recent entries to skip
+     */
+    public synchronized List<LedgerEntry> history(UUID playerId, int skip, int limit) throws IOException {
+        flush();
+        List<LedgerEntry> entries = new ArrayList<>(Math.max(0, limit));
+        int remaining = Math.max(0, skip);
+        List<LocalDate> days = listDays();
+        for (int i = days.size() - 1; i >= 0 && entries.size() < limit; i--) {
+            LocalDate day = days.get(i);
+            Long offset = day.equals(currentDay) ? heads.get(playerId) : lookupIndex(day, playerId);
+            if (offset == null) {
+                continue;
+            }
+            try (FileChannel in = FileChannel.open(segmentFile(day).toPath(), StandardOpenOption.READ)) {
+                long next = offset;
+                while (next >= 0 && entries.size() < limit) {
+                    ByteBuffer record = readRecord(in, next, day);
+                    if (remaining > 0) {
+                        remaining--;
+                    } else {
+                        entries.add(decode(record));
+                    }
+                    next = record.getLong(Long.BYTES * 7 + 1);
+                }
+            }
+        }
+        return entries;
+    }
+
+    public synchronized void close() {
+        accepting = false;
+        if (channel == null) {
+            return;
+        }
+        flush();
+        try {
+            seal();
+        } catch (IOException e) {
+            logger.severe("Impossible de fermer l'historique des transactions: " + e.getMessage());
+        }
+    }
+
+    private void openSegment(LocalDate day) throws IOException {
+        File file = segmentFile(day);
+        File index = indexFile(day);
+        heads.clear();
+        currentDay = day;
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (channel.size() == 0) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).put(VERSION).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            position = HEADER_SIZE;
+        } else if (index.exists()) {
+            heads.putAll(readIndex(index));
+            position = channel.size();
+        } else {
+            position = scan(file, heads);
+            if (position < channel.size()) {
+                logger.warning("Fin d'historique illisible tronquée dans " + file.getName());
+                channel.truncate(position);
+            }
+        }
+        if (index.exists() && !index.delete()) {
+            throw new IOException("Impossible de supprimer " + index.getName());
+        }
+    }
+
+    private void seal() throws IOException {
+        writeBuffer();
+        channel.force(false);
+        channel.close();
+        channel = null;
+        writeIndex(currentDay, heads);
+    }
+
+    private void write(LedgerEntry entry) throws IOException {
+        byte[] reason = entry.reason() == null ? new byte[0] : entry.reason().getBytes(StandardCharsets.UTF_8);
+        int reasonLength = Math.min(reason.length, MAX_REASON_BYTES);
+        int size = FIXED_SIZE + reasonLength;
+        if (buffer.remaining() < size + Integer.BYTES * 2) {
+            writeBuffer();
+        }
+        long offset = position + buffer.position();
+        Long previous = heads.put(entry.playerId(), offset);
+        UUID counterparty = entry.counterparty();
+        buffer.putInt(size);
+        int start = buffer.position();
+        buffer.putLong(entry.timestamp());
+        buffer.putLong(entry.playerId().getMostSignificantBits());
+        buffer.putLong(entry.playerId().getLeastSignificantBits());
+        buffer.putLong(counterparty == null ? 0L : counterparty.getMostSignificantBits());
+        buffer.putLong(counterparty == null ? 0L : counterparty.getLeastSignificantBits());
+        buffer.putLong(entry.amount());
+        buffer.putLong(entry.balance());
+        buffer.put((byte) (counterparty == null ? 0 : 1));
+        buffer.putLong(previous == null ? -1L : previous);
+        buffer.putShort((short) reasonLength);
+        buffer.put(reason, 0, reasonLength);
+        crc.reset();
+        crc.update(buffer.array(), start, size);
+        buffer.putInt((int) crc.getValue());
+    }
+
+    private void writeBuffer() throws IOException {
+        if (buffer.position() == 0) {
+            return;
+        }
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        buffer.clear();
+    }
+
+    private ByteBuffer readRecord(FileChannel in, long offset, LocalDate day) throws IOException {
+        ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+        readFully(in, length, offset);
+        int size = length.getInt(0);
+        if (size < FIXED_SIZE || size > FIXED_SIZE + MAX_REASON_BYTES) {
+            throw new IOException("Enregistrement invalide dans " + segmentFile(day).getName() + " à l'octet " + offset);
+        }
+        ByteBuffer record = ByteBuffer.allocate(size + Integer.BYTES);
+        readFully(in, record, offset + Integer.BYTES);
+        CRC32C checksum = new CRC32C();
+        checksum.update(record.array(), 0, size);
+        if ((int) checksum.getValue() != record.getInt(size)) {
+            throw new IOException("Enregistrement corrompu dans " + segmentFile(day).getName() + " à l'octet " + offset);
+        }
+        return record;
+    }
+
+    private static LedgerEntry decode(ByteBuffer record) {
+        record.rewind();
+        long timestamp = record.getLong();
+        UUID playerId = new UUID(record.getLong(), record.getLong());
+        long counterMost = record.getLong();
+        long counterLeast = record.getLong();
+        long amount = record.getLong();
+        long balance = record.getLong();
+        boolean hasCounterparty = record.get() != 0;
+        record.getLong();
+        int reasonLength = record.getShort();
+        String reason = new String(record.array(), record.position(), reasonLength, StandardCharsets.UTF_8);
+        return new LedgerEntry(timestamp, playerId, amount, balance, reason,
+                hasCounterparty ? new UUID(counterMost, counterLeast) : null);
+    }
+
+    /**
+     * Collects the last record of each account in a segment.
+     *
+     * @return the length of the readable part of the segment
+     */
+    private long scan(File file, Map<UUID, Long> lastRecords) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), 1 << 16))) {
+            if (in.readInt() != MAGIC || in.readByte() != VERSION) {
+                throw new IOException("En-tête d'historique invalide: " + file.getName());
+            }
+            long offset = HEADER_SIZE;
+            byte[] record = new byte[FIXED_SIZE + MAX_REASON_BYTES + Integer.BYTES];
+            ByteBuffer view = ByteBuffer.wrap(record);
+            CRC32C checksum = new CRC32C();
+            while (true) {
+                int size;
+                try {
+                    size = in.readInt();
+                    if (size < FIXED_SIZE || size > FIXED_SIZE + MAX_REASON_BYTES) {
+                        return offset;
+                    }
+                    in.readFully(record, 0, size + Integer.BYTES);
+                } catch (EOFException e) {
+                    return offset;
+                }
+                checksum.reset();
+                checksum.update(record, 0, size);
+                if ((int) checksum.getValue() != view.getInt(size)) {
+                    return offset;
+                }
+                lastRecords.put(new UUID(view.getLong(Long.BYTES), view.getLong(Long.BYTES * 2)), offset);
+                offset += Integer.BYTES + size + Integer.BYTES;
+            }
+        } catch (EOFException e) {
+            throw new IOException("En-tête d'historique invalide: " + file.getName(), e);
+        }
+    }
+
+    private void writeIndex(LocalDate day, Map<UUID, Long> lastRecords) throws IOException {
+        ByteBuffer data = ByteBuffer.allocate(lastRecords.size() * INDEX_RECORD_SIZE);
+        for (Map.Entry<UUID, Long> entry : new TreeMap<>(lastRecords).entrySet()) {
+            data.putLong(entry.getKey().getMostSignificantBits());
+            data.putLong(entry.getKey().getLeastSignificantBits());
+            data.putLong(entry.getValue());
+        }
+        PersistenceScheduler.writeAtomically(indexFile(day), data.array());
+    }
+
+    private Map<UUID, Long> readIndex(File index) throws IOException {
+        Map<UUID, Long> lastRecords = new HashMap<>();
+        try (FileChannel in = FileChannel.open(index.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            while (data.remaining() >= INDEX_RECORD_SIZE) {
+                lastRecords.put(new UUID(data.getLong(), data.getLong()), data.getLong());
+            }
+        }
+        return lastRecords;
+    }
+
+    private Long lookupIndex(LocalDate day, UUID playerId) throws IOException {
+        File index = indexFile(day);
+        if (!index.exists()) {
+            return null;
+        }
+        try (FileChannel in = FileChannel.open(index.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            int low = 0;
+            int high = (int) (in.size() / INDEX_RECORD_SIZE) - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                int base = middle * INDEX_RECORD_SIZE;
+                int comparison = new UUID(data.getLong(base), data.getLong(base + Long.BYTES)).compareTo(playerId);
+                if (comparison == 0) {
+                    return data.getLong(base + Long.BYTES * 2);
+                }
+                if (comparison < 0) {
+                    low = middle + 1;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return null;
+        }
+    }
+
+    private void deleteExpired(LocalDate today) {
+        LocalDate oldest = today.minusDays(retentionDays);
+        for (LocalDate day : listDays()) {
+            if (!day.isBefore(oldest)) {
+                continue;
+            }
+            File index = indexFile(day);
+            if (!segmentFile(day).delete() || (index.exists() && !index.delete())) {
+                logger.warning("Impossible de supprimer l'historique du " + day);
+            }
+        }
+    }
+
+    private List<LocalDate> listDays() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SEGMENT_SUFFIX));
+        List<LocalDate> days = new ArrayList<>();
+        if (files == null) {
+            return days;
+        }
+        for (File file : files) {
+            String name = file.getName();
+            try {
+                days.add(LocalDate.parse(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+            } catch (DateTimeParseException ignored) {
+                logger.warning("Fichier inattendu dans l'historique: " + name);
+            }
+        }
+        days.sort(null);
+        return days;
+    }
+
+    private static void readFully(FileChannel in, ByteBuffer target, long offset) throws IOException {
+        while (target.hasRemaining()) {
+            if (in.read(target, offset + target.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    private File segmentFile(LocalDate day) {
+        return new File(directory, day + SEGMENT_SUFFIX);
+    }
+
+    private File indexFile(LocalDate day) {
+        return new File(directory, day + INDEX_SUFFIX);
+    }
+}
@@ -0,0 +1,150 @@
+package com.outlaw.economy.storage;
+
+import com.outlaw.economy.api.Money;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Balances spread over 256 YAML files keyed by the first byte of the UUID, so that looking up or
+ * saving an account only parses one small shard. Values keep the major-unit format of the former
+ * {@code balances.yml}. Shards are read with {@link FlatBalanceReader} and written back in the same
+ * flat form; a shard edited into anything else goes through the YAML parser instead.
+ */
+public class YamlBalanceStore implements BalanceStore {
+
+    private static final int SHARD_COUNT = 256;
+
+    private final File directory;
+    private final Object[] locks = new Object[SHARD_COUNT];
+
+    public YamlBalanceStore(File directory) {
+        this.directory = directory;
+        for (int i = 0; i < SHARD_COUNT; i++) {
+            locks[i] = new Object();
+        }
+        directory.mkdirs();
+    }
+
+    @Override
+    public OptionalLong load(UUID playerId) throws IOException {
+        int shard = shardOf(playerId);
+        synchronized (locks[shard]) {
+            File file = shardFile(shard);
+            if (!file.exists()) {
+                return OptionalLong.empty();
+            }
+            long[] found = {Long.MIN_VALUE};
+            if (FlatBalanceReader.read(file, (id, balance) -> {
+                if (id.equals(playerId)) {
+                    found[0] = balance;
+                }
+            })) {
+                return found[0] == Long.MIN_VALUE ? OptionalLong.empty() : OptionalLong.of(found[0]);
+            }
+            Map<String, Object> entries = YamlMaps.load(file);
+            String key = playerId.toString();
+            if (!entries.containsKey(key)) {
+                return OptionalLong.empty();
+            }
+            return OptionalLong.of(balanceOf(entries.get(key)));
+        }
+    }
+
+    @Override
+    public void store(Map<UUID, Long> balances) throws IOException {
+        if (balances.isEmpty()) {
+            return;
+        }
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Map<UUID, Long>[] shards = new Map[SHARD_COUNT];
+        for (Map.Entry<UUID, Long> entry : balances.entrySet()) {
+            int shard = shardOf(entry.getKey());
+            if (shards[shard] == null) {
+                shards[shard] = new HashMap<>();
+            }
+            shards[shard].put(entry.getKey(), entry.getValue());
+        }
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            if (shards[shard] == null) {
+                continue;
+            }
+            synchronized (locks[shard]) {
+                File file = shardFile(shard);
+                Map<UUID, Long> merged = new LinkedHashMap<>();
+                if (!file.exists() || FlatBalanceReader.read(file, merged::put)) {
+                    merged.putAll(shards[shard]);
+                    PersistenceScheduler.writeAtomically(file, render(merged));
+                    continue;
+                }
+                Map<String, Object> entries = YamlMaps.load(file);
+                for (Map.Entry<UUID, Long> entry : shards[shard].entrySet()) {
+                    entries.put(entry.getKey().toString(), Money.toMajor(entry.getValue()));
+                }
+                PersistenceScheduler.writeAtomically(file, YamlMaps.dump(entries).getBytes(StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    @Override
+    public void forEach(BalanceConsumer consumer) throws IOException {
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            Map<String, Object> parsed;
+            Map<UUID, Long> entries = new LinkedHashMap<>();
+            synchronized (locks[shard]) {
+                File file = shardFile(shard);
+                if (!file.exists()) {
+                    continue;
+                }
+                parsed = FlatBalanceReader.read(file, entries::put) ? null : YamlMaps.load(file);
+            }
+            if (parsed == null) {
+                entries.forEach(consumer::accept);
+                continue;
+            }
+            for (Map.Entry<String, Object> entry : parsed.entrySet()) {
+                try {
+                    consumer.accept(UUID.fromString(entry.getKey()), balanceOf(entry.getValue()));
+                } catch (IllegalArgumentException | ArithmeticException ignored) {
+                }
+            }
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".yml"));
+        return files == null || files.length == 0;
+    }
+
+    private static byte[] render(Map<UUID, Long> balances) {
+        StringBuilder builder = new StringBuilder(balances.size() * 52);
+        for (Map.Entry<UUID, Long> entry : balances.entrySet()) {
+            builder.append(entry.getKey()).append(": ")
+                    .append(Money.toDecimal(entry.getValue()).toPlainString()).append('\n');
+        }
+        return builder.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private File shardFile(int shard) {
+        return new File(directory, String.format("%02x.yml", shard));
+    }
+
+    private static int shardOf(UUID playerId) {
+        return (int) (playerId.getMostSignificantBits() >>> 56);
+    }
+
+    private static long balanceOf(Object value) {
+        try {
+            return Money.ofMajor(YamlMaps.toDouble(value));
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+}
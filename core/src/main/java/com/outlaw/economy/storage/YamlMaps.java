@@ -0,0 +1,66 @@
+package com.outlaw.economy.storage;
+
+import org.yaml.snakeyaml.DumperOptions;
+import org.yaml.snakeyaml.LoaderOptions;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Reads and writes the top-level mapping of the plugin's YAML data files with SnakeYAML, so that
+ * the engine does not need the server's configuration API.
+ */
+public final class YamlMaps {
+
+    private YamlMaps() {
+    }
+
+    /**
+     * @return the entries of the file in order, keys as strings; empty if the file is empty
+     * @throws IOException if the file cannot be read or is not a YAML mapping
+     */
+    public static Map<String, Object> load(File file) throws IOException {
+        Object root;
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            root = new Yaml(new LoaderOptions()).load(reader);
+        } catch (YAMLException e) {
+            throw new IOException("Fichier invalide " + file.getName() + ": " + e.getMessage(), e);
+        }
+        Map<String, Object> entries = new LinkedHashMap<>();
+        if (root == null) {
+            return entries;
+        }
+        if (!(root instanceof Map<?, ?> map)) {
+            throw new IOException("Fichier invalide " + file.getName() + ": une liste de clés est attendue");
+        }
+        map.forEach((key, value) -> entries.put(String.valueOf(key), value));
+        return entries;
+    }
+
+    public static String dump(Map<String, ?> entries) {
+        DumperOptions options = new DumperOptions();
+        options.setDefaultFlowStyle(DumperOptions.FlowStyle.BLOCK);
+        return entries.isEmpty() ? "" : new Yaml(options).dump(entries);
+    }
+
+    /**
+     * @return the value as a number of major units, as the server's configuration API reads it
+     * @throws NumberFormatException if the value is not a number
+     */
+    public static double toDouble(Object value) {
+        if (value instanceof Number number) {
+            return number.doubleValue();
+        }
+        if (value == null) {
+            throw new NumberFormatException("valeur manquante");
+        }
+        return Double.parseDouble(value.toString());
+    }
+}
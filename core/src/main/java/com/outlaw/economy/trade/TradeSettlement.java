@@ -0,0 +1,159 @@
+package com.outlaw.economy.trade;
+
+import com.outlaw.economy.api.BalanceOperation;
+import com.outlaw.economy.api.Currency;
+import com.outlaw.economy.api.EconomyService;
+import com.outlaw.economy.api.IdempotencyCapacityException;
+import com.outlaw.economy.api.Money;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * The money side of a trade between two players: what each one offers, whether each one has
+ * confirmed, and the payment of both offers as a single batch. Changing an offer withdraws both
+ * confirmations.
+ * <p>
+ * The payment carries a request id that only changes when the confirmations are reset, so settling
+ * the same confirmed trade again after a timeout or an exception never pays twice.
+ * <p>
+ * Each offer is in the currency its player chose. Offers in two different currencies are paid as
+ * two batches, one per account table; if the second one fails the first is refunded, and a refund
+ * that fails as well is logged with everything needed to fix the balances by hand.
+ */
+public class TradeSettlement {
+
+    private final UUID playerOne;
+    private final UUID playerTwo;
+    private final Logger logger;
+    private long offerOne;
+    private long offerTwo;
+    private Currency currencyOne = Currency.DEFAULT;
+    private Currency currencyTwo = Currency.DEFAULT;
+    private boolean confirmedOne;
+    private boolean confirmedTwo;
+    private UUID settlementId = UUID.randomUUID();
+
+    public TradeSettlement(UUID playerOne, UUID playerTwo, Logger logger) {
+        this.playerOne = playerOne;
+        this.playerTwo = playerTwo;
+        this.logger = logger;
+    }
+
+    public UUID getPlayerOne() {
+        return playerOne;
+    }
+
+    public UUID getPlayerTwo() {
+        return playerTwo;
+    }
+
+    public long getOffer(UUID playerId) {
+        if (playerId.equals(playerOne)) {
+            return offerOne;
+        }
+        return playerId.equals(playerTwo) ? offerTwo : 0L;
+    }
+
+    public Currency getCurrency(UUID playerId) {
+        return playerId.equals(playerTwo) ? currencyTwo : currencyOne;
+    }
+
+    /**
+     * Changes the currency of an offer, keeping its amount.
+     */
+    public void setCurrency(UUID playerId, Currency currency) {
+        if (playerId.equals(playerOne)) {
+            currencyOne = currency;
+        } else if (playerId.equals(playerTwo)) {
+            currencyTwo = currency;
+        }
+        resetConfirmations();
+    }
+
+    /**
+     * Adds whole units to an offer, never taking it below zero.
+     */
+    public void adjustOffer(UUID playerId, int amount) {
+        long updated = Math.max(0L, Money.add(getOffer(playerId), Money.ofWhole(amount)));
+        if (playerId.equals(playerOne)) {
+            offerOne = updated;
+        } else if (playerId.equals(playerTwo)) {
+            offerTwo = updated;
+        }
+        resetConfirmations();
+    }
+
+    public boolean isConfirmed(UUID playerId) {
+        return playerId.equals(playerOne) ? confirmedOne : playerId.equals(playerTwo) && confirmedTwo;
+    }
+
+    public void toggleConfirm(UUID playerId) {
+        if (playerId.equals(playerOne)) {
+            confirmedOne = !confirmedOne;
+        } else if (playerId.equals(playerTwo)) {
+            confirmedTwo = !confirmedTwo;
+        }
+    }
+
+    public void resetConfirmations() {
+        confirmedOne = false;
+        confirmedTwo = false;
+        settlementId = UUID.randomUUID();
+    }
+
+    public boolean bothConfirmed() {
+        return confirmedOne && confirmedTwo;
+    }
+
+    public boolean canAfford(EconomyService economy, UUID playerId) {
+        return economy.getBalanceMinor(getCurrency(playerId), playerId) >= getOffer(playerId);
+    }
+
+    /**
+     * Pays both offers: either both players pay and are paid, or nothing changes.
+     *
+     * @return {@code false} if either player cannot pay
+     */
+    public boolean settle(EconomyService economy, String nameOne, String nameTwo) {
+        List<BalanceOperation> paymentOne = List.of(
+                BalanceOperation.withdraw(playerOne, offerOne, "Trade with " + nameTwo),
+                BalanceOperation.deposit(playerTwo, offerOne, "Trade payment from " + nameOne));
+        List<BalanceOperation> paymentTwo = List.of(
+                BalanceOperation.withdraw(playerTwo, offerTwo, "Trade with " + nameOne),
+                BalanceOperation.deposit(playerOne, offerTwo, "Trade payment from " + nameTwo));
+        if (currencyOne.equals(currencyTwo)) {
+            return pay(economy, currencyOne, List.of(paymentOne.get(0), paymentTwo.get(0),
+                    paymentOne.get(1), paymentTwo.get(1)), settlementId);
+        }
+        if (!pay(economy, currencyOne, paymentOne, settlementId)) {
+            return false;
+        }
+        if (pay(economy, currencyTwo, paymentTwo, derivedId(1))) {
+            return true;
+        }
+        if (!pay(economy, currencyOne, List.of(
+                BalanceOperation.withdraw(playerTwo, offerOne, "Trade refund to " + nameOne),
+                BalanceOperation.deposit(playerOne, offerOne, "Trade refund from " + nameTwo)), derivedId(2))) {
+            logger.severe("Remboursement d'échange impossible (" + settlementId + "): " + playerOne + " a payé "
+                    + economy.formatMinor(currencyOne, offerOne) + " " + economy.currencyCode(currencyOne)
+                    + " à " + playerTwo + " sans recevoir " + economy.formatMinor(currencyTwo, offerTwo) + " "
+                    + economy.currencyCode(currencyTwo) + ".");
+        }
+        return false;
+    }
+
+    private boolean pay(EconomyService economy, Currency currency, List<BalanceOperation> operations, UUID requestId) {
+        try {
+            return economy.forCurrency(currency).applyBatch(operations, requestId);
+        } catch (IdempotencyCapacityException e) {
+            logger.warning("Paiement d'échange refusé: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private UUID derivedId(long leg) {
+        return new UUID(settlementId.getMostSignificantBits(), settlementId.getLeastSignificantBits() ^ leg);
+    }
+}
@@ -0,0 +1,59 @@
+package com.outlaw.economy.api;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MoneyTest {
+
+    private static final long[] AMOUNTS = {0L, 1L, 99L, 100L, 1_050L, 123_456L, 100_000_000L, -4_321L, Long.MAX_VALUE};
+
+    @Test
+    void parseAcceptsEitherSeparator() {
+        assertEquals(1_250L, Money.parse("12.5"));
+        assertEquals(1_250L, Money.parse(" 12,50 "));
+        assertEquals(-300L, Money.parse("-3"));
+        assertEquals(Money.ofWhole(42L), Money.parse("42"));
+    }
+
+    @Test
+    void parseRefusesWhatItCannotHold() {
+        assertThrows(NumberFormatException.class, () -> Money.parse("0.001"));
+        assertThrows(NumberFormatException.class, () -> Money.parse("abc"));
+        assertThrows(NumberFormatException.class, () -> Money.parse(null));
+        assertThrows(NumberFormatException.class, () -> Money.parse("92233720368547758.08"));
+    }
+
+    @Test
+    void formatMatchesDecimalFormat() {
+        for (Locale locale : new Locale[]{Locale.US, Locale.FRANCE, Locale.GERMANY}) {
+            MoneyFormat format = new MoneyFormat(locale);
+            DecimalFormat reference = new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(locale));
+            for (long amount : AMOUNTS) {
+                assertEquals(reference.format(Money.toDecimal(amount)), format.format(amount));
+                StringBuilder builder = new StringBuilder();
+                format.formatTo(amount, builder);
+                assertEquals(format.format(amount), builder.toString());
+            }
+        }
+    }
+
+    @Test
+    void formattedAmountsParseBack() {
+        for (Locale locale : new Locale[]{Locale.US, Locale.FRANCE, Locale.GERMANY}) {
+            DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+            MoneyFormat format = new MoneyFormat(locale);
+            for (long amount : AMOUNTS) {
+                String text = format.format(amount)
+                        .replace(String.valueOf(symbols.getGroupingSeparator()), "")
+                        .replace(symbols.getMinusSign(), '-');
+                assertEquals(amount, Money.parse(text));
+            }
+        }
+    }
+}
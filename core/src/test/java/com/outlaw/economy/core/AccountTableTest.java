@@ -0,0 +1,98 @@
+package com.outlaw.economy.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccountTableTest {
+
+    private final List<Long> changes = new ArrayList<>();
+    private final AccountTable table = new AccountTable((playerId, delta, balance, source) -> changes.add(delta));
+
+    @Test
+    void addCreatesTheAccountWithTheInitialBalance() {
+        UUID player = UUID.randomUUID();
+        assertEquals(1_500L, table.add(player, 500L, 1_000L, TransactionSource.ADMIN));
+        assertEquals(1_700L, table.add(player, 200L, 1_000L, TransactionSource.ADMIN));
+        assertEquals(1_700L, table.get(player, AccountTable.MISSING));
+        assertEquals(List.of(500L, 200L), changes);
+    }
+
+    @Test
+    void addRefusesAnOverflow() {
+        UUID player = UUID.randomUUID();
+        table.load(player, Long.MAX_VALUE - 10L);
+        assertThrows(ArithmeticException.class, () -> table.add(player, 11L, 0L, TransactionSource.ADMIN));
+        assertEquals(Long.MAX_VALUE - 10L, table.get(player, AccountTable.MISSING));
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void withdrawNeedsCoveringFunds() {
+        UUID player = UUID.randomUUID();
+        table.load(player, 1_000L);
+        assertEquals(AccountTable.MISSING, table.withdraw(player, 1_001L, 0L, TransactionSource.PAYMENT));
+        assertEquals(1_000L, table.get(player, AccountTable.MISSING));
+        assertEquals(0L, table.withdraw(player, 1_000L, 0L, TransactionSource.PAYMENT));
+        assertEquals(List.of(-1_000L), changes);
+    }
+
+    @Test
+    void withdrawUpToStopsAtZero() {
+        UUID player = UUID.randomUUID();
+        table.load(player, 300L);
+        assertArrayEquals(new long[]{200L, 100L}, table.withdrawUpTo(player, 200L, 0L, TransactionSource.ADMIN));
+        assertArrayEquals(new long[]{100L, 0L}, table.withdrawUpTo(player, 500L, 0L, TransactionSource.ADMIN));
+        assertArrayEquals(new long[]{0L, 0L}, table.withdrawUpTo(player, 500L, 0L, TransactionSource.ADMIN));
+        assertEquals(List.of(-200L, -100L), changes);
+    }
+
+    @Test
+    void batchAppliesEveryLeg() {
+        UUID buyer = UUID.randomUUID();
+        UUID seller = UUID.randomUUID();
+        table.load(buyer, 1_000L);
+        long[] results = table.applyBatch(new UUID[]{buyer, seller}, new long[]{-400L, 400L},
+                new TransactionSource[]{TransactionSource.TRADE, TransactionSource.TRADE}, 0L);
+        assertArrayEquals(new long[]{600L, 400L}, results);
+        assertEquals(List.of(-400L, 400L), changes);
+    }
+
+    @Test
+    void batchRollsBackWhenALegFails() {
+        UUID created = UUID.randomUUID();
+        UUID existing = UUID.randomUUID();
+        UUID poor = UUID.randomUUID();
+        table.load(existing, 500L);
+        table.load(poor, 100L);
+        long[] results = table.applyBatch(new UUID[]{created, existing, poor}, new long[]{250L, -200L, -150L},
+                new TransactionSource[]{TransactionSource.TRADE, TransactionSource.TRADE, TransactionSource.TRADE}, 0L);
+        assertNull(results);
+        assertFalse(table.contains(created));
+        assertEquals(500L, table.get(existing, AccountTable.MISSING));
+        assertEquals(100L, table.get(poor, AccountTable.MISSING));
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void batchRollsBackWhenABalanceWouldOverflow() {
+        UUID payer = UUID.randomUUID();
+        UUID rich = UUID.randomUUID();
+        table.load(payer, 1_000L);
+        table.load(rich, Long.MAX_VALUE);
+        assertNull(table.applyBatch(new UUID[]{payer, rich}, new long[]{-1L, 1L},
+                new TransactionSource[]{TransactionSource.PAYMENT, TransactionSource.PAYMENT}, 0L));
+        assertEquals(1_000L, table.get(payer, AccountTable.MISSING));
+        assertEquals(Long.MAX_VALUE, table.get(rich, AccountTable.MISSING));
+        assertTrue(changes.isEmpty());
+    }
+}
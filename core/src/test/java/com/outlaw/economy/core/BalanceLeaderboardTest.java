@@ -0,0 +1,73 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.api.LeaderboardEntry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BalanceLeaderboardTest {
+
+    @Test
+    void ranksTheRichestFirst() {
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        UUID poor = UUID.randomUUID();
+        UUID middle = UUID.randomUUID();
+        UUID rich = UUID.randomUUID();
+        leaderboard.offer(poor, 100L);
+        leaderboard.offer(middle, 5_000L);
+        leaderboard.offer(rich, 90_000L);
+
+        assertEquals(1, leaderboard.rank(rich));
+        assertEquals(2, leaderboard.rank(middle));
+        assertEquals(3, leaderboard.rank(poor));
+        assertEquals(-1, leaderboard.rank(UUID.randomUUID()));
+        assertEquals(95_100L, leaderboard.totalBalance());
+    }
+
+    @Test
+    void anUpdateMovesTheAccount() {
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        leaderboard.offer(first, 2_000L);
+        leaderboard.offer(second, 1_000L);
+        leaderboard.offer(second, 3_000L);
+
+        assertEquals(1, leaderboard.rank(second));
+        assertEquals(2, leaderboard.rank(first));
+        assertEquals(2, leaderboard.size());
+        assertEquals(5_000L, leaderboard.totalBalance());
+    }
+
+    @Test
+    void pagesFollowTheRanks() {
+        BalanceLeaderboard leaderboard = new BalanceLeaderboard();
+        List<UUID> players = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            UUID player = UUID.randomUUID();
+            players.add(player);
+            leaderboard.offer(player, (i + 1) * 100L);
+        }
+
+        List<LeaderboardEntry> page = leaderboard.page(10, 10);
+        assertEquals(10, page.size());
+        for (int i = 0; i < page.size(); i++) {
+            LeaderboardEntry entry = page.get(i);
+            assertEquals(11 + i, entry.rank());
+            assertEquals(players.get(89 - i), entry.playerId());
+            assertEquals((90 - i) * 100L, entry.balance());
+            assertEquals(entry.rank(), leaderboard.rank(entry.playerId()));
+        }
+
+        List<LeaderboardEntry> last = leaderboard.page(95, 10);
+        assertEquals(5, last.size());
+        assertEquals(100, last.get(4).rank());
+        assertEquals(100L, last.get(4).balance());
+        assertTrue(leaderboard.page(100, 10).isEmpty());
+    }
+}
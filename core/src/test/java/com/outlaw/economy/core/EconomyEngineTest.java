@@ -0,0 +1,82 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.metrics.EconomyMetrics;
+import com.outlaw.economy.metrics.MetricsBucket;
+import com.outlaw.economy.storage.PersistenceScheduler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EconomyEngineTest {
+
+    private static final Logger LOGGER = Logger.getLogger("test");
+
+    @TempDir
+    File dataFolder;
+
+    @Test
+    void transferCountsOnceInTheMetrics() {
+        withEngine(engine -> {
+            UUID from = UUID.randomUUID();
+            UUID to = UUID.randomUUID();
+            assertTrue(engine.depositMinor(from, 10_000L, "Admin grant"));
+            assertTrue(engine.transfer(from, to, 2_500L, "Payment to player"));
+
+            MetricsBucket window = engine.getMetrics().window(EconomyMetrics.Resolution.MINUTE);
+            assertEquals(1L, window.getCount(TransactionSource.PAYMENT));
+            assertEquals(2_500L, window.getVolume(TransactionSource.PAYMENT));
+            assertEquals(2L, window.getTransactions());
+            assertEquals(10_000L, window.getCreated());
+            assertEquals(0L, window.getDestroyed());
+        });
+    }
+
+    @Test
+    void uncoveredTransferChangesNothing() {
+        withEngine(engine -> {
+            UUID from = UUID.randomUUID();
+            UUID to = UUID.randomUUID();
+            engine.setBalanceMinor(from, 1_000L);
+            engine.setBalanceMinor(to, 0L);
+
+            assertFalse(engine.transfer(from, to, 1_001L, "Payment to player"));
+            assertEquals(1_000L, engine.getBalanceMinor(from));
+            assertEquals(0L, engine.getBalanceMinor(to));
+        });
+    }
+
+    @Test
+    void keyedDepositIsAppliedOnce() {
+        withEngine(engine -> {
+            UUID player = UUID.randomUUID();
+            UUID requestId = UUID.randomUUID();
+            engine.setBalanceMinor(player, 0L);
+
+            assertTrue(engine.depositMinor(player, 700L, "Admin grant", requestId));
+            assertTrue(engine.depositMinor(player, 700L, "Admin grant", requestId));
+            assertEquals(700L, engine.getBalanceMinor(player));
+        });
+    }
+
+    private void withEngine(Consumer<EconomyEngine> test) {
+        ExecutorTaskScheduler scheduler = new ExecutorTaskScheduler("test-main", LOGGER);
+        PersistenceScheduler persistence = new PersistenceScheduler(scheduler, LOGGER);
+        EconomyEngine engine = new EconomyEngine(EconomySettings.defaults(dataFolder), scheduler, persistence, LOGGER);
+        try {
+            test.accept(engine);
+        } finally {
+            engine.shutdown();
+            persistence.shutdown(10L);
+            engine.closeStorage();
+            scheduler.shutdown();
+        }
+    }
+}
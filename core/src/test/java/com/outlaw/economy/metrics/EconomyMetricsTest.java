@@ -0,0 +1,22 @@
+package com.outlaw.economy.metrics;
+
+import com.outlaw.economy.core.TransactionSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EconomyMetricsTest {
+
+    @Test
+    void unbalancedBatchCountsEachLeg() {
+        EconomyMetrics metrics = new EconomyMetrics(null, () -> -1L);
+        metrics.recordBatch(new long[]{-500L, 300L},
+                new TransactionSource[]{TransactionSource.ADMIN, TransactionSource.ADMIN});
+
+        MetricsBucket current = metrics.current(EconomyMetrics.Resolution.MINUTE);
+        assertEquals(2L, current.getCount(TransactionSource.ADMIN));
+        assertEquals(800L, current.getVolume(TransactionSource.ADMIN));
+        assertEquals(300L, current.getCreated());
+        assertEquals(500L, current.getDestroyed());
+    }
+}
@@ -0,0 +1,80 @@
+package com.outlaw.economy.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedBalanceStoreTest {
+
+    @TempDir
+    File directory;
+
+    @Test
+    void growsAndKeepsEveryAccount() throws IOException {
+        File file = new File(directory, "balances.dat");
+        Map<UUID, Long> balances = new HashMap<>();
+        MappedBalanceStore store = new MappedBalanceStore(file);
+        for (int i = 0; i < 5_000; i++) {
+            balances.put(UUID.randomUUID(), (long) i);
+        }
+        store.store(balances);
+        store.close();
+
+        MappedBalanceStore reopened = new MappedBalanceStore(file);
+        for (Map.Entry<UUID, Long> entry : balances.entrySet()) {
+            assertEquals(OptionalLong.of(entry.getValue()), reopened.load(entry.getKey()));
+        }
+        reopened.close();
+    }
+
+    @Test
+    void updatesDoNotGrowTheFile() throws IOException {
+        File file = new File(directory, "balances.dat");
+        Map<UUID, Long> balances = new HashMap<>();
+        for (int i = 0; i < 600; i++) {
+            balances.put(UUID.randomUUID(), 100L);
+        }
+        MappedBalanceStore store = new MappedBalanceStore(file);
+        store.store(balances);
+        long length = file.length();
+        balances.replaceAll((playerId, balance) -> 200L);
+        store.store(balances);
+
+        assertEquals(length, file.length());
+        assertEquals(OptionalLong.of(200L), store.load(balances.keySet().iterator().next()));
+        store.close();
+    }
+
+    @Test
+    void aFailedResizeLeavesTheStoreOpen() throws IOException {
+        File file = new File(directory, "balances.dat");
+        UUID kept = UUID.randomUUID();
+        MappedBalanceStore store = new MappedBalanceStore(file);
+        store.store(Map.of(kept, 42L));
+        File blocker = new File(directory, "balances.dat.tmp");
+        assertTrue(blocker.mkdir());
+        Files.writeString(new File(blocker, "file").toPath(), "x");
+
+        Map<UUID, Long> balances = new HashMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            balances.put(UUID.randomUUID(), 1L);
+        }
+        assertThrows(IOException.class, () -> store.store(balances));
+
+        assertEquals(OptionalLong.of(42L), store.load(kept));
+        store.store(Map.of(kept, 43L));
+        assertEquals(OptionalLong.of(43L), store.load(kept));
+        store.close();
+    }
+}
@@ -0,0 +1,96 @@
+package com.outlaw.economy.storage;
+
+import com.outlaw.economy.core.TransactionSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionJournalTest {
+
+    private static final Logger LOGGER = Logger.getLogger("test");
+
+    @TempDir
+    File directory;
+
+    @Test
+    void replayReturnsRecordsInOrder() throws IOException {
+        UUID player = UUID.randomUUID();
+        TransactionJournal journal = open(1L << 20);
+        journal.append(player, 500L, 500L, TransactionSource.ADMIN);
+        journal.append(player, -200L, 300L, TransactionSource.SHOP_BUY);
+        journal.close();
+
+        List<String> records = replay();
+        assertEquals(List.of(player + " 500 500 ADMIN", player + " -200 300 SHOP_BUY"), records);
+    }
+
+    @Test
+    void replaySpansRolledSegments() throws IOException {
+        UUID player = UUID.randomUUID();
+        TransactionJournal journal = open(0L);
+        for (int i = 1; i <= 100; i++) {
+            journal.append(player, 1L, i, TransactionSource.PAYMENT);
+            if (i % 10 == 0) {
+                journal.seal(journal.mark());
+            }
+        }
+        journal.close();
+
+        List<String> records = replay();
+        assertEquals(100, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(player + " 1 " + (i + 1) + " PAYMENT", records.get(i));
+        }
+    }
+
+    @Test
+    void deleteBeforeKeepsLaterGenerations() throws IOException {
+        UUID player = UUID.randomUUID();
+        TransactionJournal journal = open(1L << 20);
+        journal.append(player, 100L, 100L, TransactionSource.ADMIN);
+        long checkpoint = journal.mark();
+        journal.append(player, 50L, 150L, TransactionSource.ADMIN);
+        journal.seal(checkpoint);
+        journal.append(player, 25L, 175L, TransactionSource.ADMIN);
+        journal.deleteBefore(checkpoint);
+        journal.close();
+
+        assertEquals(List.of(player + " 50 150 ADMIN", player + " 25 175 ADMIN"), replay());
+    }
+
+    @Test
+    void sealWithoutANewGenerationKeepsTheSegment() throws IOException {
+        UUID player = UUID.randomUUID();
+        TransactionJournal journal = open(1L << 20);
+        journal.append(player, 100L, 100L, TransactionSource.ADMIN);
+        journal.seal(journal.generation());
+        journal.deleteBefore(journal.generation());
+        long bytes = journal.liveBytes();
+        journal.close();
+
+        assertTrue(bytes > 0);
+        assertEquals(List.of(player + " 100 100 ADMIN"), replay());
+    }
+
+    private TransactionJournal open(long segmentSize) throws IOException {
+        TransactionJournal journal = new TransactionJournal(directory, LOGGER, segmentSize);
+        journal.open();
+        return journal;
+    }
+
+    private List<String> replay() {
+        List<String> records = new ArrayList<>();
+        new TransactionJournal(directory, LOGGER, 1L << 20).replay((playerId, delta, balance, source, timestamp) ->
+                records.add(playerId + " " + delta + " " + balance + " " + source));
+        return records;
+    }
+}
@@ -3,11 +3,17 @@ package com.outlaw.economy;
 import com.outlaw.economy.api.EconomyAPI;
 import com.outlaw.economy.api.EconomyService;
 import com.outlaw.economy.command.BalanceCommand;
+import com.outlaw.economy.command.BaltopCommand;
+import com.outlaw.economy.command.EcoAdminCommand;
 import com.outlaw.economy.command.MoneyAdminCommand;
 import com.outlaw.economy.command.PayCommand;
+import com.outlaw.economy.core.BukkitTaskScheduler;
 import com.outlaw.economy.core.EconomyManager;
+import com.outlaw.economy.core.TaskScheduler;
 import com.outlaw.economy.integration.VaultEconomyBridge;
+import com.outlaw.economy.metrics.PerformanceMonitor;
 import com.outlaw.economy.shop.ShopManager;
+import com.outlaw.economy.storage.PersistenceScheduler;
 import com.outlaw.economy.trade.TradeManager;
 import org.bukkit.Bukkit;
 import org.bukkit.command.PluginCommand;
@@ -19,6 +25,8 @@ import net.milkbowl.vault.economy.Economy;
 
 public class OutlawEconomyPlugin extends JavaPlugin implements Listener {
 
+    private PersistenceScheduler persistenceScheduler;
+    private PerformanceMonitor performanceMonitor;
     private EconomyManager economyManager;
     private ShopManager shopManager;
     private TradeManager tradeManager;
@@ -31,7 +39,11 @@ public class OutlawEconomyPlugin extends JavaPlugin implements Listener {
     @Override
     public void onEnable() {
         saveDefaultConfig();
-        this.economyManager = new EconomyManager(this);
+        TaskScheduler scheduler = new BukkitTaskScheduler(this);
+        this.performanceMonitor = new PerformanceMonitor(scheduler, getLogger());
+        performanceMonitor.start(getConfig().getBoolean("performance.enabled", true));
+        this.persistenceScheduler = new PersistenceScheduler(scheduler, getLogger());
+        this.economyManager = new EconomyManager(this, scheduler, persistenceScheduler);
         this.shopManager = new ShopManager(this);
         this.tradeManager = new TradeManager(this, economyManager);
 
@@ -51,6 +63,7 @@ public class OutlawEconomyPlugin extends JavaPlugin implements Listener {
         Bukkit.getPluginManager().registerEvents(economyManager, this);
 
         registerCommands();
+        persistenceScheduler.start(getConfig().getLong("storage.flush-interval-ticks", 40L));
 
         for (Player player : Bukkit.getOnlinePlayers()) {
             economyManager.initializePlayer(player);
@@ -62,11 +75,20 @@ public class OutlawEconomyPlugin extends JavaPlugin implements Listener {
     @Override
     public void onDisable() {
         if (economyManager != null) {
-            economyManager.saveAll();
+            economyManager.shutdown();
         }
         if (shopManager != null) {
             shopManager.shutdown();
         }
+        if (persistenceScheduler != null) {
+            persistenceScheduler.shutdown(getConfig().getLong("storage.shutdown-timeout-seconds", 10L));
+        }
+        if (economyManager != null) {
+            economyManager.closeStorage();
+        }
+        if (performanceMonitor != null) {
+            performanceMonitor.shutdown();
+        }
         EconomyAPI.unregister();
         Bukkit.getServicesManager().unregister(EconomyService.class, economyManager);
         if (vaultBridge != null) {
@@ -76,13 +98,21 @@ public class OutlawEconomyPlugin extends JavaPlugin implements Listener {
     }
 
     private void registerCommands() {
+        BaltopCommand baltop = new BaltopCommand(economyManager);
+
         PluginCommand balanceCommand = getCommand("balance");
         if (balanceCommand != null) {
-            BalanceCommand executor = new BalanceCommand(economyManager);
+            BalanceCommand executor = new BalanceCommand(economyManager, baltop);
             balanceCommand.setExecutor(executor);
             balanceCommand.setTabCompleter(executor);
         }
 
+        PluginCommand baltopCommand = getCommand("baltop");
+        if (baltopCommand != null) {
+            baltopCommand.setExecutor(baltop);
+            baltopCommand.setTabCompleter(baltop);
+        }
+
         PluginCommand payCommand = getCommand("pay");
         if (payCommand != null) {
             PayCommand executor = new PayCommand(economyManager);
@@ -115,6 +145,17 @@ public class OutlawEconomyPlugin extends JavaPlugin implements Listener {
             removeMoneyCommand.setExecutor(moneyAdminCommand);
             removeMoneyCommand.setTabCompleter(moneyAdminCommand);
         }
+
+        PluginCommand ecoCommand = getCommand("eco");
+        if (ecoCommand != null) {
+            EcoAdminCommand executor = new EcoAdminCommand(economyManager, performanceMonitor);
+            ecoCommand.setExecutor(executor);
+            ecoCommand.setTabCompleter(executor);
+        }
+    }
+
+    public PersistenceScheduler getPersistenceScheduler() {
+        return persistenceScheduler;
     }
 
     public EconomyManager getEconomyManager() {
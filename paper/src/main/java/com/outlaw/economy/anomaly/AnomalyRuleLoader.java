@@ -0,0 +1,84 @@
+package com.outlaw.economy.anomaly;
+
+import com.outlaw.economy.api.Money;
+import com.outlaw.economy.core.TransactionSource;
+import org.bukkit.configuration.ConfigurationSection;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * Reads the {@link AnomalyRule}s of the {@code anomaly.rules} section of config.yml.
+ */
+public final class AnomalyRuleLoader {
+
+    private static final long DEFAULT_THRESHOLD = 20_000L;
+    private static final long DEFAULT_WINDOW_SECONDS = 300L;
+    private static final int DEFAULT_BUCKETS = 30;
+
+    private AnomalyRuleLoader() {
+    }
+
+    public static List<AnomalyRule> load(ConfigurationSection section, Logger logger) {
+        if (section == null) {
+            long window = DEFAULT_WINDOW_SECONDS * 1000L;
+            return List.of(new ThresholdRule("earnings", Collections.emptySet(), window,
+                    window, DEFAULT_BUCKETS, Money.ofWhole(DEFAULT_THRESHOLD), false));
+        }
+        List<AnomalyRule> rules = new ArrayList<>();
+        for (String name : section.getKeys(false)) {
+            ConfigurationSection rule = section.getConfigurationSection(name);
+            if (rule == null || !rule.getBoolean("enabled", true)) {
+                continue;
+            }
+            try {
+                AnomalyRule parsed = parseRule(name, rule);
+                if (parsed != null) {
+                    rules.add(parsed);
+                } else {
+                    logger.warning("Type de règle d'anomalie inconnu pour " + name + ": " + rule.getString("type"));
+                }
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                logger.warning("Règle d'anomalie " + name + " ignorée: " + e.getMessage());
+            }
+        }
+        return rules;
+    }
+
+    private static AnomalyRule parseRule(String name, ConfigurationSection rule) {
+        String type = rule.getString("type", "threshold").toLowerCase(Locale.ROOT);
+        Set<TransactionSource> sources = parseSources(rule.getStringList("sources"));
+        long windowMillis = Math.max(1L, rule.getLong("window-seconds", DEFAULT_WINDOW_SECONDS)) * 1000L;
+        int buckets = Math.max(1, rule.getInt("buckets", DEFAULT_BUCKETS));
+        long cooldownMillis = Math.max(0L, rule.getLong("cooldown-seconds", windowMillis / 1000L)) * 1000L;
+        return switch (type) {
+            case "threshold" -> new ThresholdRule(name, sources, cooldownMillis, windowMillis, buckets,
+                    Money.ofMajor(rule.getDouble("threshold", DEFAULT_THRESHOLD)),
+                    rule.getString("direction", "in").equalsIgnoreCase("out"));
+            case "velocity" -> new VelocityRule(name, sources, cooldownMillis, windowMillis, buckets,
+                    Math.max(1L, rule.getLong("max-count", 100L)));
+            case "ratio" -> new RatioRule(name, sources, cooldownMillis, windowMillis, buckets,
+                    rule.getDouble("ratio", 10d), Money.ofMajor(rule.getDouble("minimum-income", 0d)));
+            case "zscore" -> new ZScoreRule(name, sources, cooldownMillis,
+                    Math.min(1d, Math.max(0.001d, rule.getDouble("alpha", 0.05d))),
+                    rule.getDouble("z", 6d),
+                    Math.max(2, rule.getInt("minimum-samples", 20)),
+                    Money.ofMajor(rule.getDouble("minimum-amount", 0d)),
+                    Math.max(1L, rule.getLong("retention-minutes", 60L)) * 60_000L);
+            default -> null;
+        };
+    }
+
+    private static Set<TransactionSource> parseSources(List<String> names) {
+        Set<TransactionSource> sources = EnumSet.noneOf(TransactionSource.class);
+        for (String name : names) {
+            sources.add(TransactionSource.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_')));
+        }
+        return sources;
+    }
+}
@@ -0,0 +1,190 @@
+package com.outlaw.economy.api;
+
+import org.bukkit.Bukkit;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+public final class EconomyAPI {
+
+    private static final MoneyFormat FALLBACK_FORMAT = new MoneyFormat(Locale.US);
+
+    private static EconomyService economyService;
+
+    private EconomyAPI() {
+    }
+
+    public static void register(EconomyService service) {
+        economyService = service;
+    }
+
+    public static void unregister() {
+        economyService = null;
+    }
+
+    public static Optional<EconomyService> get() {
+        if (economyService != null) {
+            return Optional.of(economyService);
+        }
+        return Optional.ofNullable(Bukkit.getServicesManager().load(EconomyService.class));
+    }
+
+    public static double getBalance(UUID playerId) {
+        return get().map(service -> service.getBalance(playerId)).orElse(0d);
+    }
+
+    public static long getBalanceMinor(UUID playerId) {
+        return get().map(service -> service.getBalanceMinor(playerId)).orElse(0L);
+    }
+
+    public static boolean withdraw(UUID playerId, double amount) {
+        return withdraw(playerId, amount, "");
+    }
+
+    public static boolean withdraw(UUID playerId, double amount, String reason) {
+        return get().map(service -> service.withdraw(playerId, amount, reason)).orElse(false);
+    }
+
+    public static boolean deposit(UUID playerId, double amount) {
+        return deposit(playerId, amount, "");
+    }
+
+    public static boolean deposit(UUID playerId, double amount, String reason) {
+        return get().map(service -> service.deposit(playerId, amount, reason)).orElse(false);
+    }
+
+    public static boolean withdrawMinor(UUID playerId, long amount, String reason) {
+        return get().map(service -> service.withdrawMinor(playerId, amount, reason)).orElse(false);
+    }
+
+    public static boolean depositMinor(UUID playerId, long amount, String reason) {
+        return get().map(service -> service.depositMinor(playerId, amount, reason)).orElse(false);
+    }
+
+    public static boolean transfer(UUID from, UUID to, long amount, String reason) {
+        return get().map(service -> service.transfer(from, to, amount, reason)).orElse(false);
+    }
+
+    public static boolean applyBatch(List<BalanceOperation> operations) {
+        return get().map(service -> service.applyBatch(operations)).orElse(false);
+    }
+
+    public static boolean withdrawMinor(UUID playerId, long amount, String reason, UUID requestId) {
+        return get().map(service -> service.withdrawMinor(playerId, amount, reason, requestId)).orElse(false);
+    }
+
+    public static boolean depositMinor(UUID playerId, long amount, String reason, UUID requestId) {
+        return get().map(service -> service.depositMinor(playerId, amount, reason, requestId)).orElse(false);
+    }
+
+    public static boolean transfer(UUID from, UUID to, long amount, String reason, UUID requestId) {
+        return get().map(service -> service.transfer(from, to, amount, reason, requestId)).orElse(false);
+    }
+
+    public static boolean applyBatch(List<BalanceOperation> operations, UUID requestId) {
+        return get().map(service -> service.applyBatch(operations, requestId)).orElse(false);
+    }
+
+    public static CompletableFuture<Long> getBalanceMinorAsync(UUID playerId) {
+        return get().map(service -> service.async().getBalanceMinor(playerId))
+                .orElseGet(() -> CompletableFuture.completedFuture(0L));
+    }
+
+    public static CompletableFuture<Boolean> depositMinorAsync(UUID playerId, long amount, String reason) {
+        return depositMinorAsync(playerId, amount, reason, null);
+    }
+
+    public static CompletableFuture<Boolean> depositMinorAsync(UUID playerId, long amount, String reason, UUID requestId) {
+        return get().map(service -> service.async().depositMinor(playerId, amount, reason, requestId))
+                .orElseGet(() -> CompletableFuture.completedFuture(false));
+    }
+
+    public static CompletableFuture<Boolean> withdrawMinorAsync(UUID playerId, long amount, String reason) {
+        return withdrawMinorAsync(playerId, amount, reason, null);
+    }
+
+    public static CompletableFuture<Boolean> withdrawMinorAsync(UUID playerId, long amount, String reason, UUID requestId) {
+        return get().map(service -> service.async().withdrawMinor(playerId, amount, reason, requestId))
+                .orElseGet(() -> CompletableFuture.completedFuture(false));
+    }
+
+    public static CompletableFuture<Boolean> transferAsync(UUID from, UUID to, long amount, String reason) {
+        return transferAsync(from, to, amount, reason, null);
+    }
+
+    public static CompletableFuture<Boolean> transferAsync(UUID from, UUID to, long amount, String reason, UUID requestId) {
+        return get().map(service -> service.async().transfer(from, to, amount, reason, requestId))
+                .orElseGet(() -> CompletableFuture.completedFuture(false));
+    }
+
+    public static CompletableFuture<Boolean> applyBatchAsync(List<BalanceOperation> operations) {
+        return applyBatchAsync(operations, null);
+    }
+
+    public static CompletableFuture<Boolean> applyBatchAsync(List<BalanceOperation> operations, UUID requestId) {
+        return get().map(service -> service.async().applyBatch(operations, requestId))
+                .orElseGet(() -> CompletableFuture.completedFuture(false));
+    }
+
+    public static List<Currency> currencies() {
+        return get().map(EconomyService::currencies).orElse(List.of(Currency.DEFAULT));
+    }
+
+    /**
+     * Resolves a currency once, to pass to the overloads taking a {@link Currency}.
+     */
+    public static Optional<Currency> currency(String name) {
+        return get().map(service -> service.currency(name));
+    }
+
+    public static long getBalanceMinor(Currency currency, UUID playerId) {
+        return get().map(service -> service.getBalanceMinor(currency, playerId)).orElse(0L);
+    }
+
+    public static boolean depositMinor(Currency currency, UUID playerId, long amount, String reason) {
+        return get().map(service -> service.depositMinor(currency, playerId, amount, reason)).orElse(false);
+    }
+
+    public static boolean withdrawMinor(Currency currency, UUID playerId, long amount, String reason) {
+        return get().map(service -> service.withdrawMinor(currency, playerId, amount, reason)).orElse(false);
+    }
+
+    public static boolean transfer(Currency currency, UUID from, UUID to, long amount, String reason) {
+        return get().map(service -> service.transfer(currency, from, to, amount, reason)).orElse(false);
+    }
+
+    public static String formatMinor(Currency currency, long amount) {
+        return get().map(service -> service.formatMinor(currency, amount)).orElseGet(() -> FALLBACK_FORMAT.format(amount));
+    }
+
+    public static String currencyCode(Currency currency) {
+        return get().map(service -> service.currencyCode(currency)).orElse(currency.name());
+    }
+
+    public static int getRank(UUID playerId) {
+        return get().map(service -> service.getRank(playerId)).orElse(-1);
+    }
+
+    public static List<LeaderboardEntry> getTopBalances(int offset, int limit) {
+        return get().map(service -> service.getTopBalances(offset, limit)).orElse(List.of());
+    }
+
+    public static List<LedgerEntry> getHistory(UUID playerId, int offset, int limit) {
+        return get().map(service -> service.getHistory(playerId, offset, limit)).orElse(List.of());
+    }
+
+    public static String format(double amount) {
+        return get().map(service -> service.format(amount)).orElse(String.format(Locale.US, "%.2f", amount));
+    }
+
+    public static String formatMinor(long amount) {
+        return get().map(service -> service.formatMinor(amount)).orElseGet(() -> FALLBACK_FORMAT.format(amount));
+    }
+
+    public static String currencyCode() {
+        return get().map(EconomyService::currencyCode).orElse("$");
+    }
+}
@@ -0,0 +1,125 @@
+package com.outlaw.economy.command;
+
+import com.outlaw.economy.api.Currency;
+import com.outlaw.economy.core.EconomyManager;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+public class BalanceCommand implements CommandExecutor, TabCompleter {
+
+    private static final int MAX_SUGGESTIONS = 50;
+
+    private final EconomyManager economyManager;
+    private final BaltopCommand baltop;
+
+    public BalanceCommand(EconomyManager economyManager, BaltopCommand baltop) {
+        this.economyManager = economyManager;
+        this.baltop = baltop;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0) {
+            if (!(sender instanceof Player player)) {
+                sender.sendMessage("Only players can use this command without arguments.");
+                return true;
+            }
+            long balance = economyManager.getBalanceMinor(player.getUniqueId());
+            sender.sendMessage("§aVotre argent: §e" + economyManager.formatMinor(balance) + " " + economyManager.currencyCode());
+            sendOtherCurrencies(sender, player.getUniqueId());
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("rank")) {
+            sendRank(sender, args);
+            return true;
+        }
+
+        if (!sender.hasPermission("outlawecoadmin")) {
+            sender.sendMessage("§cVous n'avez pas la permission d'utiliser cette commande.");
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("all")) {
+            int page = 1;
+            if (args.length > 1) {
+                try {
+                    page = Integer.parseInt(args[1]);
+                } catch (NumberFormatException e) {
+                    sender.sendMessage("§cPage invalide: " + args[1]);
+                    return true;
+                }
+            }
+            baltop.sendPage(sender, page, "/" + label + " all");
+            return true;
+        }
+
+        UUID targetId = economyManager.resolvePlayerId(args[0]);
+        if (targetId == null) {
+            sender.sendMessage("§cJoueur introuvable: " + args[0]);
+            return true;
+        }
+
+        long balance = economyManager.getBalanceMinor(targetId);
+        String targetName = economyManager.getPlayerName(targetId);
+        sender.sendMessage("§e" + targetName + "§7 possède §a" + economyManager.formatMinor(balance) + " " + economyManager.currencyCode() + "§7.");
+        sendOtherCurrencies(sender, targetId);
+        return true;
+    }
+
+    private void sendOtherCurrencies(CommandSender sender, UUID playerId) {
+        List<Currency> currencies = economyManager.currencies();
+        for (int i = 1; i < currencies.size(); i++) {
+            Currency currency = currencies.get(i);
+            sender.sendMessage("§7" + currency.name() + ": §e" + economyManager.formatMinor(currency,
+                    economyManager.getBalanceMinor(currency, playerId)) + " " + economyManager.currencyCode(currency));
+        }
+    }
+
+    private void sendRank(CommandSender sender, String[] args) {
+        UUID targetId;
+        if (args.length > 1) {
+            targetId = economyManager.resolvePlayerId(args[1]);
+            if (targetId == null) {
+                sender.sendMessage("§cJoueur introuvable: " + args[1]);
+                return;
+            }
+        } else if (sender instanceof Player player) {
+            targetId = player.getUniqueId();
+        } else {
+            sender.sendMessage("Utilisation: /balance rank <joueur>");
+            return;
+        }
+        String targetName = economyManager.getPlayerName(targetId);
+        int rank = economyManager.getRank(targetId);
+        if (rank < 0) {
+            sender.sendMessage("§e" + targetName + "§7 n'apparaît pas encore dans le classement.");
+            return;
+        }
+        sender.sendMessage("§e" + targetName + "§7 est §6#" + rank + "§7 sur " + economyManager.getRankedAccounts() + " comptes.");
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 1) {
+            List<String> suggestions = new ArrayList<>();
+            suggestions.add("rank");
+            if (sender.hasPermission("outlawecoadmin")) {
+                suggestions.add("all");
+                suggestions.addAll(economyManager.completePlayerNames(args[0], MAX_SUGGESTIONS));
+            }
+            return suggestions;
+        }
+        if (args.length == 2 && args[0].equalsIgnoreCase("rank")) {
+            return economyManager.completePlayerNames(args[1], MAX_SUGGESTIONS);
+        }
+        return List.of();
+    }
+}
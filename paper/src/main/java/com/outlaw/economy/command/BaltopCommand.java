@@ -0,0 +1,73 @@
+package com.outlaw.economy.command;
+
+import com.outlaw.economy.api.LeaderboardEntry;
+import com.outlaw.economy.core.EconomyManager;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.util.List;
+
+public class BaltopCommand implements CommandExecutor, TabCompleter {
+
+    private static final int PAGE_SIZE = 10;
+
+    private final EconomyManager economyManager;
+
+    public BaltopCommand(EconomyManager economyManager) {
+        this.economyManager = economyManager;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        int page = 1;
+        if (args.length > 0) {
+            try {
+                page = Integer.parseInt(args[0]);
+            } catch (NumberFormatException e) {
+                sender.sendMessage("§cPage invalide: " + args[0]);
+                return true;
+            }
+        }
+        sendPage(sender, page, "/" + label);
+        return true;
+    }
+
+    /**
+     * Shows one page of the leaderboard; only the names of that page are resolved.
+     */
+    public void sendPage(CommandSender sender, int page, String pageCommand) {
+        if (!economyManager.isLeaderboardReady()) {
+            sender.sendMessage("§eLe classement est en cours de construction, les comptes hors ligne peuvent manquer.");
+        }
+        int total = economyManager.getRankedAccounts();
+        if (total == 0) {
+            sender.sendMessage("§cAucun compte n'a encore été créé.");
+            return;
+        }
+        int pages = (total + PAGE_SIZE - 1) / PAGE_SIZE;
+        if (page < 1 || page > pages) {
+            sender.sendMessage("§cPage invalide, choisissez entre 1 et " + pages + ".");
+            return;
+        }
+        List<LeaderboardEntry> entries = economyManager.getTopBalances((page - 1) * PAGE_SIZE, PAGE_SIZE);
+        sender.sendMessage("§6Classement des soldes §7(page " + page + "/" + pages + ")§6:");
+        for (LeaderboardEntry entry : entries) {
+            String name = economyManager.getPlayerName(entry.playerId());
+            if (name == null) {
+                name = entry.playerId().toString();
+            }
+            sender.sendMessage("§7#" + entry.rank() + " §e" + name + "§7: §a"
+                    + economyManager.formatMinor(entry.balance()) + " " + economyManager.currencyCode());
+        }
+        if (page < pages) {
+            sender.sendMessage("§7Page suivante: §e" + pageCommand + " " + (page + 1));
+        }
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        return List.of();
+    }
+}
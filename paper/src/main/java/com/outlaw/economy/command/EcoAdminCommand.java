@@ -0,0 +1,304 @@
+package com.outlaw.economy.command;
+
+import com.outlaw.economy.api.LedgerEntry;
+import com.outlaw.economy.core.EconomyManager;
+import com.outlaw.economy.core.TransactionSource;
+import com.outlaw.economy.metrics.EconomyMetrics;
+import com.outlaw.economy.metrics.HotPath;
+import com.outlaw.economy.metrics.LatencyHistogram;
+import com.outlaw.economy.metrics.MetricsBucket;
+import com.outlaw.economy.metrics.PerformanceMonitor;
+import com.outlaw.economy.storage.BalanceStores;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+public class EcoAdminCommand implements CommandExecutor, TabCompleter {
+
+    private static final List<String> SUBCOMMANDS = List.of("migrate", "history", "stats", "perf");
+    private static final List<String> PERF_ACTIONS = List.of("on", "off", "reset");
+    private static final List<String> RESOLUTIONS = List.of("minute", "hour", "day");
+    private static final int STATS_SERIES_LENGTH = 10;
+    private static final int PROGRESS_STEP = 10_000;
+    private static final int HISTORY_PAGE_SIZE = 10;
+    private static final DateTimeFormatter HISTORY_TIME = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+    private static final DateTimeFormatter STATS_TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final DateTimeFormatter STATS_DAY = DateTimeFormatter.ofPattern("dd/MM");
+    private static final List<String> STATS_UNITS = List.of("minute", "heure", "jour");
+
+    private final EconomyManager economyManager;
+    private final PerformanceMonitor performanceMonitor;
+
+    public EcoAdminCommand(EconomyManager economyManager, PerformanceMonitor performanceMonitor) {
+        this.economyManager = economyManager;
+        this.performanceMonitor = performanceMonitor;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (!sender.hasPermission("outlawecoadmin")) {
+            sender.sendMessage("§cVous n'avez pas la permission d'utiliser cette commande.");
+            return true;
+        }
+
+        if (args.length == 0) {
+            sender.sendMessage("§cUtilisation: /" + label + " <" + String.join("|", SUBCOMMANDS) + ">");
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("migrate")) {
+            handleMigrate(sender, label, args);
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("history")) {
+            handleHistory(sender, label, args);
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("stats")) {
+            handleStats(sender, label, args);
+            return true;
+        }
+
+        if (args[0].equalsIgnoreCase("perf")) {
+            handlePerf(sender, label, args);
+            return true;
+        }
+
+        sender.sendMessage("§cSous-commande inconnue: " + args[0]);
+        return true;
+    }
+
+    private void handleMigrate(CommandSender sender, String label, String[] args) {
+        if (args.length != 3) {
+            sender.sendMessage("§cUtilisation: /" + label + " migrate <" + String.join("|", BalanceStores.TYPES)
+                    + "> <" + String.join("|", BalanceStores.TYPES) + ">");
+            return;
+        }
+        String from = args[1].toLowerCase(Locale.ROOT);
+        String to = args[2].toLowerCase(Locale.ROOT);
+        try {
+            economyManager.migrateStore(from, to, new EconomyManager.MigrationListener() {
+                @Override
+                public void onProgress(int copied) {
+                    if (copied % PROGRESS_STEP == 0) {
+                        reply(sender, "§7Migration: §e" + copied + " §7comptes copiés...");
+                    }
+                }
+
+                @Override
+                public void onComplete(int copied, boolean mirrored) {
+                    reply(sender, "§aMigration terminée: §e" + copied + " §acomptes copiés de §e" + from + " §avers §e" + to + "§a.");
+                    if (mirrored) {
+                        reply(sender, "§7Les changements sont recopiés vers §e" + to
+                                + " §7jusqu'à l'arrêt. Réglez storage.backend sur §e" + to + " §7puis redémarrez.");
+                    }
+                }
+
+                @Override
+                public void onFailure(String error) {
+                    reply(sender, "§cLa migration a échoué: " + error);
+                }
+            });
+        } catch (IllegalArgumentException e) {
+            sender.sendMessage("§c" + e.getMessage());
+            return;
+        }
+        sender.sendMessage("§7Migration de §e" + from + " §7vers §e" + to + " §7lancée (stockage actif: §e"
+                + economyManager.getBackend() + "§7).");
+    }
+
+    private void handleHistory(CommandSender sender, String label, String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            sender.sendMessage("§cUtilisation: /" + label + " history <joueur> [page]");
+            return;
+        }
+        UUID targetId = economyManager.resolvePlayerId(args[1]);
+        if (targetId == null) {
+            sender.sendMessage("§cJoueur introuvable: " + args[1]);
+            return;
+        }
+        int page = 1;
+        if (args.length == 3) {
+            try {
+                page = Integer.parseInt(args[2]);
+            } catch (NumberFormatException e) {
+                page = 0;
+            }
+            if (page < 1) {
+                sender.sendMessage("§cPage invalide: " + args[2]);
+                return;
+            }
+        }
+        String targetName = economyManager.getPlayerName(targetId);
+        int shownPage = page;
+        economyManager.loadHistory(targetId, (page - 1) * HISTORY_PAGE_SIZE, HISTORY_PAGE_SIZE + 1, entries -> {
+            if (entries.isEmpty()) {
+                sender.sendMessage("§7Aucune transaction pour §e" + targetName + "§7 sur cette page.");
+                return;
+            }
+            sender.sendMessage("§6Historique de §e" + targetName + " §7(page " + shownPage + ")§6:");
+            String currency = economyManager.currencyCode();
+            for (LedgerEntry entry : entries.subList(0, Math.min(HISTORY_PAGE_SIZE, entries.size()))) {
+                String time = HISTORY_TIME.format(Instant.ofEpochMilli(entry.timestamp()).atZone(ZoneId.systemDefault()));
+                String amount = entry.amount() >= 0
+                        ? "§a+" + economyManager.formatMinor(entry.amount())
+                        : "§c-" + economyManager.formatMinor(-entry.amount());
+                StringBuilder line = new StringBuilder("§8[" + time + "] " + amount + " " + currency
+                        + " §7→ §e" + economyManager.formatMinor(entry.balance()) + " " + currency);
+                if (entry.counterparty() != null) {
+                    String other = economyManager.getPlayerName(entry.counterparty());
+                    line.append(" §7avec §e").append(other != null ? other : entry.counterparty().toString());
+                }
+                if (entry.reason() != null && !entry.reason().isBlank()) {
+                    line.append(" §8(").append(entry.reason()).append(")");
+                }
+                sender.sendMessage(line.toString());
+            }
+            if (entries.size() > HISTORY_PAGE_SIZE) {
+                sender.sendMessage("§7Page suivante: §e/" + label + " history " + args[1] + " " + (shownPage + 1));
+            }
+        });
+    }
+
+    private void handleStats(CommandSender sender, String label, String[] args) {
+        EconomyMetrics metrics = economyManager.getMetrics();
+        if (args.length == 2) {
+            int index = RESOLUTIONS.indexOf(args[1].toLowerCase(Locale.ROOT));
+            if (index < 0) {
+                sender.sendMessage("§cUtilisation: /" + label + " stats [" + String.join("|", RESOLUTIONS) + "]");
+                return;
+            }
+            EconomyMetrics.Resolution resolution = EconomyMetrics.Resolution.values()[index];
+            DateTimeFormatter format = resolution == EconomyMetrics.Resolution.DAY ? STATS_DAY : STATS_TIME;
+            sender.sendMessage("§6Statistiques par " + STATS_UNITS.get(index) + " §7(la plus récente en premier):");
+            for (MetricsBucket bucket : metrics.series(resolution, STATS_SERIES_LENGTH)) {
+                String start = format.format(Instant.ofEpochMilli(bucket.getStart()).atZone(ZoneId.systemDefault()));
+                sender.sendMessage("§8" + start + " " + describeFlow(bucket));
+            }
+            return;
+        }
+        long supply = metrics.current(EconomyMetrics.Resolution.MINUTE).getSupply();
+        sender.sendMessage("§6Statistiques de l'économie:");
+        if (supply < 0) {
+            sender.sendMessage("§7Masse monétaire: §eclassement en cours de construction");
+        } else {
+            sender.sendMessage("§7Masse monétaire: §e" + money(supply) + " §7(" + economyManager.getRankedAccounts() + " comptes)");
+        }
+        sender.sendMessage("§7Dernière heure: " + describeFlow(metrics.window(EconomyMetrics.Resolution.MINUTE)));
+        MetricsBucket day = metrics.window(EconomyMetrics.Resolution.HOUR);
+        sender.sendMessage("§7Dernières 24 h: " + describeFlow(day));
+        sender.sendMessage("§730 derniers jours: " + describeFlow(metrics.window(EconomyMetrics.Resolution.DAY)));
+        if (supply > 0) {
+            sender.sendMessage("§7Vélocité sur 24 h: §e" + String.format(Locale.ROOT, "%.3f", (double) day.getTotalVolume() / supply));
+        }
+        StringBuilder bySource = new StringBuilder("§7Par source sur 24 h:");
+        for (TransactionSource source : TransactionSource.values()) {
+            long count = day.getCount(source);
+            if (count > 0) {
+                bySource.append(" §f").append(source.name().toLowerCase(Locale.ROOT)).append(" §e").append(count)
+                        .append(" §7tx / §e").append(money(day.getVolume(source))).append("§7;");
+            }
+        }
+        sender.sendMessage(bySource.toString());
+    }
+
+    private void handlePerf(CommandSender sender, String label, String[] args) {
+        if (args.length == 2) {
+            switch (args[1].toLowerCase(Locale.ROOT)) {
+                case "on" -> {
+                    performanceMonitor.setEnabled(true);
+                    sender.sendMessage("§aMesures de performance activées.");
+                }
+                case "off" -> {
+                    performanceMonitor.setEnabled(false);
+                    sender.sendMessage("§eMesures de performance désactivées.");
+                }
+                case "reset" -> {
+                    performanceMonitor.reset();
+                    sender.sendMessage("§aMesures de performance remises à zéro.");
+                }
+                default -> sender.sendMessage("§cUtilisation: /" + label + " perf [" + String.join("|", PERF_ACTIONS) + "]");
+            }
+            return;
+        }
+        sender.sendMessage("§6Performances " + (performanceMonitor.isEnabled() ? "§a(actives)" : "§c(désactivées)")
+                + " §7- appels/s sur 1 min, durées depuis la dernière remise à zéro:");
+        for (HotPath path : HotPath.values()) {
+            LatencyHistogram.Snapshot snapshot = path.getHistogram().snapshot();
+            if (snapshot.count() == 0) {
+                sender.sendMessage("§e" + path.getDisplayName() + " §8aucun appel");
+                continue;
+            }
+            sender.sendMessage("§e" + path.getDisplayName() + " §7n=" + snapshot.count()
+                    + " §f" + String.format(Locale.ROOT, "%.1f/s", performanceMonitor.rate(path))
+                    + " §7p50 §a" + duration(snapshot.percentile(0.5))
+                    + " §7p99 §e" + duration(snapshot.percentile(0.99))
+                    + " §7max §c" + duration(snapshot.max()));
+        }
+    }
+
+    private static String duration(long nanos) {
+        if (nanos < 1_000L) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000L) {
+            return String.format(Locale.ROOT, "%.1f µs", nanos / 1_000d);
+        }
+        return String.format(Locale.ROOT, "%.2f ms", nanos / 1_000_000d);
+    }
+
+    private String describeFlow(MetricsBucket bucket) {
+        long net = bucket.getCreated() - bucket.getDestroyed();
+        return "§a+" + money(bucket.getCreated()) + " §7créés, §c-" + money(bucket.getDestroyed()) + " §7détruits (net §e"
+                + (net < 0 ? "-" + money(-net) : "+" + money(net)) + "§7), §e" + bucket.getTransactions()
+                + " §7transactions, volume §e" + money(bucket.getTotalVolume());
+    }
+
+    private String money(long amount) {
+        return economyManager.formatMinor(amount) + " " + economyManager.currencyCode();
+    }
+
+    private void reply(CommandSender sender, String message) {
+        Bukkit.getScheduler().runTask(economyManager.getPlugin(), () -> sender.sendMessage(message));
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (!sender.hasPermission("outlawecoadmin")) {
+            return List.of();
+        }
+        if (args.length == 1) {
+            return filter(SUBCOMMANDS, args[0]);
+        }
+        if (args[0].equalsIgnoreCase("migrate") && (args.length == 2 || args.length == 3)) {
+            return filter(BalanceStores.TYPES, args[args.length - 1]);
+        }
+        if (args[0].equalsIgnoreCase("perf") && args.length == 2) {
+            return filter(PERF_ACTIONS, args[1]);
+        }
+        if (args[0].equalsIgnoreCase("stats") && args.length == 2) {
+            return filter(RESOLUTIONS, args[1]);
+        }
+        if (args[0].equalsIgnoreCase("history") && args.length == 2) {
+            return economyManager.completePlayerNames(args[1], 50);
+        }
+        return List.of();
+    }
+
+    private static List<String> filter(List<String> options, String prefix) {
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        return options.stream().filter(option -> option.startsWith(lower)).collect(Collectors.toList());
+    }
+}
@@ -1,21 +1,21 @@
 package com.outlaw.economy.command;
 
+import com.outlaw.economy.api.Money;
 import com.outlaw.economy.core.EconomyManager;
 import org.bukkit.Bukkit;
-import org.bukkit.OfflinePlayer;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 public class MoneyAdminCommand implements CommandExecutor, TabCompleter {
 
+    private static final int MAX_SUGGESTIONS = 50;
+
     private final EconomyManager economyManager;
 
     public MoneyAdminCommand(EconomyManager economyManager) {
@@ -34,15 +34,15 @@ public class MoneyAdminCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        OfflinePlayer target = Bukkit.getOfflinePlayer(args[0]);
-        if ((target.getName() == null || target.getName().isBlank()) && !target.hasPlayedBefore() && !target.isOnline()) {
+        UUID targetId = economyManager.resolvePlayerId(args[0]);
+        if (targetId == null) {
             sender.sendMessage("§cJoueur introuvable: " + args[0]);
             return true;
         }
 
-        double amount;
+        long amount;
         try {
-            amount = Double.parseDouble(args[1]);
+            amount = Money.parse(args[1]);
         } catch (NumberFormatException exception) {
             sender.sendMessage("§cMontant invalide: " + args[1]);
             return true;
@@ -53,28 +53,24 @@ public class MoneyAdminCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        UUID targetId = target.getUniqueId();
         economyManager.ensureAccount(targetId);
-        String targetName = target.getName() != null ? target.getName() : args[0];
-        Player onlineTarget = target.getPlayer();
+        String targetName = economyManager.getPlayerName(targetId);
+        Player onlineTarget = Bukkit.getPlayer(targetId);
 
         if (command.getName().equalsIgnoreCase("givemoney")) {
-            economyManager.deposit(targetId, amount, "Admin grant by " + sender.getName());
-            sender.sendMessage("§aVous avez donné §e" + economyManager.format(amount) + " " + economyManager.currencyCode() + " §aà §e" + targetName + "§a.");
+            economyManager.depositMinor(targetId, amount, "Admin grant by " + sender.getName());
+            sender.sendMessage("§aVous avez donné §e" + economyManager.formatMinor(amount) + " " + economyManager.currencyCode() + " §aà §e" + targetName + "§a.");
             if (onlineTarget != null) {
-                onlineTarget.sendMessage("§aVous avez reçu §e" + economyManager.format(amount) + " " + economyManager.currencyCode() + " §ade la part d'un administrateur.");
+                onlineTarget.sendMessage("§aVous avez reçu §e" + economyManager.formatMinor(amount) + " " + economyManager.currencyCode() + " §ade la part d'un administrateur.");
             }
             return true;
         }
 
-        double currentBalance = economyManager.getBalance(targetId);
-        double newBalance = Math.max(0, currentBalance - amount);
-        economyManager.setBalance(targetId, newBalance);
-        double removed = currentBalance - newBalance;
+        long removed = economyManager.withdrawUpToMinor(targetId, amount, "Admin removal by " + sender.getName());
 
-        sender.sendMessage("§cVous avez retiré §e" + economyManager.format(removed) + " " + economyManager.currencyCode() + " §cdu compte de §e" + targetName + "§c.");
+        sender.sendMessage("§cVous avez retiré §e" + economyManager.formatMinor(removed) + " " + economyManager.currencyCode() + " §cdu compte de §e" + targetName + "§c.");
         if (onlineTarget != null) {
-            onlineTarget.sendMessage("§cUn administrateur a retiré §e" + economyManager.format(removed) + " " + economyManager.currencyCode() + " §cde votre compte.");
+            onlineTarget.sendMessage("§cUn administrateur a retiré §e" + economyManager.formatMinor(removed) + " " + economyManager.currencyCode() + " §cde votre compte.");
         }
         return true;
     }
@@ -85,18 +81,7 @@ public class MoneyAdminCommand implements CommandExecutor, TabCompleter {
             return List.of();
         }
         if (args.length == 1) {
-            List<String> suggestions = new ArrayList<>();
-            suggestions.addAll(Bukkit.getOnlinePlayers().stream()
-                    .map(Player::getName)
-                    .collect(Collectors.toList()));
-            suggestions.addAll(economyManager.getAllBalances().keySet().stream()
-                    .map(uuid -> {
-                        OfflinePlayer offlinePlayer = Bukkit.getOfflinePlayer(uuid);
-                        return offlinePlayer.getName();
-                    })
-                    .filter(name -> name != null && !name.isBlank())
-                    .collect(Collectors.toList()));
-            return suggestions;
+            return economyManager.completePlayerNames(args[0], MAX_SUGGESTIONS);
         }
         return List.of();
     }
@@ -1,5 +1,6 @@
 package com.outlaw.economy.command;
 
+import com.outlaw.economy.api.Money;
 import com.outlaw.economy.core.EconomyManager;
 import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
@@ -43,9 +44,9 @@ public class PayCommand implements CommandExecutor, TabCompleter {
             return true;
         }
 
-        double amount;
+        long amount;
         try {
-            amount = Double.parseDouble(args[1]);
+            amount = Money.parse(args[1]);
         } catch (NumberFormatException e) {
             sender.sendMessage("§cMontant invalide.");
             return true;
@@ -57,14 +58,12 @@ public class PayCommand implements CommandExecutor, TabCompleter {
         }
 
         UUID playerId = player.getUniqueId();
-        if (!economyManager.withdraw(playerId, amount, "Pay to " + target.getName())) {
+        if (!economyManager.transfer(playerId, target.getUniqueId(), amount, "Payment from " + player.getName() + " to " + target.getName())) {
             sender.sendMessage("§cVous n'avez pas assez d'argent.");
             return true;
         }
 
-        economyManager.deposit(target.getUniqueId(), amount, "Payment from " + player.getName());
-
-        String formattedAmount = economyManager.format(amount);
+        String formattedAmount = economyManager.formatMinor(amount);
         player.sendMessage("§aVous avez envoyé §e" + formattedAmount + "§a à §e" + target.getName());
         target.sendMessage("§aVous avez reçu §e" + formattedAmount + "§a de §e" + player.getName());
         return true;
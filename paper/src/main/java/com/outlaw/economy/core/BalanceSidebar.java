@@ -0,0 +1,142 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.api.MoneyFormat;
+import io.papermc.paper.scoreboard.numbers.NumberFormat;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.ScoreboardManager;
+import org.bukkit.scoreboard.Team;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Renders the balance sidebar. Mutations only mark accounts dirty, from any thread; a main-thread
+ * task drains the set once per tick and touches the team prefix only when the displayed text
+ * actually changed.
+ */
+public class BalanceSidebar {
+
+    private static final String SCOREBOARD_OBJECTIVE = "outlaweco";
+    private static final String BALANCE_TEAM = "balanceValue";
+    private static final String BALANCE_ENTRY = ChatColor.DARK_GREEN.toString();
+
+    private final Plugin plugin;
+    private final EconomyManager economyManager;
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Map<UUID, String> rendered = new HashMap<>();
+    private final StringBuilder prefixBuilder = new StringBuilder(32);
+    private BukkitTask renderTask;
+
+    public BalanceSidebar(Plugin plugin, EconomyManager economyManager) {
+        this.plugin = plugin;
+        this.economyManager = economyManager;
+    }
+
+    public void start() {
+        renderTask = Bukkit.getScheduler().runTaskTimer(plugin, this::render, 1L, 1L);
+    }
+
+    public void shutdown() {
+        if (renderTask != null) {
+            renderTask.cancel();
+            renderTask = null;
+        }
+        dirty.clear();
+        rendered.clear();
+    }
+
+    public void markDirty(UUID playerId) {
+        dirty.add(playerId);
+    }
+
+    public void show(Player player) {
+        rendered.remove(player.getUniqueId());
+        setupSidebar(player);
+        dirty.add(player.getUniqueId());
+    }
+
+    public void forget(UUID playerId) {
+        dirty.remove(playerId);
+        rendered.remove(playerId);
+    }
+
+    private void render() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        String currency = economyManager.currencyCode();
+        MoneyFormat moneyFormat = economyManager.getMoneyFormat();
+        Iterator<UUID> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            UUID playerId = iterator.next();
+            iterator.remove();
+            Player player = Bukkit.getPlayer(playerId);
+            if (player == null || !player.isOnline()) {
+                rendered.remove(playerId);
+                continue;
+            }
+            prefixBuilder.setLength(0);
+            prefixBuilder.append(ChatColor.GREEN);
+            moneyFormat.formatTo(economyManager.getBalanceMinor(playerId), prefixBuilder);
+            prefixBuilder.append(' ').append(currency);
+            String previous = rendered.get(playerId);
+            if (previous != null && previous.contentEquals(prefixBuilder)) {
+                continue;
+            }
+            String prefix = prefixBuilder.toString();
+            Team team = player.getScoreboard().getTeam(BALANCE_TEAM);
+            if (team == null) {
+                setupSidebar(player);
+                team = player.getScoreboard().getTeam(BALANCE_TEAM);
+                if (team == null) {
+                    continue;
+                }
+            }
+            team.setPrefix(prefix);
+            rendered.put(playerId, prefix);
+        }
+    }
+
+    private void setupSidebar(Player player) {
+        ScoreboardManager manager = Bukkit.getScoreboardManager();
+        if (manager == null) {
+            return;
+        }
+
+        Scoreboard current = player.getScoreboard();
+        Objective objective = current != null ? current.getObjective(SCOREBOARD_OBJECTIVE) : null;
+
+        if (current == null || current == manager.getMainScoreboard() || objective == null) {
+            Scoreboard scoreboard = manager.getNewScoreboard();
+            Objective newObjective = scoreboard.registerNewObjective(SCOREBOARD_OBJECTIVE, "dummy", ChatColor.GOLD + "Argent");
+            newObjective.setDisplaySlot(DisplaySlot.SIDEBAR);
+            newObjective.numberFormat(NumberFormat.blank());
+
+            Team balanceTeam = scoreboard.registerNewTeam(BALANCE_TEAM);
+            balanceTeam.addEntry(BALANCE_ENTRY);
+            newObjective.getScore(BALANCE_ENTRY).setScore(1);
+
+            player.setScoreboard(scoreboard);
+            return;
+        }
+
+        objective.setDisplayName(ChatColor.GOLD + "Argent");
+        objective.numberFormat(NumberFormat.blank());
+        if (current.getTeam(BALANCE_TEAM) == null) {
+            Team balanceTeam = current.registerNewTeam(BALANCE_TEAM);
+            balanceTeam.addEntry(BALANCE_ENTRY);
+            objective.getScore(BALANCE_ENTRY).setScore(1);
+        }
+    }
+}
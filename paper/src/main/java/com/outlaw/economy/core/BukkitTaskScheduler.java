@@ -0,0 +1,28 @@
+package com.outlaw.economy.core;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+/**
+ * Runs the engine's tasks on the server's main thread.
+ */
+public class BukkitTaskScheduler implements TaskScheduler {
+
+    private final Plugin plugin;
+
+    public BukkitTaskScheduler(Plugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public Task repeat(Runnable task, long delayTicks, long periodTicks) {
+        BukkitTask scheduled = Bukkit.getScheduler().runTaskTimer(plugin, task, delayTicks, periodTicks);
+        return scheduled::cancel;
+    }
+
+    @Override
+    public void runSync(Runnable task) {
+        Bukkit.getScheduler().runTask(plugin, task);
+    }
+}
@@ -0,0 +1,208 @@
+package com.outlaw.economy.core;
+
+import com.outlaw.economy.anomaly.AnomalyRule;
+import com.outlaw.economy.anomaly.AnomalyRuleLoader;
+import com.outlaw.economy.api.Currency;
+import com.outlaw.economy.api.Money;
+import com.outlaw.economy.storage.PersistenceScheduler;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.AsyncPlayerPreLoginEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * The {@link EconomyEngine} on a server: reads its settings from config.yml, keeps accounts of
+ * online players loaded, shows the balance sidebar and sends anomaly alerts to admins.
+ */
+public class EconomyManager extends EconomyEngine implements Listener {
+
+    private static final String ADMIN_PERMISSION = "outlawecoadmin";
+    private static final Pattern CURRENCY_NAME = Pattern.compile("[a-z0-9_-]+");
+
+    private final Plugin plugin;
+    private final BalanceSidebar sidebar;
+
+    public EconomyManager(Plugin plugin, TaskScheduler scheduler, PersistenceScheduler persistence) {
+        super(settings(plugin), scheduler, persistence, plugin.getLogger());
+        this.plugin = plugin;
+        this.sidebar = new BalanceSidebar(plugin, this);
+        sidebar.start();
+    }
+
+    private static EconomySettings settings(Plugin plugin) {
+        FileConfiguration config = plugin.getConfig();
+        return new EconomySettings(
+                plugin.getDataFolder(),
+                Money.ofMajor(config.getDouble("economy.starting-balance", 0)),
+                config.getString("economy.currency-name", "$"),
+                config.getString("storage.backend", "yaml"),
+                config.getInt("storage.accounts.idle-minutes", 5),
+                config.getInt("storage.accounts.max-cached", 10_000),
+                config.getInt("storage.accounts.offline-cache-size", 1024),
+                config.getLong("storage.journal.segment-size-mb", 16L) * EconomySettings.MEGABYTE,
+                config.getLong("storage.journal.checkpoint-size-mb", 64L) * EconomySettings.MEGABYTE,
+                config.getInt("storage.ledger.retention-days", 90),
+                config.getInt("economy.async-threads", 2),
+                config.getInt("economy.idempotency.capacity", 65_536),
+                config.getLong("economy.idempotency.window-seconds", 600L) * 1000L,
+                AnomalyRuleLoader.load(config.getConfigurationSection("anomaly.rules"), plugin.getLogger()),
+                currencies(config.getConfigurationSection("currencies"), plugin.getLogger()));
+    }
+
+    private static List<EconomySettings.CurrencyDefinition> currencies(ConfigurationSection section, Logger logger) {
+        List<EconomySettings.CurrencyDefinition> definitions = new ArrayList<>();
+        if (section == null) {
+            return definitions;
+        }
+        for (String key : section.getKeys(false)) {
+            String name = key.toLowerCase(Locale.ROOT);
+            ConfigurationSection currency = section.getConfigurationSection(key);
+            if (currency == null || !CURRENCY_NAME.matcher(name).matches() || name.equals(Currency.DEFAULT_NAME)) {
+                logger.warning("Devise ignorée, nom ou définition invalide: " + key);
+                continue;
+            }
+            if (definitions.stream().anyMatch(definition -> definition.name().equals(name))) {
+                logger.warning("Devise définie deux fois: " + key);
+                continue;
+            }
+            definitions.add(new EconomySettings.CurrencyDefinition(name, currency.getString("currency-name", name),
+                    Money.ofMajor(currency.getDouble("starting-balance", 0))));
+        }
+        return definitions;
+    }
+
+    @Override
+    public void shutdown() {
+        sidebar.shutdown();
+        super.shutdown();
+    }
+
+    public void initializePlayer(Player player) {
+        ensureAccount(player.getUniqueId());
+        updatePlayerName(player.getUniqueId(), player.getName());
+        sidebar.show(player);
+    }
+
+    public void deposit(Player player, long amount) {
+        depositMinor(player.getUniqueId(), amount, "");
+        player.sendMessage("§aVous avez reçu §e" + formatMinor(amount) + "§a.");
+    }
+
+    public boolean withdraw(Player player, long amount) {
+        boolean success = withdrawMinor(player.getUniqueId(), amount, "");
+        if (success) {
+            player.sendMessage("§c" + formatMinor(amount) + " a été retiré de votre compte.");
+        }
+        return success;
+    }
+
+    public long getBalanceMinor(OfflinePlayer player) {
+        return getBalanceMinor(player.getUniqueId());
+    }
+
+    public Plugin getPlugin() {
+        return plugin;
+    }
+
+    /**
+     * Finds an account by player name, ignoring case, from the online players and the name index
+     * only, so it never blocks on a profile lookup.
+     *
+     * @return the account id, or {@code null} if no known player has this name
+     */
+    @Override
+    public UUID resolvePlayerId(String name) {
+        Player online = Bukkit.getPlayerExact(name);
+        return online != null ? online.getUniqueId() : super.resolvePlayerId(name);
+    }
+
+    /**
+     * @return the last known name of the player, or {@code null}
+     */
+    @Override
+    public String getPlayerName(UUID playerId) {
+        Player online = Bukkit.getPlayer(playerId);
+        return online != null ? online.getName() : super.getPlayerName(playerId);
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onPreLogin(AsyncPlayerPreLoginEvent event) {
+        if (event.getLoginResult() != AsyncPlayerPreLoginEvent.Result.ALLOWED) {
+            return;
+        }
+        prepareAccount(event.getUniqueId());
+    }
+
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        initializePlayer(event.getPlayer());
+    }
+
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        sidebar.forget(event.getPlayer().getUniqueId());
+    }
+
+    @Override
+    protected boolean isOnline(UUID playerId) {
+        return Bukkit.getPlayer(playerId) != null;
+    }
+
+    @Override
+    protected void onAccountChanged(UUID playerId) {
+        sidebar.markDirty(playerId);
+    }
+
+    @Override
+    protected int importNames(PlayerNameIndex index) {
+        int imported = 0;
+        for (OfflinePlayer player : Bukkit.getOfflinePlayers()) {
+            if (index.update(player.getUniqueId(), player.getName())) {
+                imported++;
+            }
+        }
+        return imported;
+    }
+
+    @Override
+    protected String formatAlertAmount(long amount) {
+        return ChatColor.GOLD + formatMinor(amount) + " " + currencyCode() + ChatColor.YELLOW;
+    }
+
+    @Override
+    protected void onAnomaly(UUID playerId, AnomalyRule rule, String detail) {
+        getScheduler().runSync(() -> sendAdminAlert(playerId, rule, detail));
+    }
+
+    private void sendAdminAlert(UUID playerId, AnomalyRule rule, String detail) {
+        String playerName = getPlayerName(playerId);
+        if (playerName == null) {
+            playerName = playerId.toString();
+        }
+        String message = ChatColor.RED + "[Alerte Économie] " + ChatColor.YELLOW + "Le joueur "
+                + ChatColor.GOLD + playerName + ChatColor.YELLOW + " " + detail + ". "
+                + ChatColor.RED + "TP TO " + ChatColor.GOLD + playerName;
+        for (Player receiver : Bukkit.getOnlinePlayers()) {
+            if (receiver.hasPermission(ADMIN_PERMISSION)) {
+                receiver.sendMessage(message);
+            }
+        }
+        plugin.getLogger().warning(ChatColor.stripColor(message) + " [" + rule.getName() + "]");
+    }
+}
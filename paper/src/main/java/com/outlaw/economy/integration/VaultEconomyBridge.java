@@ -1,5 +1,6 @@
 package com.outlaw.economy.integration;
 
+import com.outlaw.economy.api.Money;
 import com.outlaw.economy.core.EconomyManager;
 import net.milkbowl.vault.economy.AbstractEconomy;
 import net.milkbowl.vault.economy.EconomyResponse;
@@ -39,7 +40,7 @@ public class VaultEconomyBridge extends AbstractEconomy {
 
     @Override
     public int fractionalDigits() {
-        return 2;
+        return Money.FRACTION_DIGITS;
     }
 
     @Override
@@ -87,7 +88,7 @@ public class VaultEconomyBridge extends AbstractEconomy {
         if (player == null) {
             return 0;
         }
-        return economyManager.getBalance(player.getUniqueId());
+        return Money.toMajor(economyManager.getBalanceMinor(player.getUniqueId()));
     }
 
     @Override
@@ -107,7 +108,7 @@ public class VaultEconomyBridge extends AbstractEconomy {
 
     @Override
     public boolean has(OfflinePlayer player, double amount) {
-        return player != null && economyManager.has(player.getUniqueId(), amount);
+        return player != null && economyManager.hasMinor(player.getUniqueId(), toMinor(amount));
     }
 
     @Override
@@ -240,28 +241,34 @@ public class VaultEconomyBridge extends AbstractEconomy {
         return Collections.emptyList();
     }
 
+    /**
+     * Resolves through the plugin's name index; a name never seen on this server is not found
+     * rather than looked up online.
+     */
     private OfflinePlayer resolvePlayer(String playerName) {
         if (playerName == null) {
             return null;
         }
-        return Bukkit.getOfflinePlayer(playerName);
+        UUID playerId = economyManager.resolvePlayerId(playerName);
+        return playerId == null ? null : Bukkit.getOfflinePlayer(playerId);
     }
 
     private EconomyResponse withdraw(OfflinePlayer player, double amount) {
         if (player == null) {
             return new EconomyResponse(0, 0, ResponseType.FAILURE, "Player not found");
         }
-        if (amount <= 0) {
+        long minor = toMinor(amount);
+        if (minor <= 0) {
             return new EconomyResponse(0, getBalance(player), ResponseType.FAILURE, "Amount must be positive");
         }
         UUID playerId = player.getUniqueId();
         if (!economyManager.accountExists(playerId)) {
             return new EconomyResponse(0, 0, ResponseType.FAILURE, "Account does not exist");
         }
-        boolean success = economyManager.withdraw(playerId, amount, "Vault withdraw");
-        double balance = economyManager.getBalance(playerId);
+        boolean success = economyManager.withdrawMinor(playerId, minor, "Vault withdraw");
+        double balance = Money.toMajor(economyManager.getBalanceMinor(playerId));
         return success
-            ? new EconomyResponse(amount, balance, ResponseType.SUCCESS, null)
+            ? new EconomyResponse(Money.toMajor(minor), balance, ResponseType.SUCCESS, null)
             : new EconomyResponse(0, balance, ResponseType.FAILURE, "Insufficient funds");
     }
 
@@ -269,18 +276,29 @@ public class VaultEconomyBridge extends AbstractEconomy {
         if (player == null) {
             return new EconomyResponse(0, 0, ResponseType.FAILURE, "Player not found");
         }
-        if (amount <= 0) {
+        long minor = toMinor(amount);
+        if (minor <= 0) {
             return new EconomyResponse(0, getBalance(player), ResponseType.FAILURE, "Amount must be positive");
         }
         UUID playerId = player.getUniqueId();
-        economyManager.ensureAccount(playerId);
-        boolean success = economyManager.deposit(playerId, amount, "Vault deposit");
-        double balance = economyManager.getBalance(playerId);
+        boolean success = economyManager.depositMinor(playerId, minor, "Vault deposit");
+        double balance = Money.toMajor(economyManager.getBalanceMinor(playerId));
         return success
-            ? new EconomyResponse(amount, balance, ResponseType.SUCCESS, null)
+            ? new EconomyResponse(Money.toMajor(minor), balance, ResponseType.SUCCESS, null)
             : new EconomyResponse(0, balance, ResponseType.FAILURE, "Deposit failed");
     }
 
+    private long toMinor(double amount) {
+        if (!(amount > 0) || Double.isInfinite(amount)) {
+            return 0L;
+        }
+        try {
+            return Money.ofMajor(amount);
+        } catch (ArithmeticException e) {
+            return 0L;
+        }
+    }
+
     private boolean createAccount(OfflinePlayer player) {
         if (player == null) {
             return false;
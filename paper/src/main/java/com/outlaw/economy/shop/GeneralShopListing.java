@@ -10,9 +10,9 @@ public class GeneralShopListing {
     private final UUID sellerId;
     private final String sellerName;
     private final ItemStack item;
-    private final double price;
+    private final long price;
 
-    public GeneralShopListing(UUID id, UUID sellerId, String sellerName, ItemStack item, double price) {
+    public GeneralShopListing(UUID id, UUID sellerId, String sellerName, ItemStack item, long price) {
         this.id = id;
         this.sellerId = sellerId;
         this.sellerName = sellerName;
@@ -36,7 +36,7 @@ public class GeneralShopListing {
         return item.clone();
     }
 
-    public double getPrice() {
+    public long getPrice() {
         return price;
     }
 }
@@ -8,7 +8,7 @@ import org.bukkit.inventory.meta.ItemMeta;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.OptionalDouble;
+import java.util.Optional;
 
 public class ShopCategory {
 
@@ -67,7 +67,7 @@ public class ShopCategory {
         }
     }
 
-    public int updateBuyPrice(Material material, double price) {
+    public int updateBuyPrice(Material material, long price) {
         int updated = 0;
         for (int i = 0; i < offers.size(); i++) {
             ShopOffer offer = offers.get(i);
@@ -75,19 +75,19 @@ public class ShopCategory {
                 continue;
             }
             ItemStack item = offer.item();
-            offers.set(i, new ShopOffer(item, price, offer.sellPrice()));
+            offers.set(i, new ShopOffer(item, price, offer.sellPrice(), offer.currency()));
             updated++;
         }
         return updated;
     }
 
-    public OptionalDouble findBuyPrice(Material material) {
+    public Optional<ShopOffer> findOffer(Material material) {
         for (ShopOffer offer : offers) {
             if (offer.getMaterial() == material) {
-                return OptionalDouble.of(offer.buyPrice());
+                return Optional.of(offer);
             }
         }
-        return OptionalDouble.empty();
+        return Optional.empty();
     }
 
     public ItemStack createIconItem() {
@@ -1,7 +1,14 @@
 package com.outlaw.economy.shop;
 
 import com.outlaw.economy.OutlawEconomyPlugin;
+import com.outlaw.economy.api.BalanceOperation;
+import com.outlaw.economy.api.Currency;
+import com.outlaw.economy.api.EconomyService;
+import com.outlaw.economy.api.Money;
 import com.outlaw.economy.core.EconomyManager;
+import com.outlaw.economy.metrics.HotPath;
+import com.outlaw.economy.metrics.PerformanceMonitor;
+import com.outlaw.economy.storage.PersistenceScheduler;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -48,8 +55,12 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
     private static final int PRICE_PAGE_SIZE = 45;
     private static final String GENERAL_TEMPLATE_KEY = "general";
     private static final String GENERAL_DISPLAY_NAME = "§2Magasin général";
-    private static final double GENERAL_MAX_LISTING_PRICE = 25_000d;
+    private static final long GENERAL_MAX_LISTING_PRICE = Money.ofWhole(25_000);
     private static final double SHOP_NAME_VIEW_DISTANCE_SQUARED = 25 * 25;
+    private static final String SHOPS_KEY = "shops";
+    private static final String TEMPLATES_KEY = "shop-templates";
+    private static final String GENERAL_STORE_KEY = "general-shop";
+    private static final String SHOP_SETTINGS_KEY = "shop-settings";
     private static final Map<String, PotionType> POTION_TYPE_ALIASES = createPotionAliasMap();
     private static final Map<PotionType, String> POTION_TYPE_NAMES = createPotionNameMap();
 
@@ -85,6 +96,7 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
 
     private final OutlawEconomyPlugin plugin;
     private final EconomyManager economyManager;
+    private final PersistenceScheduler persistence;
     private final File shopsFile;
     private FileConfiguration shopsConfig;
     private final File templatesFile;
@@ -96,16 +108,17 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
     private final NamespacedKey shopKey;
     private final Map<UUID, Shop> shops = new HashMap<>();
     private final Map<String, ShopTemplate> templates = new HashMap<>();
-    private final Map<UUID, GeneralShopListing> generalListings = new LinkedHashMap<>();
+    private final GeneralStoreIndex<GeneralShopListing> generalListings = new GeneralStoreIndex<>();
     private final Map<UUID, PendingPriceInput> pendingPriceInputs = new HashMap<>();
     private final Map<UUID, PendingListingInput> pendingListingInputs = new HashMap<>();
     private final List<Material> selectableMaterials;
-    private final Map<String, TemplatePriceMultiplier> templateMultipliers = new HashMap<>();
+    private final ShopPricing pricing = new ShopPricing();
     private BukkitTask nameVisibilityTask;
 
     public ShopManager(OutlawEconomyPlugin plugin) {
         this.plugin = plugin;
         this.economyManager = plugin.getEconomyManager();
+        this.persistence = plugin.getPersistenceScheduler();
         this.shopKey = new NamespacedKey(plugin, "shop-id");
         this.selectableMaterials = Arrays.stream(Material.values())
                 .filter(Material::isItem)
@@ -156,6 +169,11 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
         }
         this.shopSettingsConfig = YamlConfiguration.loadConfiguration(shopSettingsFile);
 
+        persistence.register(SHOPS_KEY, shopsFile, () -> render(shopsConfig));
+        persistence.register(TEMPLATES_KEY, templatesFile, this::captureTemplates);
+        persistence.register(GENERAL_STORE_KEY, generalShopFile, this::captureGeneralStore);
+        persistence.register(SHOP_SETTINGS_KEY, shopSettingsFile, () -> render(shopSettingsConfig));
+
         loadTemplates();
         loadPriceMultipliers();
         loadShops();
@@ -227,7 +245,7 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
     }
 
     private void loadPriceMultipliers() {
-        templateMultipliers.clear();
+        pricing.clear();
         if (shopSettingsConfig == null) {
             return;
         }
@@ -252,10 +270,7 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
                     plugin.getLogger().warning("Multiplicateur de vente invalide pour le template '" + key + "'. Valeur ignorée.");
                     sell = 1.0;
                 }
-                TemplatePriceMultiplier multiplier = new TemplatePriceMultiplier(buy, sell);
-                if (!multiplier.isDefault()) {
-                    templateMultipliers.put(normalized, multiplier);
-                }
+                pricing.set(normalized, buy, sell);
                 continue;
             }
 
@@ -264,10 +279,7 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
                 plugin.getLogger().warning("Multiplicateur invalide pour le template '" + key + "'.");
                 continue;
             }
-            TemplatePriceMultiplier multiplier = new TemplatePriceMultiplier(value, value);
-            if (!multiplier.isDefault()) {
-                templateMultipliers.put(normalized, multiplier);
-            }
+            pricing.set(normalized, value, value);
         }
     }
 
@@ -276,20 +288,21 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
         if (stack == null) {
             return;
         }
-        double buyPrice = getDouble(entry.get("buy-price"), 0.0);
-        double sellPrice = getDouble(entry.get("sell-price"), 0.0);
-        offers.add(new ShopOffer(stack, buyPrice, sellPrice));
+        long buyPrice = ShopPricing.parsePrice(entry.get("buy-price"));
+        long sellPrice = ShopPricing.parsePrice(entry.get("sell-price"));
+        offers.add(new ShopOffer(stack, buyPrice, sellPrice, parseCurrency(context, entry.get("currency"))));
     }
 
-    private double getDouble(Object value, double def) {
-        if (value instanceof Number number) {
-            return number.doubleValue();
+    private Currency parseCurrency(String context, Object value) {
+        if (value == null) {
+            return Currency.DEFAULT;
         }
-        try {
-            return value != null ? Double.parseDouble(value.toString()) : def;
-        } catch (NumberFormatException ex) {
-            return def;
+        Currency currency = economyManager.currency(value.toString().trim());
+        if (currency == null) {
+            plugin.getLogger().warning("Devise inconnue '" + value + "' pour " + context + ", devise par défaut utilisée.");
+            return Currency.DEFAULT;
         }
+        return currency;
     }
 
     private ItemStack createItemStack(String context, Map<?, ?> entry) {
@@ -420,12 +433,12 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
                 plugin.getLogger().warning("Vendeur invalide pour l'annonce " + key);
                 continue;
             }
-            double price = section.getDouble(key + ".price");
+            long price = ShopPricing.parsePrice(section.get(key + ".price"));
             if (price <= 0) {
                 continue;
             }
             if (price > GENERAL_MAX_LISTING_PRICE) {
-                plugin.getLogger().warning("Annonce " + key + " ignorée: prix " + price + " au-dessus de la limite du magasin général.");
+                plugin.getLogger().warning("Annonce " + key + " ignorée: prix " + Money.toDecimal(price).toPlainString() + " au-dessus de la limite du magasin général.");
                 invalidFound = true;
                 continue;
             }
@@ -466,24 +479,25 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
         shopsConfig.set(base + ".z", loc.getZ());
         shopsConfig.set(base + ".yaw", loc.getYaw());
         shopsConfig.set(base + ".pitch", loc.getPitch());
-        try {
-            shopsConfig.save(shopsFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Impossible d'enregistrer shops.yml: " + e.getMessage());
-        }
+        persistence.markDirty(SHOPS_KEY);
     }
 
     private void deleteShop(UUID shopId) {
         shops.remove(shopId);
         shopsConfig.set(shopId.toString(), null);
-        try {
-            shopsConfig.save(shopsFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Impossible d'enregistrer shops.yml: " + e.getMessage());
-        }
+        persistence.markDirty(SHOPS_KEY);
         updateShopNameVisibility();
     }
 
+    /**
+     * Renders the configuration on the main thread, since it holds live item stacks and other
+     * Bukkit objects; only the text is handed to the I/O thread.
+     */
+    private static PersistenceScheduler.Snapshot render(FileConfiguration config) {
+        String yaml = config.saveToString();
+        return () -> yaml;
+    }
+
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
         if (!(sender instanceof Player player)) {
@@ -708,17 +722,17 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             player.sendMessage("§cQuantité invalide.");
             return true;
         }
-        double buyPrice;
+        long buyPrice;
         try {
-            buyPrice = Double.parseDouble(args[5]);
+            buyPrice = Money.parse(args[5]);
         } catch (NumberFormatException ex) {
             player.sendMessage("§cPrix d'achat invalide.");
             return true;
         }
-        double sellPrice = 0.0;
+        long sellPrice = 0L;
         if (args.length >= 7) {
             try {
-                sellPrice = Double.parseDouble(args[6]);
+                sellPrice = Money.parse(args[6]);
             } catch (NumberFormatException ex) {
                 player.sendMessage("§cPrix de vente invalide.");
                 return true;
@@ -882,16 +896,16 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
         if (adjustBuy && adjustSell) {
             setTemplatePriceMultiplier(templateKey, value, value);
             if (explicitType) {
-                player.sendMessage("§aMultiplicateurs d'achat et de vente pour §e" + displayName + "§a définis à §ex" + formatPrice(value) + "§a.");
+                player.sendMessage("§aMultiplicateurs d'achat et de vente pour §e" + displayName + "§a définis à §ex" + formatMultiplier(value) + "§a.");
             } else {
-                player.sendMessage("§aMultiplicateur de prix pour §e" + displayName + "§a défini à §ex" + formatPrice(value) + "§a.");
+                player.sendMessage("§aMultiplicateur de prix pour §e" + displayName + "§a défini à §ex" + formatMultiplier(value) + "§a.");
             }
         } else if (adjustBuy) {
             setBuyPriceMultiplier(templateKey, value);
-            player.sendMessage("§aMultiplicateur d'achat pour §e" + displayName + "§a défini à §ex" + formatPrice(value) + "§a.");
+            player.sendMessage("§aMultiplicateur d'achat pour §e" + displayName + "§a défini à §ex" + formatMultiplier(value) + "§a.");
         } else {
             setSellPriceMultiplier(templateKey, value);
-            player.sendMessage("§aMultiplicateur de vente pour §e" + displayName + "§a défini à §ex" + formatPrice(value) + "§a.");
+            player.sendMessage("§aMultiplicateur de vente pour §e" + displayName + "§a défini à §ex" + formatMultiplier(value) + "§a.");
         }
         player.sendMessage("§7Réouvrez la boutique pour voir les nouveaux prix.");
         return true;
@@ -919,20 +933,20 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
     }
 
     private void saveGeneralStore() {
+        persistence.markDirty(GENERAL_STORE_KEY);
+    }
+
+    private PersistenceScheduler.Snapshot captureGeneralStore() {
         YamlConfiguration config = new YamlConfiguration();
-        for (GeneralShopListing listing : generalListings.values()) {
+        for (GeneralShopListing listing : generalListings) {
             String base = "listings." + listing.getId();
             config.set(base + ".seller", listing.getSellerId().toString());
             config.set(base + ".seller-name", listing.getSellerName());
-            config.set(base + ".price", listing.getPrice());
+            config.set(base + ".price", Money.toMajor(listing.getPrice()));
             config.set(base + ".item", listing.getItem());
         }
-        try {
-            config.save(generalShopFile);
-            this.generalShopConfig = config;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Impossible d'enregistrer general-shop.yml: " + e.getMessage());
-        }
+        this.generalShopConfig = config;
+        return render(config);
     }
 
     private void createShop(Player player, String templateKey) {
@@ -1034,19 +1048,27 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
         player.openInventory(inventory);
     }
 
-    private void openOffersInventory(Player player, ShopTemplate template, ShopCategory category, boolean allowBack) {
+    void openOffersInventory(Player player, ShopTemplate template, ShopCategory category, boolean allowBack) {
+        long start = PerformanceMonitor.start();
+        try {
+            renderOffersInventory(player, template, category, allowBack);
+        } finally {
+            PerformanceMonitor.stop(HotPath.OPEN_OFFERS, start);
+        }
+    }
+
+    private void renderOffersInventory(Player player, ShopTemplate template, ShopCategory category, boolean allowBack) {
         List<ShopOffer> offers = category != null ? category.getOffers() : template.getOffers();
         boolean backButton = allowBack && template.hasCategories();
         int extraSlots = backButton ? 1 : 0;
         int size = calculateInventorySize(Math.max(1, offers.size() + extraSlots));
         int maxSlots = backButton ? size - 1 : size;
         List<ShopOffer> visibleOffers = new ArrayList<>();
-        TemplatePriceMultiplier multiplier = getTemplatePriceMultiplier(template.getKey());
         for (int i = 0; i < offers.size() && i < maxSlots; i++) {
             ShopOffer offer = offers.get(i);
-            double buyPrice = applyMultiplier(offer.buyPrice(), multiplier.buy());
-            double sellPrice = applyMultiplier(offer.sellPrice(), multiplier.sell());
-            visibleOffers.add(new ShopOffer(offer.item(), buyPrice, sellPrice));
+            long buyPrice = pricing.buyPrice(template.getKey(), offer.buyPrice());
+            long sellPrice = pricing.sellPrice(template.getKey(), offer.sellPrice());
+            visibleOffers.add(new ShopOffer(offer.item(), buyPrice, sellPrice, offer.currency()));
         }
         ShopInventoryHolder holder = ShopInventoryHolder.forOffers(template.getKey(),
                 category != null ? category.getKey() : null, visibleOffers, backButton);
@@ -1058,10 +1080,10 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             ItemMeta meta = item.getItemMeta();
             if (meta != null) {
                 List<String> lore = new ArrayList<>();
-                String currency = economyManager.currencyCode();
-                lore.add("§aAchat: §e" + formatPrice(offer.buyPrice()) + " " + currency);
+                String currency = economyManager.currencyCode(offer.currency());
+                lore.add("§aAchat: §e" + economyManager.formatMinor(offer.currency(), offer.buyPrice()) + " " + currency);
                 if (offer.sellPrice() > 0) {
-                    lore.add("§cVente: §e" + formatPrice(offer.sellPrice()) + " " + currency);
+                    lore.add("§cVente: §e" + economyManager.formatMinor(offer.currency(), offer.sellPrice()) + " " + currency);
                     lore.add("§7Clique gauche pour acheter");
                     lore.add("§7Clique droit pour vendre");
                 } else {
@@ -1106,9 +1128,11 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             ItemMeta meta = item.getItemMeta();
             if (meta != null) {
                 List<String> lore = new ArrayList<>();
-                OptionalDouble price = findCurrentBuyPrice(material);
-                if (price.isPresent()) {
-                    lore.add("§7Prix actuel: §e" + formatPrice(price.getAsDouble()) + " " + economyManager.currencyCode());
+                Optional<ShopOffer> offer = findCurrentOffer(material);
+                if (offer.isPresent()) {
+                    Currency currency = offer.get().currency();
+                    lore.add("§7Prix actuel: §e" + economyManager.formatMinor(currency, offer.get().buyPrice())
+                            + " " + economyManager.currencyCode(currency));
                 } else {
                     lore.add("§7Aucun prix défini dans les templates");
                 }
@@ -1153,13 +1177,19 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
         player.openInventory(inventory);
     }
 
-    private void openGeneralStore(Player player, int page) {
-        List<GeneralShopListing> allListings = new ArrayList<>(generalListings.values());
-        int totalPages = Math.max(1, (int) Math.ceil((double) allListings.size() / GENERAL_PAGE_SIZE));
+    void openGeneralStore(Player player, int page) {
+        long start = PerformanceMonitor.start();
+        try {
+            renderGeneralStore(player, page);
+        } finally {
+            PerformanceMonitor.stop(HotPath.OPEN_GENERAL_STORE, start);
+        }
+    }
+
+    private void renderGeneralStore(Player player, int page) {
+        int totalPages = generalListings.pageCount(GENERAL_PAGE_SIZE);
         int safePage = Math.max(0, Math.min(page, totalPages - 1));
-        int start = safePage * GENERAL_PAGE_SIZE;
-        int end = Math.min(start + GENERAL_PAGE_SIZE, allListings.size());
-        List<GeneralShopListing> pageListings = allListings.subList(start, end);
+        List<GeneralShopListing> pageListings = generalListings.page(safePage * GENERAL_PAGE_SIZE, GENERAL_PAGE_SIZE);
 
         ShopInventoryHolder holder = ShopInventoryHolder.forGeneralStore(pageListings, safePage, totalPages);
         Inventory inventory = Bukkit.createInventory(holder, 54,
@@ -1254,6 +1284,15 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
 
     @EventHandler
     public void onInventoryClick(InventoryClickEvent event) {
+        long start = PerformanceMonitor.start();
+        try {
+            handleInventoryClick(event);
+        } finally {
+            PerformanceMonitor.stop(HotPath.SHOP_CLICK, start);
+        }
+    }
+
+    private void handleInventoryClick(InventoryClickEvent event) {
         if (!(event.getInventory().getHolder() instanceof ShopInventoryHolder holder)) {
             return;
         }
@@ -1356,9 +1395,10 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
     }
 
     private void handleBuy(Player player, ShopOffer offer) {
-        double price = offer.buyPrice();
+        long price = offer.buyPrice();
         String itemName = describeItem(offer.item());
-        if (price > 0 && !economyManager.withdraw(player.getUniqueId(), price, "Shop purchase: " + itemName)) {
+        EconomyService economy = economyManager.forCurrency(offer.currency());
+        if (price > 0 && !economy.withdrawMinor(player.getUniqueId(), price, "Shop purchase: " + itemName)) {
             player.sendMessage("§cPas assez d'argent.");
             return;
         }
@@ -1367,14 +1407,14 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             leftovers.values().forEach(item -> player.getWorld().dropItemNaturally(player.getLocation(), item));
         }
         if (price > 0) {
-            player.sendMessage("§aAchat effectué pour §e" + economyManager.format(price) + " " + economyManager.currencyCode());
+            player.sendMessage("§aAchat effectué pour §e" + economy.formatMinor(price) + " " + economy.currencyCode());
         } else {
             player.sendMessage("§aAchat effectué.");
         }
     }
 
     private void handleSell(Player player, ShopOffer offer) {
-        double sellPrice = offer.sellPrice();
+        long sellPrice = offer.sellPrice();
         if (sellPrice <= 0) {
             player.sendMessage("§cCet objet ne peut pas être vendu.");
             return;
@@ -1385,11 +1425,12 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             return;
         }
         removeItems(player.getInventory(), itemToSell);
-        economyManager.deposit(player.getUniqueId(), sellPrice, "Shop sell: " + describeItem(itemToSell));
-        player.sendMessage("§aVente effectuée pour §e" + economyManager.format(sellPrice) + " " + economyManager.currencyCode());
+        EconomyService economy = economyManager.forCurrency(offer.currency());
+        economy.depositMinor(player.getUniqueId(), sellPrice, "Shop sell: " + describeItem(itemToSell));
+        player.sendMessage("§aVente effectuée pour §e" + economy.formatMinor(sellPrice) + " " + economy.currencyCode());
     }
 
-    private void removeItems(org.bukkit.inventory.PlayerInventory inventory, ItemStack item) {
+    void removeItems(org.bukkit.inventory.PlayerInventory inventory, ItemStack item) {
         int amountToRemove = item.getAmount();
         ItemStack[] contents = inventory.getContents();
         for (int i = 0; i < contents.length; i++) {
@@ -1445,17 +1486,18 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             openGeneralStore(player, normalizeGeneralPage(currentPage));
             return;
         }
-        double price = current.getPrice();
-        if (!economyManager.withdraw(player.getUniqueId(), price, "Player shop purchase: " + describeItem(current.getItem()))) {
+        long price = current.getPrice();
+        ItemStack item = current.getItem();
+        if (!economyManager.applyBatch(List.of(
+                BalanceOperation.withdraw(player.getUniqueId(), price, "Player shop purchase: " + describeItem(item)),
+                BalanceOperation.deposit(current.getSellerId(), price, "Player shop sale: " + describeItem(item))))) {
             player.sendMessage("§cPas assez d'argent.");
             return;
         }
-        ItemStack item = current.getItem();
         HashMap<Integer, ItemStack> leftovers = player.getInventory().addItem(item);
         if (!leftovers.isEmpty()) {
             leftovers.values().forEach(remain -> player.getWorld().dropItemNaturally(player.getLocation(), remain));
         }
-        economyManager.deposit(current.getSellerId(), price, "Player shop sale: " + describeItem(item));
         generalListings.remove(current.getId());
         saveGeneralStore();
         String itemName = describeItem(item);
@@ -1468,7 +1510,7 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
     }
 
     private int normalizeGeneralPage(int requestedPage) {
-        int totalPages = Math.max(1, (int) Math.ceil((double) generalListings.size() / GENERAL_PAGE_SIZE));
+        int totalPages = generalListings.pageCount(GENERAL_PAGE_SIZE);
         return Math.max(0, Math.min(requestedPage, totalPages - 1));
     }
 
@@ -1500,25 +1542,29 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
                 .collect(Collectors.joining(" "));
     }
 
-    private String formatPrice(double price) {
-        return economyManager.format(price);
+    private String formatPrice(long price) {
+        return economyManager.formatMinor(price);
+    }
+
+    private String formatMultiplier(double multiplier) {
+        return economyManager.format(multiplier);
     }
 
     private boolean isCancelMessage(String message) {
         return message.equalsIgnoreCase("cancel") || message.equalsIgnoreCase("annuler");
     }
 
-    private OptionalDouble findCurrentBuyPrice(Material material) {
+    private Optional<ShopOffer> findCurrentOffer(Material material) {
         for (ShopTemplate template : templates.values()) {
-            OptionalDouble found = template.findBuyPrice(material);
+            Optional<ShopOffer> found = template.findOffer(material);
             if (found.isPresent()) {
                 return found;
             }
         }
-        return OptionalDouble.empty();
+        return Optional.empty();
     }
 
-    private int updateMaterialBuyPrice(Material material, double price) {
+    private int updateMaterialBuyPrice(Material material, long price) {
         int updated = 0;
         for (ShopTemplate template : templates.values()) {
             updated += template.updateBuyPrice(material, price);
@@ -1535,9 +1581,9 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             });
             return;
         }
-        double value;
+        long value;
         try {
-            value = Double.parseDouble(message.replace(',', '.'));
+            value = Money.parse(message);
         } catch (NumberFormatException ex) {
             Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage("§cValeur invalide. Entrez un nombre."));
             return;
@@ -1547,7 +1593,7 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             return;
         }
         pendingPriceInputs.remove(uuid);
-        double price = value;
+        long price = value;
         Bukkit.getScheduler().runTask(plugin, () -> {
             int updated = updateMaterialBuyPrice(pending.material(), price);
             if (updated <= 0) {
@@ -1575,9 +1621,9 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             }
             return;
         }
-        double value;
+        long value;
         try {
-            value = Double.parseDouble(message.replace(',', '.'));
+            value = Money.parse(message);
         } catch (NumberFormatException ex) {
             Bukkit.getScheduler().runTask(plugin, () -> player.sendMessage("§cValeur invalide. Entrez un nombre."));
             return;
@@ -1603,7 +1649,7 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
         if (removed == null) {
             return;
         }
-        double price = value;
+        long price = value;
         Bukkit.getScheduler().runTask(plugin, () -> {
             ItemStack item = removed.item();
             UUID listingId = UUID.randomUUID();
@@ -1740,6 +1786,17 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
                 .collect(Collectors.toList());
     }
 
+    Collection<ShopTemplate> getTemplates() {
+        return templates.values();
+    }
+
+    /**
+     * Lists an item in the general store without saving it, for the benchmarks.
+     */
+    void addGeneralListing(GeneralShopListing listing) {
+        generalListings.put(listing.getId(), listing);
+    }
+
     public void shutdown() {
         saveGeneralStore();
         if (nameVisibilityTask != null) {
@@ -1749,6 +1806,15 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
     }
 
     private void updateShopNameVisibility() {
+        long start = PerformanceMonitor.start();
+        try {
+            applyShopNameVisibility();
+        } finally {
+            PerformanceMonitor.stop(HotPath.UPDATE_SHOP_NAMES, start);
+        }
+    }
+
+    private void applyShopNameVisibility() {
         if (shops.isEmpty()) {
             return;
         }
@@ -1779,83 +1845,31 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
         }
     }
 
-    private TemplatePriceMultiplier getTemplatePriceMultiplier(String templateKey) {
-        if (templateKey == null) {
-            return TemplatePriceMultiplier.DEFAULT;
-        }
-        return templateMultipliers.getOrDefault(templateKey.toLowerCase(Locale.ROOT), TemplatePriceMultiplier.DEFAULT);
-    }
-
     private void setTemplatePriceMultiplier(String templateKey, double buyMultiplier, double sellMultiplier) {
-        String normalized = templateKey.toLowerCase(Locale.ROOT);
-        TemplatePriceMultiplier updated = new TemplatePriceMultiplier(buyMultiplier, sellMultiplier);
-        if (updated.isDefault()) {
-            templateMultipliers.remove(normalized);
-        } else {
-            templateMultipliers.put(normalized, updated);
-        }
+        pricing.set(templateKey, buyMultiplier, sellMultiplier);
         savePriceMultipliers();
     }
 
     private void setBuyPriceMultiplier(String templateKey, double multiplier) {
-        String normalized = templateKey.toLowerCase(Locale.ROOT);
-        TemplatePriceMultiplier current = templateMultipliers.getOrDefault(normalized, TemplatePriceMultiplier.DEFAULT);
-        TemplatePriceMultiplier updated = current.withBuy(multiplier);
-        if (updated.isDefault()) {
-            templateMultipliers.remove(normalized);
-        } else {
-            templateMultipliers.put(normalized, updated);
-        }
+        pricing.setBuy(templateKey, multiplier);
         savePriceMultipliers();
     }
 
     private void setSellPriceMultiplier(String templateKey, double multiplier) {
-        String normalized = templateKey.toLowerCase(Locale.ROOT);
-        TemplatePriceMultiplier current = templateMultipliers.getOrDefault(normalized, TemplatePriceMultiplier.DEFAULT);
-        TemplatePriceMultiplier updated = current.withSell(multiplier);
-        if (updated.isDefault()) {
-            templateMultipliers.remove(normalized);
-        } else {
-            templateMultipliers.put(normalized, updated);
-        }
+        pricing.setSell(templateKey, multiplier);
         savePriceMultipliers();
     }
 
     private boolean resetTemplatePriceMultiplier(String templateKey) {
-        boolean removed = templateMultipliers.remove(templateKey.toLowerCase(Locale.ROOT)) != null;
+        boolean removed = pricing.reset(templateKey);
         savePriceMultipliers();
         return removed;
     }
 
     private boolean resetTemplatePriceMultiplier(String templateKey, boolean resetBuy, boolean resetSell) {
-        if (!resetBuy && !resetSell) {
+        if (!pricing.reset(templateKey, resetBuy, resetSell)) {
             return false;
         }
-        String normalized = templateKey.toLowerCase(Locale.ROOT);
-        TemplatePriceMultiplier current = templateMultipliers.get(normalized);
-        if (current == null) {
-            return false;
-        }
-        double buy = current.buy();
-        double sell = current.sell();
-        boolean changed = false;
-        if (resetBuy && Math.abs(buy - 1.0) > TemplatePriceMultiplier.EPSILON) {
-            buy = 1.0;
-            changed = true;
-        }
-        if (resetSell && Math.abs(sell - 1.0) > TemplatePriceMultiplier.EPSILON) {
-            sell = 1.0;
-            changed = true;
-        }
-        if (!changed) {
-            return false;
-        }
-        TemplatePriceMultiplier updated = new TemplatePriceMultiplier(buy, sell);
-        if (updated.isDefault()) {
-            templateMultipliers.remove(normalized);
-        } else {
-            templateMultipliers.put(normalized, updated);
-        }
         savePriceMultipliers();
         return true;
     }
@@ -1865,44 +1879,12 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
             shopSettingsConfig = new YamlConfiguration();
         }
         shopSettingsConfig.set("price-multipliers", null);
-        for (Map.Entry<String, TemplatePriceMultiplier> entry : templateMultipliers.entrySet()) {
+        for (Map.Entry<String, ShopPricing.Multiplier> entry : pricing.getMultipliers().entrySet()) {
             ConfigurationSection section = shopSettingsConfig.createSection("price-multipliers." + entry.getKey());
             section.set("buy", entry.getValue().buy());
             section.set("sell", entry.getValue().sell());
         }
-        try {
-            shopSettingsConfig.save(shopSettingsFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Impossible d'enregistrer shop-settings.yml: " + e.getMessage());
-        }
-    }
-
-    private double applyMultiplier(double basePrice, double multiplier) {
-        if (basePrice == 0) {
-            return 0;
-        }
-        return roundPrice(basePrice * multiplier);
-    }
-
-    private record TemplatePriceMultiplier(double buy, double sell) {
-        static final TemplatePriceMultiplier DEFAULT = new TemplatePriceMultiplier(1.0, 1.0);
-        static final double EPSILON = 1.0E-6;
-
-        boolean isDefault() {
-            return Math.abs(buy - 1.0) < EPSILON && Math.abs(sell - 1.0) < EPSILON;
-        }
-
-        TemplatePriceMultiplier withBuy(double newBuy) {
-            return new TemplatePriceMultiplier(newBuy, sell);
-        }
-
-        TemplatePriceMultiplier withSell(double newSell) {
-            return new TemplatePriceMultiplier(buy, newSell);
-        }
-    }
-
-    private double roundPrice(double value) {
-        return Math.round(value * 100.0) / 100.0;
+        persistence.markDirty(SHOP_SETTINGS_KEY);
     }
 
     private String serializeItemStack(ItemStack item) {
@@ -1939,6 +1921,10 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
     }
 
     private void saveTemplates() {
+        persistence.markDirty(TEMPLATES_KEY);
+    }
+
+    private PersistenceScheduler.Snapshot captureTemplates() {
         YamlConfiguration config = new YamlConfiguration();
         for (ShopTemplate template : templates.values()) {
             String path = "templates." + template.getKey();
@@ -1952,8 +1938,11 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
                 ItemStack item = offer.item();
                 map.put("item", serializeItemStack(item));
                 map.put("amount", offer.getAmount());
-                map.put("buy-price", offer.buyPrice());
-                map.put("sell-price", offer.sellPrice());
+                map.put("buy-price", Money.toMajor(offer.buyPrice()));
+                map.put("sell-price", Money.toMajor(offer.sellPrice()));
+                if (!offer.currency().isDefault()) {
+                    map.put("currency", offer.currency().name());
+                }
                 items.add(map);
             }
             config.set(path + ".items", items);
@@ -1973,20 +1962,19 @@ public class ShopManager implements CommandExecutor, TabCompleter, Listener {
                         ItemStack item = offer.item();
                         map.put("item", serializeItemStack(item));
                         map.put("amount", offer.getAmount());
-                        map.put("buy-price", offer.buyPrice());
-                        map.put("sell-price", offer.sellPrice());
+                        map.put("buy-price", Money.toMajor(offer.buyPrice()));
+                        map.put("sell-price", Money.toMajor(offer.sellPrice()));
+                        if (!offer.currency().isDefault()) {
+                            map.put("currency", offer.currency().name());
+                        }
                         categoryItems.add(map);
                     }
                     config.set(categoryPath + ".items", categoryItems);
                 }
             }
         }
-        try {
-            config.save(templatesFile);
-            this.templatesConfig = config;
-        } catch (IOException e) {
-            plugin.getLogger().severe("Impossible d'enregistrer shop-templates.yml: " + e.getMessage());
-        }
+        this.templatesConfig = config;
+        return render(config);
     }
 
     private enum PotionModifier {
@@ -0,0 +1,50 @@
+package com.outlaw.economy.shop;
+
+import com.outlaw.economy.api.Currency;
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+
+public class ShopOffer {
+    private final ItemStack item;
+    private final long buyPrice;
+    private final long sellPrice;
+    private final Currency currency;
+
+    public ShopOffer(ItemStack item, long buyPrice, long sellPrice) {
+        this(item, buyPrice, sellPrice, Currency.DEFAULT);
+    }
+
+    /**
+     * @param currency the currency both prices are in
+     */
+    public ShopOffer(ItemStack item, long buyPrice, long sellPrice, Currency currency) {
+        this.item = item;
+        this.buyPrice = buyPrice;
+        this.sellPrice = sellPrice;
+        this.currency = currency;
+    }
+
+    public ItemStack item() {
+        return item.clone();
+    }
+
+    public Material getMaterial() {
+        return item.getType();
+    }
+
+    public int getAmount() {
+        return item.getAmount();
+    }
+
+    public long buyPrice() {
+        return buyPrice;
+    }
+
+    public long sellPrice() {
+        return sellPrice;
+    }
+
+    public Currency currency() {
+        return currency;
+    }
+}
@@ -88,7 +88,7 @@ public class ShopTemplate {
         return categories.get(key.toLowerCase(Locale.ROOT));
     }
 
-    public int updateBuyPrice(Material material, double price) {
+    public int updateBuyPrice(Material material, long price) {
         int updated = 0;
         for (int i = 0; i < offers.size(); i++) {
             ShopOffer offer = offers.get(i);
@@ -96,7 +96,7 @@ public class ShopTemplate {
                 continue;
             }
             ItemStack item = offer.item();
-            offers.set(i, new ShopOffer(item, price, offer.sellPrice()));
+            offers.set(i, new ShopOffer(item, price, offer.sellPrice(), offer.currency()));
             updated++;
         }
         for (ShopCategory category : categories.values()) {
@@ -105,18 +105,18 @@ public class ShopTemplate {
         return updated;
     }
 
-    public OptionalDouble findBuyPrice(Material material) {
+    public Optional<ShopOffer> findOffer(Material material) {
         for (ShopOffer offer : offers) {
             if (offer.getMaterial() == material) {
-                return OptionalDouble.of(offer.buyPrice());
+                return Optional.of(offer);
             }
         }
         for (ShopCategory category : categories.values()) {
-            OptionalDouble found = category.findBuyPrice(material);
+            Optional<ShopOffer> found = category.findOffer(material);
             if (found.isPresent()) {
                 return found;
             }
         }
-        return OptionalDouble.empty();
+        return Optional.empty();
     }
 }
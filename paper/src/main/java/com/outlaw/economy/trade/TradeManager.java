@@ -241,6 +241,9 @@ public class TradeManager implements CommandExecutor, TabCompleter, Listener {
             }
             if (session.isMoneyDisplay(rawSlot)) {
                 event.setCancelled(true);
+                if (session.isOwnMoneyDisplay(player.getUniqueId(), rawSlot)) {
+                    session.cycleCurrency(player.getUniqueId());
+                }
                 return;
             }
             if (rawSlot == TradeSession.CANCEL_SLOT) {
@@ -1,6 +1,9 @@
 package com.outlaw.economy.trade;
 
+import com.outlaw.economy.api.Currency;
 import com.outlaw.economy.core.EconomyManager;
+import com.outlaw.economy.metrics.HotPath;
+import com.outlaw.economy.metrics.PerformanceMonitor;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.Bukkit;
@@ -28,19 +31,15 @@ public class TradeSession {
     private final UUID playerOne;
     private final UUID playerTwo;
     private final Inventory inventory;
-    private final Map<UUID, Integer> moneyOffers = new HashMap<>();
-    private final Map<UUID, Boolean> confirmations = new HashMap<>();
+    private final TradeSettlement settlement;
 
     public TradeSession(Player one, Player two, EconomyManager economyManager) {
         this.playerOne = one.getUniqueId();
         this.playerTwo = two.getUniqueId();
         this.economyManager = economyManager;
+        this.settlement = new TradeSettlement(playerOne, playerTwo, economyManager.getPlugin().getLogger());
         this.inventory = Bukkit.createInventory(new TradeInventoryHolder(this), 54,
                 Component.text("Echange: " + one.getName() + " & " + two.getName()));
-        moneyOffers.put(playerOne, 0);
-        moneyOffers.put(playerTwo, 0);
-        confirmations.put(playerOne, false);
-        confirmations.put(playerTwo, false);
         decorateInventory();
         one.openInventory(inventory);
         two.openInventory(inventory);
@@ -94,7 +93,7 @@ public class TradeSession {
     }
 
     private ItemStack confirmationItem(UUID playerId) {
-        boolean confirmed = confirmations.getOrDefault(playerId, false);
+        boolean confirmed = settlement.isConfirmed(playerId);
         Material material = confirmed ? Material.LIME_CONCRETE : Material.RED_CONCRETE;
         String text = confirmed ? "Confirmé" : "En attente";
         return createItem(material, Component.text(text, confirmed ? NamedTextColor.GREEN : NamedTextColor.RED));
@@ -121,22 +120,45 @@ public class TradeSession {
     }
 
     public void adjustMoney(UUID playerId, int amount) {
-        int current = moneyOffers.getOrDefault(playerId, 0);
-        int updated = Math.max(0, current + amount);
-        moneyOffers.put(playerId, updated);
-        confirmations.put(playerId, false);
-        confirmations.put(other(playerId), false);
+        settlement.adjustOffer(playerId, amount);
+        refreshMoneyDisplays();
+        updateConfirmButtons();
+        sendStatus();
+    }
+
+    /**
+     * Switches the offer of a player to the next currency, when there is more than one.
+     */
+    public void cycleCurrency(UUID playerId) {
+        List<Currency> currencies = economyManager.currencies();
+        if (currencies.size() < 2) {
+            return;
+        }
+        int next = (settlement.getCurrency(playerId).index() + 1) % currencies.size();
+        settlement.setCurrency(playerId, currencies.get(next));
         refreshMoneyDisplays();
         updateConfirmButtons();
         sendStatus();
     }
 
     private void refreshMoneyDisplays() {
-        String currency = economyManager.currencyCode();
-        inventory.setItem(MONEY_DISPLAY_ONE, createItem(Material.PAPER,
-                Component.text("Offre: " + economyManager.format(moneyOffers.get(playerOne)) + " " + currency, NamedTextColor.YELLOW)));
-        inventory.setItem(MONEY_DISPLAY_TWO, createItem(Material.PAPER,
-                Component.text("Offre: " + economyManager.format(moneyOffers.get(playerTwo)) + " " + currency, NamedTextColor.YELLOW)));
+        inventory.setItem(MONEY_DISPLAY_ONE, moneyDisplay(playerOne));
+        inventory.setItem(MONEY_DISPLAY_TWO, moneyDisplay(playerTwo));
+    }
+
+    private ItemStack moneyDisplay(UUID playerId) {
+        ItemStack item = createItem(Material.PAPER, Component.text("Offre: " + describeOffer(playerId), NamedTextColor.YELLOW));
+        if (economyManager.currencies().size() > 1) {
+            ItemMeta meta = item.getItemMeta();
+            meta.lore(List.of(Component.text("Clique pour changer de devise", NamedTextColor.GRAY)));
+            item.setItemMeta(meta);
+        }
+        return item;
+    }
+
+    private String describeOffer(UUID playerId) {
+        Currency currency = settlement.getCurrency(playerId);
+        return economyManager.formatMinor(currency, settlement.getOffer(playerId)) + " " + economyManager.currencyCode(currency);
     }
 
     public boolean isConfirmSlot(UUID playerId, int slot) {
@@ -150,35 +172,33 @@ public class TradeSession {
     }
 
     public void toggleConfirm(UUID playerId) {
-        confirmations.put(playerId, !confirmations.getOrDefault(playerId, false));
+        settlement.toggleConfirm(playerId);
         updateConfirmButtons();
         sendStatus();
     }
 
     public void resetConfirmations() {
-        confirmations.put(playerOne, false);
-        confirmations.put(playerTwo, false);
+        settlement.resetConfirmations();
         updateConfirmButtons();
     }
 
     public boolean bothConfirmed() {
-        return confirmations.getOrDefault(playerOne, false) && confirmations.getOrDefault(playerTwo, false);
+        return settlement.bothConfirmed();
     }
 
     public void sendStatus() {
         Player one = getPlayer(playerOne);
         Player two = getPlayer(playerTwo);
-        String currency = economyManager.currencyCode();
         if (one != null) {
-            one.sendActionBar(Component.text("Offre: " + economyManager.format(moneyOffers.get(playerOne)) + " " + currency, NamedTextColor.GOLD));
+            one.sendActionBar(Component.text("Offre: " + describeOffer(playerOne), NamedTextColor.GOLD));
         }
         if (two != null) {
-            two.sendActionBar(Component.text("Offre: " + economyManager.format(moneyOffers.get(playerTwo)) + " " + currency, NamedTextColor.GOLD));
+            two.sendActionBar(Component.text("Offre: " + describeOffer(playerTwo), NamedTextColor.GOLD));
         }
     }
 
-    public int getMoneyOffer(UUID playerId) {
-        return moneyOffers.getOrDefault(playerId, 0);
+    public long getMoneyOffer(UUID playerId) {
+        return settlement.getOffer(playerId);
     }
 
     public int[] getSlotsFor(UUID playerId) {
@@ -209,6 +229,10 @@ public class TradeSession {
         return slot == MONEY_DISPLAY_ONE || slot == MONEY_DISPLAY_TWO;
     }
 
+    public boolean isOwnMoneyDisplay(UUID playerId, int slot) {
+        return playerId.equals(playerOne) ? slot == MONEY_DISPLAY_ONE : playerId.equals(playerTwo) && slot == MONEY_DISPLAY_TWO;
+    }
+
     public UUID other(UUID playerId) {
         return playerId.equals(playerOne) ? playerTwo : playerOne;
     }
@@ -218,11 +242,19 @@ public class TradeSession {
         if (player == null) {
             return false;
         }
-        int offer = getMoneyOffer(playerId);
-        return economyManager.has(playerId, offer);
+        return settlement.canAfford(economyManager, playerId);
     }
 
     public boolean finalizeTrade() {
+        long start = PerformanceMonitor.start();
+        try {
+            return completeTrade();
+        } finally {
+            PerformanceMonitor.stop(HotPath.FINALIZE_TRADE, start);
+        }
+    }
+
+    private boolean completeTrade() {
         Player one = getPlayer(playerOne);
         Player two = getPlayer(playerTwo);
         if (one == null || two == null) {
@@ -237,25 +269,12 @@ public class TradeSession {
         }
         List<ItemStack> toOne = collectItems(PLAYER_TWO_SLOTS);
         List<ItemStack> toTwo = collectItems(PLAYER_ONE_SLOTS);
-        int offerOne = getMoneyOffer(playerOne);
-        int offerTwo = getMoneyOffer(playerTwo);
-        String tradeContext = one.getName() + " <-> " + two.getName();
-        boolean withdrawnOne = economyManager.withdraw(playerOne, offerOne, "Trade with " + two.getName());
-        boolean withdrawnTwo = economyManager.withdraw(playerTwo, offerTwo, "Trade with " + one.getName());
-        if (!withdrawnOne || !withdrawnTwo) {
-            if (withdrawnOne) {
-                economyManager.deposit(playerOne, offerOne, "Trade refund " + tradeContext);
-            }
-            if (withdrawnTwo) {
-                economyManager.deposit(playerTwo, offerTwo, "Trade refund " + tradeContext);
-            }
+        if (!settlement.settle(economyManager, one.getName(), two.getName())) {
             one.sendMessage("§cErreur lors du paiement.");
             two.sendMessage("§cErreur lors du paiement.");
             resetConfirmations();
             return false;
         }
-        economyManager.deposit(playerTwo, offerOne, "Trade payment from " + one.getName());
-        economyManager.deposit(playerOne, offerTwo, "Trade payment from " + two.getName());
         giveItems(one, toOne);
         giveItems(two, toTwo);
         one.sendMessage("§aEchange réussi !");